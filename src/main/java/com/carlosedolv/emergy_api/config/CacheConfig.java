@@ -0,0 +1,33 @@
+package com.carlosedolv.emergy_api.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USER_IDS_BY_EMAIL = "userIdsByEmail";
+    public static final String MISSING_USER_IDS = "missingUserIds";
+
+    // Negative entries get their own short TTL instead of the shared spec: they only exist to absorb repeated
+    // probes for ids that do not exist.
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> missingUserIdsCache(
+            @Value("${emergy.cache.missing-user-ids.ttl:30s}") Duration ttl,
+            @Value("${emergy.cache.missing-user-ids.maximum-size:100000}") long maximumSize
+    ) {
+        return cacheManager -> cacheManager.registerCustomCache(MISSING_USER_IDS, Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build());
+    }
+}
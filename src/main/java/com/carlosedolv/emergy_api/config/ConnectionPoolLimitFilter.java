@@ -0,0 +1,106 @@
+package com.carlosedolv.emergy_api.config;
+
+import com.carlosedolv.emergy_api.controllers.exceptions.StandardError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectionPoolLimitFilter extends OncePerRequestFilter {
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final ObjectMapper objectMapper;
+
+    public ConnectionPoolLimitFilter(int maxConcurrentRequests, Duration acquireTimeout, ObjectMapper objectMapper) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+        this.objectMapper = objectMapper;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            releaseWhenDone(request);
+        }
+    }
+
+    // Health and metrics probes must answer even when the application is saturated.
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals(ACTUATOR_PATH) || path.startsWith(ACTUATOR_PATH + "/");
+    }
+
+    // An async handler (StreamingResponseBody, the export) returns from the chain before its body is written, and it
+    // keeps its connection until then, so the permit is held until the async request completes. Async dispatches
+    // back into the chain are skipped by OncePerRequestFilter and do not take a second permit.
+    private void releaseWhenDone(HttpServletRequest request) {
+        if (!request.isAsyncStarted()) {
+            permits.release();
+            return;
+        }
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                permits.release();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                event.getAsyncContext().addListener(this);
+            }
+        });
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        StandardError error = new StandardError(
+                Instant.now(), status.value(), "Service unavailable",
+                "The server is at capacity. Please retry shortly.", request.getRequestURI()
+        );
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
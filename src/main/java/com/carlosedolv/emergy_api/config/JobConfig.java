@@ -0,0 +1,29 @@
+package com.carlosedolv.emergy_api.config;
+
+import com.carlosedolv.emergy_api.services.jobs.JobScheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class JobConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public JobScheduler jobScheduler(
+            @Value("${emergy.jobs.workers:2}") int workers,
+            @Value("${emergy.jobs.queue-capacity:1000}") int queueCapacity,
+            @Value("${emergy.jobs.per-user-capacity:50}") int perUserCapacity,
+            @Value("${emergy.jobs.result-ttl:10m}") Duration resultTtl,
+            MeterRegistry meterRegistry
+    ) {
+        JobScheduler scheduler = new JobScheduler(workers, queueCapacity, perUserCapacity, resultTtl);
+        Gauge.builder("emergy.jobs.pending", scheduler, JobScheduler::pendingCount)
+                .description("Jobs waiting for a worker")
+                .register(meterRegistry);
+        return scheduler;
+    }
+}
@@ -0,0 +1,42 @@
+package com.carlosedolv.emergy_api.config;
+
+import com.carlosedolv.emergy_api.services.security.PasswordHasher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class PasswordConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHasher passwordHasher(
+            @Value("${emergy.password.bcrypt-strength:10}") int strength,
+            @Value("${emergy.password.threads:0}") int threads,
+            @Value("${emergy.password.queue-capacity:64}") int queueCapacity,
+            @Value("${emergy.password.timeout:5s}") Duration timeout,
+            MeterRegistry meterRegistry
+    ) {
+        int poolSize = threads > 0 ? threads : defaultPoolSize(Runtime.getRuntime().availableProcessors());
+        PasswordHasher hasher = new PasswordHasher(strength, poolSize, queueCapacity, timeout);
+        Gauge.builder("emergy.password.queue.depth", hasher, PasswordHasher::queueDepth)
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("emergy.password.active", hasher, PasswordHasher::activeCount)
+                .description("Password hashes currently running")
+                .register(meterRegistry);
+        FunctionCounter.builder("emergy.password.rejected", hasher, PasswordHasher::rejectedCount)
+                .description("Password hashes shed because the hashing pool was saturated")
+                .register(meterRegistry);
+        return hasher;
+    }
+
+    // Half the cores, so a burst of sign-ups cannot take every CPU away from the request threads.
+    static int defaultPoolSize(int cores) {
+        return Math.max(1, cores / 2);
+    }
+}
@@ -0,0 +1,42 @@
+package com.carlosedolv.emergy_api.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Read-only transactions go to the replica. Once a request has opened a read-write transaction, the rest of that
+// request stays on the primary so it never reads a replica that has not caught up with its own write yet. A read-only
+// transaction named PRIMARY_READ also goes to the primary, without pinning the request: it is meant for reads whose
+// result outlives the request (cache fills), which must not capture replica lag.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY_READ = ReadWriteRoutingDataSource.class.getName() + ".PRIMARY_READ";
+    static final String WROTE_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".WROTE";
+
+    enum Route { PRIMARY, REPLICA }
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (request != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+            return Route.PRIMARY;
+        }
+        if (PRIMARY_READ.equals(TransactionSynchronizationManager.getCurrentTransactionName())) {
+            return Route.PRIMARY;
+        }
+        boolean wrote = request != null && request.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+        return wrote ? Route.PRIMARY : Route.REPLICA;
+    }
+}
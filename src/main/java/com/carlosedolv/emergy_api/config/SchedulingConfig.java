@@ -0,0 +1,10 @@
+package com.carlosedolv.emergy_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Scheduled jobs are off unless their cron property is set, e.g. emergy.archive.cron.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
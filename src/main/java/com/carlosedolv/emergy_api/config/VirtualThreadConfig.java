@@ -0,0 +1,33 @@
+package com.carlosedolv.emergy_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// With virtual threads Tomcat no longer caps concurrency, so requests are bounded by the JDBC pool size instead.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConnectionPoolLimitFilter> connectionPoolLimitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${emergy.virtual-threads.requests-per-connection:4}") int requestsPerConnection,
+            @Value("${emergy.virtual-threads.acquire-timeout:2s}") Duration acquireTimeout,
+            ObjectMapper objectMapper
+    ) {
+        ConnectionPoolLimitFilter filter = new ConnectionPoolLimitFilter(
+                poolSize * requestsPerConnection, acquireTimeout, objectMapper
+        );
+        FilterRegistrationBean<ConnectionPoolLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,41 @@
+package com.carlosedolv.emergy_api.controllers;
+
+import com.carlosedolv.emergy_api.dtos.response.RollupResponseDTO;
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import com.carlosedolv.emergy_api.services.rollup.RollupService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/aggregates")
+public class AggregateController {
+    private final RollupService service;
+
+    public AggregateController(RollupService service) {
+        this.service = service;
+    }
+
+    @GetMapping(value = "/{dimension}")
+    public ResponseEntity<List<RollupResponseDTO>> findAll(
+            @PathVariable String dimension,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to
+    ) {
+        List<RollupResponseDTO> rollups = service.findAll(RollupDimension.fromPath(dimension), from, to);
+        return ResponseEntity.ok().body(rollups);
+    }
+
+    @GetMapping(value = "/{dimension}/{key}")
+    public ResponseEntity<RollupResponseDTO> findByKey(@PathVariable String dimension, @PathVariable String key) {
+        RollupResponseDTO rollup = service.findByKey(RollupDimension.fromPath(dimension), key);
+        return ResponseEntity.ok().body(rollup);
+    }
+
+    @PostMapping(value = "/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        service.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.carlosedolv.emergy_api.controllers;
+
+import com.carlosedolv.emergy_api.dtos.response.FuelTypeResponseDTO;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeLoader;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/fuel-types")
+public class FuelTypeController {
+    private final FuelTypeRegistry registry;
+    private final FuelTypeLoader loader;
+
+    public FuelTypeController(FuelTypeRegistry registry, FuelTypeLoader loader) {
+        this.registry = registry;
+        this.loader = loader;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<FuelTypeResponseDTO>> findAll() {
+        List<FuelTypeResponseDTO> types = registry.current().all().stream().map(FuelTypeResponseDTO::new).toList();
+        return ResponseEntity.ok().body(types);
+    }
+
+    @PostMapping(value = "/reload")
+    public ResponseEntity<List<FuelTypeResponseDTO>> reload() {
+        List<FuelTypeResponseDTO> types = loader.reload().all().stream().map(FuelTypeResponseDTO::new).toList();
+        return ResponseEntity.ok().body(types);
+    }
+}
@@ -0,0 +1,50 @@
+package com.carlosedolv.emergy_api.controllers;
+
+import com.carlosedolv.emergy_api.dtos.request.SweepRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.UncertaintyRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.JobResponseDTO;
+import com.carlosedolv.emergy_api.services.jobs.SimulationJobService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping(value = "/jobs")
+public class JobController {
+    private final SimulationJobService service;
+
+    public JobController(SimulationJobService service) {
+        this.service = service;
+    }
+
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<JobResponseDTO> findById(@PathVariable String id) {
+        JobResponseDTO jobResponseDTO = service.findById(id);
+        return ResponseEntity.ok().body(jobResponseDTO);
+    }
+
+    @PostMapping(value = "/simulations/{id}/uncertainty")
+    public ResponseEntity<JobResponseDTO> submitUncertainty(
+            @PathVariable Long id,
+            @Valid @RequestBody(required = false) UncertaintyRequestDTO dto
+    ) {
+        return accepted(service.submitUncertainty(id, dto));
+    }
+
+    @PostMapping(value = "/simulations/sweep")
+    public ResponseEntity<JobResponseDTO> submitSweep(@Valid @RequestBody SweepRequestDTO dto) {
+        return accepted(service.submitSweep(dto));
+    }
+
+    private ResponseEntity<JobResponseDTO> accepted(JobResponseDTO job) {
+        URI uri = ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path("/jobs/{id}")
+                .buildAndExpand(job.id())
+                .toUri();
+        return ResponseEntity.accepted().location(uri).body(job);
+    }
+}
@@ -1,13 +1,29 @@
 package com.carlosedolv.emergy_api.controllers;
 
 import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.SweepRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.UncertaintyRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.ArchiveResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.ImportResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
 import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.SweepResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UncertaintyResponseDTO;
+import com.carlosedolv.emergy_api.services.ETags;
 import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.SweepService;
+import com.carlosedolv.emergy_api.services.archive.SimulationArchiveService;
+import com.carlosedolv.emergy_api.services.imports.ImportFormat;
+import com.carlosedolv.emergy_api.services.imports.SimulationImportService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
@@ -15,21 +31,39 @@ import java.util.List;
 @RequestMapping(value = "/simulations")
 public class SimulationController {
     private final SimulationService service;
+    private final SweepService sweepService;
+    private final SimulationImportService importService;
+    private final SimulationArchiveService archiveService;
 
-    public SimulationController(SimulationService service) {
+    public SimulationController(SimulationService service, SweepService sweepService,
+                                SimulationImportService importService, SimulationArchiveService archiveService) {
         this.service = service;
+        this.sweepService = sweepService;
+        this.importService = importService;
+        this.archiveService = archiveService;
     }
 
+    // With `fields` only the named fields are selected and written, e.g. fields=id,title,result or fields=id,user.name.
     @GetMapping
-    public ResponseEntity<List<SimulationResponseDTO>> findAll() {
-        List<SimulationResponseDTO> list = service.findAll();
-        return ResponseEntity.ok().body(list);
+    public ResponseEntity<PageResponseDTO<?>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields
+    ) {
+        PageResponseDTO<?> page = fields != null
+                ? service.findAll(cursor, size, withTotal, fields)
+                : service.findAll(cursor, size, withTotal);
+        return ResponseEntity.ok().body(page);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<SimulationResponseDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<SimulationResponseDTO> findById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(service.currentETag(id))) {
+            return null;
+        }
         SimulationResponseDTO dto = service.findById(id);
-        return ResponseEntity.ok().body(dto);
+        return ResponseEntity.ok().eTag(ETags.of(dto)).body(dto);
     }
 
     @GetMapping(value = "/title/{title}")
@@ -38,6 +72,25 @@ public class SimulationController {
         return ResponseEntity.ok().body(list);
     }
 
+    @GetMapping(value = "/search")
+    public ResponseEntity<List<SimulationResponseDTO>> searchByTitle(
+            @RequestParam String title,
+            @RequestParam(defaultValue = "true") boolean prefix,
+            @RequestParam(required = false) Integer size
+    ) {
+        List<SimulationResponseDTO> list = service.searchByTitle(title, prefix, size);
+        return ResponseEntity.ok().body(list);
+    }
+
+    @GetMapping(value = "/search/fuzzy")
+    public ResponseEntity<List<SimulationResponseDTO>> fuzzySearchByTitle(
+            @RequestParam String title,
+            @RequestParam(required = false) Integer size
+    ) {
+        List<SimulationResponseDTO> list = service.fuzzySearchByTitle(title, size);
+        return ResponseEntity.ok().body(list);
+    }
+
     @PostMapping
     public ResponseEntity<SimulationResponseDTO> save(@Valid @RequestBody SimulationRequestDTO dto) {
         SimulationResponseDTO saved = service.save(dto);
@@ -46,7 +99,49 @@ public class SimulationController {
                 .path("/{id}")
                 .buildAndExpand(saved.id())
                 .toUri();
-        return ResponseEntity.created(uri).body(saved);
+        return ResponseEntity.created(uri).eTag(ETags.of(saved)).body(saved);
+    }
+
+    @PostMapping(value = "/batch")
+    public ResponseEntity<BatchResponseDTO> saveBatch(@RequestBody List<SimulationRequestDTO> dtos) {
+        BatchResponseDTO result = service.saveAll(dtos);
+        return ResponseEntity.ok().body(result);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/json", ImportFormat.NDJSON_MEDIA_TYPE})
+    public ResponseEntity<ImportResponseDTO> importSimulations(
+            @RequestParam String importId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Integer chunkSize,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body
+    ) {
+        ImportResponseDTO result = importService.importSimulations(
+                importId, ImportFormat.fromContentType(contentType), userId, chunkSize, contentLength, body
+        );
+        return ResponseEntity.ok().body(result);
+    }
+
+    @PostMapping(value = "/{id}/uncertainty")
+    public ResponseEntity<UncertaintyResponseDTO> uncertainty(
+            @PathVariable Long id,
+            @Valid @RequestBody(required = false) UncertaintyRequestDTO dto
+    ) {
+        UncertaintyResponseDTO uncertaintyResponseDTO = service.uncertainty(id, dto);
+        return ResponseEntity.ok().body(uncertaintyResponseDTO);
+    }
+
+    @PostMapping(value = "/sweep")
+    public ResponseEntity<SweepResponseDTO> sweep(@Valid @RequestBody SweepRequestDTO dto) {
+        SweepResponseDTO sweepResponseDTO = sweepService.sweep(dto);
+        return ResponseEntity.ok().body(sweepResponseDTO);
+    }
+
+    @PostMapping(value = "/archive")
+    public ResponseEntity<ArchiveResponseDTO> archive() {
+        ArchiveResponseDTO archiveResponseDTO = archiveService.archive();
+        return ResponseEntity.ok().body(archiveResponseDTO);
     }
 
     @DeleteMapping(value = "/{id}")
@@ -56,9 +151,13 @@ public class SimulationController {
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<SimulationResponseDTO> update(@PathVariable Long id, @Valid @RequestBody SimulationRequestDTO dto) {
-        SimulationResponseDTO saved = service.update(id, dto);
-        return ResponseEntity.ok().body(saved);
+    public ResponseEntity<SimulationResponseDTO> update(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody SimulationRequestDTO dto
+    ) {
+        SimulationResponseDTO saved = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(ETags.of(saved)).body(saved);
     }
 
 }
@@ -1,35 +1,55 @@
 package com.carlosedolv.emergy_api.controllers;
 
 import com.carlosedolv.emergy_api.dtos.request.UserRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
 import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
+import com.carlosedolv.emergy_api.services.ETags;
 import com.carlosedolv.emergy_api.services.UserService;
+import com.carlosedolv.emergy_api.services.export.ExportFormat;
+import com.carlosedolv.emergy_api.services.export.SimulationExportService;
 import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping(value = "/users")
 public class UserController {
     private final UserService service;
+    private final SimulationExportService exportService;
 
-    public UserController(UserService service) {
+    public UserController(UserService service, SimulationExportService exportService) {
         this.service = service;
+        this.exportService = exportService;
     }
 
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> findAll() {
-        List<UserResponseDTO> list = service.findAll();
-        return ResponseEntity.ok().body(list);
+    public ResponseEntity<PageResponseDTO<?>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields
+    ) {
+        PageResponseDTO<?> page = fields != null
+                ? service.findAll(cursor, size, withTotal, fields)
+                : service.findAll(cursor, size, withTotal);
+        return ResponseEntity.ok().body(page);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<UserResponseDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<UserResponseDTO> findById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(service.currentETag(id))) {
+            return null;
+        }
         UserResponseDTO userResponseDTO = service.findById(id);
-        return ResponseEntity.ok().body(userResponseDTO);
+        return ResponseEntity.ok().eTag(ETags.of(userResponseDTO)).body(userResponseDTO);
     }
 
     @GetMapping(value = "/email/{email}")
@@ -38,6 +58,23 @@ public class UserController {
         return ResponseEntity.ok().body(userResponseDTO);
     }
 
+    @GetMapping(value = "/{id}/simulations/export")
+    public ResponseEntity<StreamingResponseBody> exportSimulations(
+            @PathVariable Long id,
+            @RequestParam(required = false) String format
+    ) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        service.findById(id);
+        StreamingResponseBody body = out -> exportService.export(id, exportFormat, out);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("user-" + id + "-simulations." + exportFormat.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
     @PostMapping
     public ResponseEntity<UserResponseDTO> save(@Valid @RequestBody UserRequestDTO dto) {
         UserResponseDTO userResponseDTO = service.save(dto);
@@ -46,7 +83,7 @@ public class UserController {
                 .path("/{id}")
                 .buildAndExpand(userResponseDTO.id())
                 .toUri();
-        return ResponseEntity.created(uri).body(userResponseDTO);
+        return ResponseEntity.created(uri).eTag(ETags.of(userResponseDTO)).body(userResponseDTO);
     }
 
     @DeleteMapping(value = "/{id}")
@@ -56,8 +93,12 @@ public class UserController {
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<UserResponseDTO> update(@PathVariable Long id, @Valid @RequestBody UserRequestDTO dto) {
-        UserResponseDTO userResponseDTO = service.update(id, dto);
-        return ResponseEntity.ok().body(userResponseDTO);
+    public ResponseEntity<UserResponseDTO> update(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UserRequestDTO dto
+    ) {
+        UserResponseDTO userResponseDTO = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(ETags.of(userResponseDTO)).body(userResponseDTO);
     }
 }
@@ -0,0 +1,53 @@
+package com.carlosedolv.emergy_api.controllers.exceptions;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+// A StandardError body with its constant parts (field names, status, error title) serialized once. Rendering
+// escapes the message and path and copies bytes; the output is byte-for-byte what Jackson writes for StandardError.
+final class ErrorBodyTemplate {
+    private static final byte[] OPEN = "{\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PATH = "\",\"path\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLOSE = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpStatus status;
+    private final byte[] head;
+    private final ErrorTimestamp timestamp;
+
+    ErrorBodyTemplate(HttpStatus status, String error, ErrorTimestamp timestamp) {
+        this.status = status;
+        this.timestamp = timestamp;
+        this.head = ("\",\"status\":" + status.value()
+                + ",\"error\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(error))
+                + "\",\"message\":\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    HttpStatus status() {
+        return status;
+    }
+
+    byte[] render(String message, String path) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        byte[] time = timestamp.bytes();
+        byte[] escapedMessage = encoder.quoteAsUTF8(String.valueOf(message));
+        byte[] escapedPath = encoder.quoteAsUTF8(String.valueOf(path));
+
+        byte[] body = new byte[OPEN.length + time.length + head.length + escapedMessage.length
+                + PATH.length + escapedPath.length + CLOSE.length];
+        int offset = append(body, 0, OPEN);
+        offset = append(body, offset, time);
+        offset = append(body, offset, head);
+        offset = append(body, offset, escapedMessage);
+        offset = append(body, offset, PATH);
+        offset = append(body, offset, escapedPath);
+        append(body, offset, CLOSE);
+        return body;
+    }
+
+    private static int append(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+}
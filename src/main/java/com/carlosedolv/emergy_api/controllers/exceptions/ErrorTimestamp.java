@@ -0,0 +1,35 @@
+package com.carlosedolv.emergy_api.controllers.exceptions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+// Error bodies carry second precision, so the formatted timestamp is computed at most once per second instead of
+// once per error. Races only ever format the same second twice.
+final class ErrorTimestamp {
+    private static final DateTimeFormatter FORMAT =
+            DateTimeFormatter.ofPattern("dd-MM-yyyy'T'HH:mm:ss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Clock clock;
+    private volatile Formatted current = new Formatted(Long.MIN_VALUE, new byte[0]);
+
+    ErrorTimestamp(Clock clock) {
+        this.clock = clock;
+    }
+
+    byte[] bytes() {
+        long second = Math.floorDiv(clock.millis(), 1000L);
+        Formatted formatted = current;
+        if (formatted.second != second) {
+            formatted = new Formatted(second,
+                    FORMAT.format(Instant.ofEpochSecond(second)).getBytes(StandardCharsets.US_ASCII));
+            current = formatted;
+        }
+        return formatted.bytes;
+    }
+
+    private record Formatted(long second, byte[] bytes) {
+    }
+}
@@ -1,12 +1,17 @@
 package com.carlosedolv.emergy_api.controllers.exceptions;
 
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourcePreconditionFailedException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceTooManyRequestsException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -14,36 +19,77 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.time.Clock;
 import java.time.Instant;
 
 @ControllerAdvice
 public class ResourceExceptionHandler {
+    private static final ErrorTimestamp TIMESTAMP = new ErrorTimestamp(Clock.systemUTC());
+    private static final ErrorBodyTemplate NOT_FOUND =
+            new ErrorBodyTemplate(HttpStatus.NOT_FOUND, "Resource not found", TIMESTAMP);
+    private static final ErrorBodyTemplate RESOURCE_CONFLICT =
+            new ErrorBodyTemplate(HttpStatus.CONFLICT, "Resource data integrity violation", TIMESTAMP);
+    private static final ErrorBodyTemplate BAD_REQUEST =
+            new ErrorBodyTemplate(HttpStatus.BAD_REQUEST, "Bad request", TIMESTAMP);
+    private static final ErrorBodyTemplate PRECONDITION_FAILED =
+            new ErrorBodyTemplate(HttpStatus.PRECONDITION_FAILED, "Precondition failed", TIMESTAMP);
+    private static final ErrorBodyTemplate TOO_MANY_REQUESTS =
+            new ErrorBodyTemplate(HttpStatus.TOO_MANY_REQUESTS, "Too many requests", TIMESTAMP);
+    private static final ErrorBodyTemplate UNREADABLE_JSON =
+            new ErrorBodyTemplate(HttpStatus.BAD_REQUEST, "Error reading JSON", TIMESTAMP);
+    private static final ErrorBodyTemplate DATA_CONFLICT =
+            new ErrorBodyTemplate(HttpStatus.CONFLICT, "Data integrity violation", TIMESTAMP);
+    private static final ErrorBodyTemplate INTERNAL_ERROR =
+            new ErrorBodyTemplate(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error", TIMESTAMP);
 
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<StandardError> handleResourceNotFound(ResourceNotFoundException ex, HttpServletRequest request) {
+    public ResponseEntity<byte[]> handleResourceNotFound(ResourceNotFoundException ex, HttpServletRequest request) {
         return buildError(
-                HttpStatus.NOT_FOUND,
-                "Resource not found",
+                NOT_FOUND,
                 ex.getMessage(),
                 request
         );
     }
 
     @ExceptionHandler(ResourceDataIntegrityException.class)
-    public ResponseEntity<StandardError> handleResourceDataIntegrity(ResourceDataIntegrityException ex, HttpServletRequest request) {
+    public ResponseEntity<byte[]> handleResourceDataIntegrity(ResourceDataIntegrityException ex, HttpServletRequest request) {
         return buildError(
-                HttpStatus.CONFLICT,
-                "Resource data integrity violation",
+                RESOURCE_CONFLICT,
                 ex.getMessage(),
                 request
         );
     }
 
+    @ExceptionHandler(ResourceBadRequestException.class)
+    public ResponseEntity<byte[]> handleResourceBadRequest(ResourceBadRequestException ex, HttpServletRequest request) {
+        return buildError(
+                BAD_REQUEST,
+                ex.getMessage(),
+                request
+        );
+    }
+
+    @ExceptionHandler(ResourcePreconditionFailedException.class)
+    public ResponseEntity<byte[]> handleResourcePreconditionFailed(ResourcePreconditionFailedException ex, HttpServletRequest request) {
+        return buildError(
+                PRECONDITION_FAILED,
+                ex.getMessage(),
+                request
+        );
+    }
+
+    @ExceptionHandler(ResourceTooManyRequestsException.class)
+    public ResponseEntity<byte[]> handleResourceTooManyRequests(ResourceTooManyRequestsException ex, HttpServletRequest request) {
+        return ResponseEntity.status(TOO_MANY_REQUESTS.status())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(TOO_MANY_REQUESTS.render(ex.getMessage(), request.getRequestURI()));
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
-    public ResponseEntity<StandardError> handleHttpMessageNotReadable(HttpMessageNotReadableException e, HttpServletRequest request) {
+    public ResponseEntity<byte[]> handleHttpMessageNotReadable(HttpMessageNotReadableException e, HttpServletRequest request) {
         return buildError(
-                HttpStatus.BAD_REQUEST,
-                "Error reading JSON",
+                UNREADABLE_JSON,
                 "Invalid data format. Check date fields or numeric types.",
                 request
 
@@ -51,20 +97,18 @@ public class ResourceExceptionHandler {
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
-    public ResponseEntity<StandardError> handleDataIntegrity(DataIntegrityViolationException e, HttpServletRequest request) {
+    public ResponseEntity<byte[]> handleDataIntegrity(DataIntegrityViolationException e, HttpServletRequest request) {
         return buildError(
-                HttpStatus.CONFLICT,
-                "Data integrity violation",
+                DATA_CONFLICT,
                 "The operation violates a database constraint.",
                 request
         );
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<StandardError> handleGenericException(Exception e, HttpServletRequest request) {
+    public ResponseEntity<byte[]> handleGenericException(Exception e, HttpServletRequest request) {
         return buildError(
-                HttpStatus.INTERNAL_SERVER_ERROR,
-                "Internal server error",
+                INTERNAL_ERROR,
                 "An unexpected error occurred on the server.",
                 request
         );
@@ -106,10 +150,9 @@ public class ResourceExceptionHandler {
         return ResponseEntity.status(status).body(err);
     }
 
-    private ResponseEntity<StandardError> buildError(HttpStatus status, String error, String message, HttpServletRequest request) {
-        StandardError standardError = new StandardError(
-                Instant.now(), status.value(), error, message, request.getRequestURI()
-        );
-        return ResponseEntity.status(status).body(standardError);
+    private ResponseEntity<byte[]> buildError(ErrorBodyTemplate template, String message, HttpServletRequest request) {
+        return ResponseEntity.status(template.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(template.render(message, request.getRequestURI()));
     }
 }
@@ -14,7 +14,6 @@ public record SimulationRequestDTO(
         @NotBlank(message = "O tipo de combustível é obrigatório")
         String type,
 
-        @NotNull(message = "O resultado da simulação é obrigatório")
         @PositiveOrZero(message = "O resultado não pode ser negativo")
         Double result,
 
@@ -0,0 +1,31 @@
+package com.carlosedolv.emergy_api.dtos.request;
+
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+public record SweepRequestDTO(
+        @NotNull(message = "O início do intervalo de litros é obrigatório")
+        @Positive(message = "A quantidade de litros deve ser maior que zero")
+        Double litersFrom,
+
+        @NotNull(message = "O fim do intervalo de litros é obrigatório")
+        @Positive(message = "A quantidade de litros deve ser maior que zero")
+        Double litersTo,
+
+        @NotNull(message = "O número de pontos é obrigatório")
+        @Min(value = 1, message = "O número de pontos deve ser maior que zero")
+        Integer steps,
+
+        @NotEmpty(message = "Informe ao menos um tipo de combustível")
+        List<@NotBlank(message = "O tipo de combustível é obrigatório") String> types,
+
+        boolean persist,
+
+        Long userId,
+
+        @Size(min = 3, max = 40, message = "O prefixo do título deve ter entre 3 e 40 caracteres")
+        String titlePrefix
+) {
+
+}
@@ -0,0 +1,18 @@
+package com.carlosedolv.emergy_api.dtos.request;
+
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+public record UncertaintyRequestDTO(
+        @Positive(message = "O número de sorteios deve ser maior que zero")
+        @Max(value = 5_000_000, message = "O número de sorteios deve ser no máximo 5000000")
+        Integer draws,
+
+        Long seed,
+
+        @Size(max = 20, message = "Informe no máximo 20 percentis")
+        List<@NotNull @DecimalMin("0.0") @DecimalMax("100.0") Double> percentiles
+) {
+
+}
@@ -1,7 +1,10 @@
 package com.carlosedolv.emergy_api.dtos.request;
 
+import com.carlosedolv.emergy_api.dtos.request.validation.MaxUtf8Bytes;
+import com.carlosedolv.emergy_api.services.security.PasswordHasher;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
@@ -16,9 +19,11 @@ public record UserRequestDTO(
         String email,
 
         @NotBlank(message = "A senha é obrigatória")
-        @Size(min = 4, message = "A senha deve ter no mínimo 4 caracteres")
+        @Size(min = 4, message = "A senha deve ter pelo menos 4 caracteres")
+        @MaxUtf8Bytes(value = PasswordHasher.MAX_PASSWORD_BYTES, message = "A senha deve ter no máximo 72 bytes")
         String password,
 
+        @Past(message = "A data de nascimento deve estar no passado")
         LocalDate birthday
 ) {
 
@@ -0,0 +1,24 @@
+package com.carlosedolv.emergy_api.dtos.request.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// @Size counts UTF-16 chars; this bounds the UTF-8 encoding instead, for values handed to byte-limited APIs (BCrypt
+// only accepts 72 bytes). Null is valid, as with the standard constraints.
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = MaxUtf8BytesValidator.class)
+public @interface MaxUtf8Bytes {
+    int value();
+
+    String message();
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
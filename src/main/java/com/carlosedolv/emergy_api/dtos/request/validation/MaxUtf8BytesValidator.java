@@ -0,0 +1,20 @@
+package com.carlosedolv.emergy_api.dtos.request.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.nio.charset.StandardCharsets;
+
+public class MaxUtf8BytesValidator implements ConstraintValidator<MaxUtf8Bytes, CharSequence> {
+    private int max;
+
+    @Override
+    public void initialize(MaxUtf8Bytes constraint) {
+        max = constraint.value();
+    }
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || value.toString().getBytes(StandardCharsets.UTF_8).length <= max;
+    }
+}
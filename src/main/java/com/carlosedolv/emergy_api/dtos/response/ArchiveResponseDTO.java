@@ -0,0 +1,6 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+import java.time.Instant;
+
+public record ArchiveResponseDTO(Instant cutoff, long archived, int segments) {
+}
@@ -0,0 +1,11 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+public record BatchItemResultDTO(int index, boolean success, Long id, String error) {
+    public static BatchItemResultDTO created(int index, Long id) {
+        return new BatchItemResultDTO(index, true, id, null);
+    }
+
+    public static BatchItemResultDTO failed(int index, String error) {
+        return new BatchItemResultDTO(index, false, null, error);
+    }
+}
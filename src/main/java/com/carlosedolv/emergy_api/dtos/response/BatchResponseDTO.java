@@ -0,0 +1,13 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+import java.util.List;
+
+public record BatchResponseDTO(int succeeded, int failed, List<BatchItemResultDTO> items) {
+    public BatchResponseDTO(List<BatchItemResultDTO> items) {
+        this(
+                (int) items.stream().filter(BatchItemResultDTO::success).count(),
+                (int) items.stream().filter(item -> !item.success()).count(),
+                items
+        );
+    }
+}
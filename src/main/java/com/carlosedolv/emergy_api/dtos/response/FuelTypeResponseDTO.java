@@ -0,0 +1,15 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
+
+public record FuelTypeResponseDTO(
+        Integer id, String code, String label, Double density, Double lowerHeatingValue, Double transformity,
+        Double densityCv, Double lowerHeatingValueCv, Double transformityCv
+) {
+    public FuelTypeResponseDTO(FuelType type) {
+        this(
+                type.getId(), type.getCode(), type.getLabel(), type.getDensity(), type.getLowerHeatingValue(),
+                type.getTransformity(), type.getDensityCv(), type.getLowerHeatingValueCv(), type.getTransformityCv()
+        );
+    }
+}
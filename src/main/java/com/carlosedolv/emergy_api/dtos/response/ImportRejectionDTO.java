@@ -0,0 +1,4 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+public record ImportRejectionDTO(long row, String error) {
+}
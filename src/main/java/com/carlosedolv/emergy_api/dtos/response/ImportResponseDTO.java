@@ -0,0 +1,16 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+import java.util.List;
+
+// Counts cover this upload; committedRows is the import's position across all uploads. Only the first
+// SimulationImportService.MAX_REPORTED_REJECTIONS rejections are listed.
+public record ImportResponseDTO(
+        String importId,
+        long skipped,
+        long accepted,
+        long rejected,
+        long committedRows,
+        List<ImportRejectionDTO> rejections,
+        boolean rejectionsTruncated
+) {
+}
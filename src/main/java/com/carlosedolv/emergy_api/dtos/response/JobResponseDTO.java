@@ -0,0 +1,26 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+import com.carlosedolv.emergy_api.services.jobs.Job;
+import com.carlosedolv.emergy_api.services.jobs.JobState;
+
+import java.time.Instant;
+
+public record JobResponseDTO(
+        String id, String kind, Long userId, JobState state, double progress,
+        Instant submittedAt, Instant startedAt, Instant finishedAt, Object result, String error
+) {
+    public JobResponseDTO(Job job) {
+        this(
+                job.getId(),
+                job.getKind(),
+                job.getUserId(),
+                job.getState(),
+                job.getProgress(),
+                job.getSubmittedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getResult(),
+                job.getError()
+        );
+    }
+}
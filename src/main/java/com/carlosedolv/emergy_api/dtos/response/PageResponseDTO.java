@@ -0,0 +1,17 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+import com.carlosedolv.emergy_api.services.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record PageResponseDTO<T>(List<T> content, String nextCursor, Long estimatedTotal) {
+    public static <E, T> PageResponseDTO<T> of(
+            List<E> rows, int pageSize, Function<E, T> mapper, Function<E, Long> idGetter, Long estimatedTotal
+    ) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? KeysetCursor.encode(idGetter.apply(page.get(pageSize - 1))) : null;
+        return new PageResponseDTO<>(page.stream().map(mapper).toList(), nextCursor, estimatedTotal);
+    }
+}
@@ -0,0 +1,13 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+import com.carlosedolv.emergy_api.entities.SimulationRollup;
+
+public record RollupResponseDTO(String key, long count, double totalLiters, double totalResult) {
+    public RollupResponseDTO(SimulationRollup entity) {
+        this(entity.getBucketKey(), entity);
+    }
+
+    public RollupResponseDTO(String key, SimulationRollup entity) {
+        this(key, entity.getSimulationCount(), entity.getTotalLiters(), entity.getTotalResult());
+    }
+}
@@ -1,19 +1,39 @@
 package com.carlosedolv.emergy_api.dtos.response;
 
 import com.carlosedolv.emergy_api.entities.Simulation;
-import jakarta.validation.constraints.*;
+import com.carlosedolv.emergy_api.services.archive.ArchivedSimulation;
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public record SimulationResponseDTO(
-        Long id, String title, Double liters, String type, Double result, UserResponseDTO user
+        Long id, String title, Double liters, String type, Double result, UserResponseDTO user,
+        @JsonIgnore Long version
 ) {
     public SimulationResponseDTO(Simulation entity) {
+        this(entity, new UserResponseDTO(entity.getUser()));
+    }
+
+    public SimulationResponseDTO(Simulation entity, UserResponseDTO user) {
         this(
                 entity.getId(),
                 entity.getTitle(),
                 entity.getLiters(),
-                entity.getType(),
+                entity.getFuelType().getLabel(),
                 entity.getResult(),
-                new UserResponseDTO(entity.getUser())
+                user,
+                entity.getVersion()
+        );
+    }
+
+    public SimulationResponseDTO(ArchivedSimulation archived, FuelType type, UserResponseDTO user) {
+        this(
+                archived.id(),
+                archived.title(),
+                archived.liters(),
+                type.getLabel(),
+                archived.result(),
+                user,
+                archived.version()
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,7 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+import java.util.List;
+
+public record SweepResponseDTO(List<String> types, double[] liters, double[][] results, BatchResponseDTO persisted) {
+
+}
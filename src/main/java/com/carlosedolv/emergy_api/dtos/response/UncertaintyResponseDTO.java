@@ -0,0 +1,10 @@
+package com.carlosedolv.emergy_api.dtos.response;
+
+import java.util.Map;
+
+public record UncertaintyResponseDTO(
+        Long simulationId, String type, int draws, long seed, Double result,
+        double mean, double standardDeviation, Map<String, Double> percentiles
+) {
+
+}
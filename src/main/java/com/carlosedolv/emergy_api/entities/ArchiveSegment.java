@@ -0,0 +1,40 @@
+package com.carlosedolv.emergy_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+// Commit record of a cold-store segment file. It is inserted in the transaction that deletes the archived rows, so a
+// segment file without its row was never committed and is discarded on startup.
+@Entity
+@Table(name = "archive_segments")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchiveSegment {
+    @Id
+    private Long id;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchiveSegment that = (ArchiveSegment) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,27 @@
+package com.carlosedolv.emergy_api.entities;
+
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Hibernate obtains converters from Spring, so the registry is injected. Reading a row costs one array access instead
+// of a join or a second-level cache lookup.
+@Converter
+public class FuelTypeConverter implements AttributeConverter<FuelType, Integer> {
+    private final FuelTypeRegistry registry;
+
+    public FuelTypeConverter(FuelTypeRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(FuelType type) {
+        return type != null ? type.getId() : null;
+    }
+
+    @Override
+    public FuelType convertToEntityAttribute(Integer id) {
+        return id != null ? registry.byId(id) : null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.carlosedolv.emergy_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Objects;
+
+// Reference row for a fuel type. Ids are assigned by the fuel type file rather than generated, so the same file
+// yields the same foreign keys in every environment.
+@Entity
+@Table(name = "fuel_types")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FuelTypeDefinition {
+    @Id
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 40)
+    private String code;
+
+    @Column(nullable = false, unique = true, length = 60)
+    private String label;
+
+    @Column(nullable = false)
+    private double density;
+
+    @Column(name = "lower_heating_value", nullable = false)
+    private double lowerHeatingValue;
+
+    @Column(nullable = false)
+    private double transformity;
+
+    @Column(name = "density_cv", nullable = false)
+    private double densityCv;
+
+    @Column(name = "lower_heating_value_cv", nullable = false)
+    private double lowerHeatingValueCv;
+
+    @Column(name = "transformity_cv", nullable = false)
+    private double transformityCv;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FuelTypeDefinition that = (FuelTypeDefinition) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
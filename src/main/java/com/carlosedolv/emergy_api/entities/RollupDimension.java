@@ -0,0 +1,28 @@
+package com.carlosedolv.emergy_api.entities;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+
+public enum RollupDimension {
+    USER("users"),
+    TYPE("types"),
+    DAY("days");
+
+    private final String path;
+
+    RollupDimension(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public static RollupDimension fromPath(String path) {
+        for (RollupDimension dimension : values()) {
+            if (dimension.path.equalsIgnoreCase(path) || dimension.name().equalsIgnoreCase(path)) {
+                return dimension;
+            }
+        }
+        throw new ResourceBadRequestException("Unknown aggregate dimension: " + path);
+    }
+}
@@ -1,34 +1,63 @@
 package com.carlosedolv.emergy_api.entities;
 
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
 
+import java.text.Normalizer;
 import java.time.Instant;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 @Entity
-@Table(name = "simulations")
+@Table(name = "simulations", indexes = {
+        @Index(name = "idx_simulations_title", columnList = "title"),
+        @Index(name = "idx_simulations_title_normalized", columnList = "title_normalized"),
+        @Index(name = "idx_simulations_user_id", columnList = "user_id"),
+        @Index(name = "idx_simulations_created_at", columnList = "created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Simulation {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "simulations_seq")
+    @SequenceGenerator(name = "simulations_seq", sequenceName = "simulations_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "O título é obrigatório")
     @Size(min = 3, max = 80, message = "O título deve ter entre 3 e 80 caracteres")
     private String title;
 
+    @Setter(AccessLevel.NONE)
+    @Column(name = "title_normalized", length = 80)
+    private String titleNormalized;
+
     @NotNull(message = "A quantidade de litros é obrigatória")
     @Positive(message = "A quantidade de litros deve ser maior que zero")
     private Double liters;
 
-    @NotBlank(message = "O tipo de combustível é obrigatório")
-    private String type;
+    @NotNull(message = "O tipo de combustível é obrigatório")
+    @Convert(converter = FuelTypeConverter.class)
+    @Mutability(Immutability.class)
+    @Column(name = "fuel_type_id", nullable = false)
+    private FuelType fuelType;
+
+    // Mapped only so the schema gets the foreign key; fuelType above owns the column and reads go through the registry.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "fuel_type_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_simulations_fuel_type"))
+    private FuelTypeDefinition fuelTypeDefinition;
 
     @NotNull(message = "O resultado da simulação é obrigatório")
     @PositiveOrZero(message = "O resultado não pode ser negativo")
@@ -37,14 +66,32 @@ public class Simulation {
     @Setter(AccessLevel.NONE)
     private Instant createdAt;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @NotNull(message = "A simulação deve estar vinculada a um usuário")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
     @PrePersist
     public void prePersist() {
         this.createdAt = Instant.now();
+        this.titleNormalized = normalizeTitle(title);
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.titleNormalized = normalizeTitle(title);
+    }
+
+    public static String normalizeTitle(String title) {
+        if (title == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(title.strip(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
     }
 
     @Override
@@ -0,0 +1,54 @@
+package com.carlosedolv.emergy_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+// Checkpoint of a bulk import, keyed by the client-chosen import id. committedRows counts every source row
+// (accepted or rejected) covered by a committed chunk, so a retried upload resumes right after it.
+@Entity
+@Table(name = "simulation_imports")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationImport {
+    @Id
+    @Column(length = 100)
+    private String id;
+
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @Column(name = "committed_rows", nullable = false)
+    private long committedRows;
+
+    @Column(name = "accepted_rows", nullable = false)
+    private long acceptedRows;
+
+    @Column(name = "rejected_rows", nullable = false)
+    private long rejectedRows;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SimulationImport that = (SimulationImport) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,51 @@
+package com.carlosedolv.emergy_api.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Objects;
+
+@Entity
+@Table(name = "simulation_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_simulation_rollups_bucket", columnNames = {"dimension", "bucket_key"}
+))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "simulation_rollups_seq")
+    @SequenceGenerator(name = "simulation_rollups_seq", sequenceName = "simulation_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupDimension dimension;
+
+    @Column(name = "bucket_key", nullable = false, length = 40)
+    private String bucketKey;
+
+    @Column(name = "simulation_count", nullable = false)
+    private long simulationCount;
+
+    @Column(name = "total_liters", nullable = false)
+    private double totalLiters;
+
+    @Column(name = "total_result", nullable = false)
+    private double totalResult;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SimulationRollup that = (SimulationRollup) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -24,11 +24,12 @@ import java.util.Objects;
 @Builder
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
-    @Size(min = 3, max = 20, message = "O nome deve ter entre 3 e 80 caracteres")
+    @Size(min = 3, max = 80, message = "O nome deve ter entre 3 e 80 caracteres")
     private String name;
 
     @NotBlank
@@ -46,6 +47,10 @@ public class User {
     @Setter(AccessLevel.NONE)
     private Instant createdAt;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @Builder.Default
     @JsonIgnore
     @OneToMany(mappedBy = "user")
@@ -0,0 +1,15 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.entities.ArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, Long> {
+    @Query("SELECT s.id FROM ArchiveSegment s")
+    List<Long> findAllIds();
+
+    @Query("SELECT COALESCE(MAX(s.id), 0) FROM ArchiveSegment s")
+    long findMaxId();
+}
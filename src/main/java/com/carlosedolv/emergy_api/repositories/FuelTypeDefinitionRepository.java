@@ -0,0 +1,7 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.entities.FuelTypeDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FuelTypeDefinitionRepository extends JpaRepository<FuelTypeDefinition, Integer> {
+}
@@ -0,0 +1,23 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.entities.SimulationImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface SimulationImportRepository extends JpaRepository<SimulationImport, String> {
+    // Guarded by the expected position, so two uploads of the same import can never both commit the same chunk.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SimulationImport i SET i.committedRows = i.committedRows + :rows, "
+            + "i.acceptedRows = i.acceptedRows + :accepted, i.rejectedRows = i.rejectedRows + :rejected, "
+            + "i.completed = :completed, i.updatedAt = :now, i.version = i.version + 1 "
+            + "WHERE i.id = :id AND i.committedRows = :expected")
+    int advance(
+            @Param("id") String id, @Param("expected") long expectedCommittedRows, @Param("rows") long rows,
+            @Param("accepted") long accepted, @Param("rejected") long rejected,
+            @Param("completed") boolean completed, @Param("now") Instant now
+    );
+}
@@ -1,11 +1,83 @@
 package com.carlosedolv.emergy_api.repositories;
 
 import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.services.rollup.RollupContribution;
+import com.carlosedolv.emergy_api.services.search.IndexedTitle;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface SimulationRepository extends JpaRepository<Simulation, Long> {
+public interface SimulationRepository extends JpaRepository<Simulation, Long>, SimulationRepositoryCustom {
+    interface Versions {
+        Long getSimulationVersion();
+
+        Long getUserVersion();
+    }
+
+    @EntityGraph(attributePaths = "user")
     List<Simulation> findByTitle(String title);
+
+    @EntityGraph(attributePaths = "user")
+    List<Simulation> findByTitleNormalizedOrderByIdAsc(String titleNormalized, Limit limit);
+
+    // Derived LIKE 'x%' with the prefix's wildcards escaped. On PostgreSQL with a non-C collation the index has to be
+    // declared with text_pattern_ops (or COLLATE "C") for the planner to use it for a prefix match.
+    @EntityGraph(attributePaths = "user")
+    List<Simulation> findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(String prefix, Limit limit);
+
+    List<Simulation> findByTitleNormalizedIsNullOrderByIdAsc(Limit limit);
+
+    @Modifying
+    @Query("UPDATE Simulation s SET s.titleNormalized = :titleNormalized WHERE s.id = :id AND s.titleNormalized IS NULL")
+    int backfillTitleNormalized(@Param("id") Long id, @Param("titleNormalized") String titleNormalized);
+
+    @EntityGraph(attributePaths = "user")
+    List<Simulation> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<Simulation> findWithUserById(Long id);
+
+    @EntityGraph(attributePaths = "user")
+    List<Simulation> findWithUserByIdIn(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Simulation> findByCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(Instant createdAt, Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Simulation s WHERE s.user.id = :userId ORDER BY s.id ASC")
+    Stream<Simulation> streamByUserIdOrderByIdAsc(@Param("userId") Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.carlosedolv.emergy_api.services.rollup.RollupContribution("
+            + "s.user.id, s.fuelType, s.createdAt, s.liters, s.result) FROM Simulation s")
+    Stream<RollupContribution> streamRollupContributions();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.carlosedolv.emergy_api.services.search.IndexedTitle(s.id, s.titleNormalized) "
+            + "FROM Simulation s")
+    Stream<IndexedTitle> streamIndexedTitles();
+
+    @Query("SELECT s.version AS simulationVersion, u.version AS userVersion "
+            + "FROM Simulation s JOIN s.user u WHERE s.id = :id")
+    Optional<Versions> findVersionsById(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(MAX(s.id) - MIN(s.id) + 1, 0) FROM Simulation s")
+    long estimateCount();
 }
@@ -0,0 +1,31 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+class SimulationRepositoryCustomImpl implements SimulationRepositoryCustom {
+    private static final SparseFieldQuery<Simulation> QUERY = new SparseFieldQuery<>(Simulation.class)
+            .field("id", "id")
+            .field("title", "title")
+            .field("liters", "liters")
+            .field("type", "fuelType", type -> ((FuelType) type).getLabel())
+            .field("result", "result")
+            .field("user.id", "user.id")
+            .field("user.name", "user.name")
+            .field("user.email", "user.email")
+            .field("user.birthday", "user.birthday");
+
+    private final EntityManager entityManager;
+
+    SimulationRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<SparseRow> findFieldsByIdGreaterThan(long id, SparseFields fields, int limit) {
+        return QUERY.findByIdGreaterThan(entityManager, id, fields, limit);
+    }
+}
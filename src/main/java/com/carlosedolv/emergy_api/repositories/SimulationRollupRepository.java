@@ -0,0 +1,31 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import com.carlosedolv.emergy_api.entities.SimulationRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SimulationRollupRepository extends JpaRepository<SimulationRollup, Long> {
+    @Modifying
+    @Query("UPDATE SimulationRollup r SET r.simulationCount = r.simulationCount + :count, "
+            + "r.totalLiters = r.totalLiters + :liters, r.totalResult = r.totalResult + :result "
+            + "WHERE r.dimension = :dimension AND r.bucketKey = :key")
+    int applyDelta(
+            @Param("dimension") RollupDimension dimension, @Param("key") String key,
+            @Param("count") long count, @Param("liters") double liters, @Param("result") double result
+    );
+
+    @Query("SELECT r FROM SimulationRollup r WHERE r.dimension = :dimension AND r.simulationCount > 0 "
+            + "AND (:from IS NULL OR r.bucketKey >= :from) AND (:to IS NULL OR r.bucketKey <= :to) "
+            + "ORDER BY r.bucketKey ASC")
+    List<SimulationRollup> findActive(
+            @Param("dimension") RollupDimension dimension, @Param("from") String from, @Param("to") String to
+    );
+
+    Optional<SimulationRollup> findByDimensionAndBucketKey(RollupDimension dimension, String bucketKey);
+}
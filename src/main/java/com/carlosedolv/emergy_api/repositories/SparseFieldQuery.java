@@ -0,0 +1,86 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Keyset page of an entity that selects only the requested attributes as a tuple, so no entity is instantiated and
+// unrequested columns are never read. A nested field joins its association, except for the association's id, which
+// is the foreign key column already on the root table.
+final class SparseFieldQuery<E> {
+    private final Class<E> entityType;
+    private final Map<String, String> attributes = new HashMap<>();
+    private final Map<String, Function<Object, Object>> formats = new HashMap<>();
+
+    SparseFieldQuery(Class<E> entityType) {
+        this.entityType = entityType;
+    }
+
+    SparseFieldQuery<E> field(String name, String attribute) {
+        return field(name, attribute, Function.identity());
+    }
+
+    SparseFieldQuery<E> field(String name, String attribute, Function<Object, Object> format) {
+        attributes.put(name, attribute);
+        formats.put(name, format);
+        return this;
+    }
+
+    List<SparseRow> findByIdGreaterThan(EntityManager entityManager, long id, SparseFields fields, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<E> root = query.from(entityType);
+        Map<String, Join<E, ?>> joins = new HashMap<>();
+
+        List<Selection<?>> selections = new ArrayList<>(fields.names().size() + 1);
+        selections.add(root.get("id"));
+        for (String name : fields.names()) {
+            selections.add(path(root, joins, attributes.get(name)));
+        }
+        query.multiselect(selections)
+                .where(builder.greaterThan(root.get("id"), id))
+                .orderBy(builder.asc(root.get("id")));
+
+        List<Tuple> tuples = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<SparseRow> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.names().size(); i++) {
+                String name = fields.names().get(i);
+                Object value = tuple.get(i + 1);
+                put(values, name, value != null ? formats.get(name).apply(value) : null);
+            }
+            rows.add(new SparseRow(tuple.get(0, Long.class), values));
+        }
+        return rows;
+    }
+
+    private static <E> Path<?> path(Root<E> root, Map<String, Join<E, ?>> joins, String attribute) {
+        int dot = attribute.indexOf('.');
+        if (dot < 0) {
+            return root.get(attribute);
+        }
+        String association = attribute.substring(0, dot);
+        String nested = attribute.substring(dot + 1);
+        if (nested.equals("id")) {
+            return root.get(association).get("id");
+        }
+        return joins.computeIfAbsent(association, root::join).get(nested);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> values, String name, Object value) {
+        int dot = name.indexOf('.');
+        if (dot < 0) {
+            values.put(name, value);
+            return;
+        }
+        Map<String, Object> nested = (Map<String, Object>) values.computeIfAbsent(
+                name.substring(0, dot), key -> new LinkedHashMap<String, Object>()
+        );
+        nested.put(name.substring(dot + 1), value);
+    }
+}
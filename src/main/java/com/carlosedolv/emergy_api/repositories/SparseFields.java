@@ -0,0 +1,46 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+
+import java.util.*;
+
+// A validated `fields=` selection, kept in the order the fields are declared rather than requested, so the same
+// selection always yields the same query. A bare association name such as "user" stands for all of its fields.
+public final class SparseFields {
+    public static final List<String> SIMULATION = List.of(
+            "id", "title", "liters", "type", "result", "user.id", "user.name", "user.email", "user.birthday"
+    );
+    public static final List<String> USER = List.of("id", "name", "email", "birthday");
+
+    private final List<String> names;
+
+    private SparseFields(List<String> names) {
+        this.names = names;
+    }
+
+    public static SparseFields parse(String spec, List<String> available) {
+        if (spec == null || spec.isBlank()) {
+            throw new ResourceBadRequestException("fields must name at least one field.");
+        }
+        Set<String> requested = new HashSet<>();
+        for (String field : spec.split(",")) {
+            String name = field.strip();
+            List<String> matches = available.stream()
+                    .filter(candidate -> candidate.equals(name) || candidate.startsWith(name + "."))
+                    .toList();
+            if (name.isEmpty() || matches.isEmpty()) {
+                throw new ResourceBadRequestException("Unknown field: " + name + ". Available: " + String.join(",", available));
+            }
+            requested.addAll(matches);
+        }
+        return new SparseFields(available.stream().filter(requested::contains).toList());
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+}
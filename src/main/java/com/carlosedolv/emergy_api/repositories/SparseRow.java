@@ -0,0 +1,7 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import java.util.Map;
+
+// The id is always selected for keyset paging, but only appears in `fields` when it was requested.
+public record SparseRow(Long id, Map<String, Object> fields) {
+}
@@ -1,11 +1,43 @@
 package com.carlosedolv.emergy_api.repositories;
 
 import com.carlosedolv.emergy_api.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     boolean existsByEmail(String email);
     Optional<User> findByEmail(String email);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.name = :name, u.email = :email, u.password = :password, u.birthday = :birthday, "
+            + "u.version = u.version + 1 WHERE u.id = :id")
+    int updateById(@Param("id") Long id, @Param("name") String name, @Param("email") String email,
+                   @Param("password") String password, @Param("birthday") LocalDate birthday);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.name = :name, u.email = :email, u.password = :password, u.birthday = :birthday, "
+            + "u.version = u.version + 1 WHERE u.id = :id AND u.version IN :versions")
+    int updateByIdAndVersionIn(@Param("id") Long id, @Param("versions") Collection<Long> versions,
+                               @Param("name") String name, @Param("email") String email,
+                               @Param("password") String password, @Param("birthday") LocalDate birthday);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(MAX(u.id) - MIN(u.id) + 1, 0) FROM User u")
+    long estimateCount();
 }
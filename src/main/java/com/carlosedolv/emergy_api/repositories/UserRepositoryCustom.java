@@ -0,0 +1,7 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+    List<SparseRow> findFieldsByIdGreaterThan(long id, SparseFields fields, int limit);
+}
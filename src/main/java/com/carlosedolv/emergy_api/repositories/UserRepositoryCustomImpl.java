@@ -0,0 +1,25 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.entities.User;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final SparseFieldQuery<User> QUERY = new SparseFieldQuery<>(User.class)
+            .field("id", "id")
+            .field("name", "name")
+            .field("email", "email")
+            .field("birthday", "birthday");
+
+    private final EntityManager entityManager;
+
+    UserRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<SparseRow> findFieldsByIdGreaterThan(long id, SparseFields fields, int limit) {
+        return QUERY.findByIdGreaterThan(entityManager, id, fields, limit);
+    }
+}
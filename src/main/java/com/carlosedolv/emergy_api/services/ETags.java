@@ -0,0 +1,59 @@
+package com.carlosedolv.emergy_api.services;
+
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Strong ETags derived from @Version columns. A simulation's representation embeds its owner, so its tag
+// carries both versions.
+public final class ETags {
+    private ETags() {
+    }
+
+    public static String user(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String simulation(Long simulationVersion, Long userVersion) {
+        return "\"" + simulationVersion + "." + userVersion + "\"";
+    }
+
+    public static String of(UserResponseDTO dto) {
+        return user(dto.version());
+    }
+
+    public static String of(SimulationResponseDTO dto) {
+        return simulation(dto.version(), dto.user().version());
+    }
+
+    // The user versions an If-Match header accepts, or null when it contains "*". Tags that are not user tags
+    // can never match and are dropped.
+    public static List<Long> userVersions(String ifMatch) {
+        List<Long> versions = new ArrayList<>();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return versions;
+    }
+
+    public static boolean matches(String ifMatch, String current) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*") || tag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
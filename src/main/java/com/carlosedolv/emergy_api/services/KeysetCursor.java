@@ -0,0 +1,44 @@
+package com.carlosedolv.emergy_api.services;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class KeysetCursor {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        byte[] raw = ("id:" + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith("id:")) {
+                throw new ResourceBadRequestException("Invalid cursor.");
+            }
+            return Long.parseLong(raw.substring(3));
+        } catch (IllegalArgumentException e) {
+            throw new ResourceBadRequestException("Invalid cursor.");
+        }
+    }
+
+    public static int boundedSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResourceBadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        return size;
+    }
+}
@@ -1,79 +1,327 @@
 package com.carlosedolv.emergy_api.services;
 
 import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.UncertaintyRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchItemResultDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
 import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UncertaintyResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
 import com.carlosedolv.emergy_api.entities.Simulation;
 import com.carlosedolv.emergy_api.entities.User;
 import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.repositories.SparseFields;
+import com.carlosedolv.emergy_api.repositories.SparseRow;
 import com.carlosedolv.emergy_api.repositories.UserRepository;
+import com.carlosedolv.emergy_api.services.archive.ArchivedSimulation;
+import com.carlosedolv.emergy_api.services.archive.ColdStore;
+import com.carlosedolv.emergy_api.services.emergy.EmergyCalculator;
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.MonteCarloEngine;
+import com.carlosedolv.emergy_api.services.emergy.MonteCarloResult;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
-import jakarta.transaction.Transactional;
+import com.carlosedolv.emergy_api.services.exceptions.ResourcePreconditionFailedException;
+import com.carlosedolv.emergy_api.services.rollup.RollupContribution;
+import com.carlosedolv.emergy_api.services.rollup.RollupService;
+import com.carlosedolv.emergy_api.services.search.TitleSearchIndex;
+import com.carlosedolv.emergy_api.services.search.TrigramIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "emergy.service", histogram = true)
 public class SimulationService {
+    public static final int MAX_BATCH_SIZE = 5000;
+    public static final int DEFAULT_UNCERTAINTY_DRAWS = 100_000;
+    public static final int MIN_FUZZY_QUERY_LENGTH = 3;
+    private static final double[] DEFAULT_PERCENTILES = {2.5, 5, 25, 50, 75, 95, 97.5};
+
     private final SimulationRepository repository;
     private final UserRepository userRepository;
+    private final UserService userService;
+    private final EmergyCalculator emergyCalculator;
+    private final FuelTypeRegistry fuelTypes;
+    private final Validator validator;
+    private final RollupService rollupService;
+    private final MonteCarloEngine monteCarloEngine;
+    private final TitleSearchIndex titleIndex;
+    private final ColdStore coldStore;
 
-    public SimulationService(SimulationRepository repository, UserRepository userRepository) {
+    public SimulationService(
+            SimulationRepository repository, UserRepository userRepository, UserService userService,
+            EmergyCalculator emergyCalculator, FuelTypeRegistry fuelTypes, Validator validator, RollupService rollupService,
+            MonteCarloEngine monteCarloEngine, TitleSearchIndex titleIndex, ColdStore coldStore
+    ) {
         this.repository = repository;
         this.userRepository = userRepository;
+        this.userService = userService;
+        this.emergyCalculator = emergyCalculator;
+        this.fuelTypes = fuelTypes;
+        this.validator = validator;
+        this.rollupService = rollupService;
+        this.monteCarloEngine = monteCarloEngine;
+        this.titleIndex = titleIndex;
+        this.coldStore = coldStore;
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<SimulationResponseDTO> findAll(String cursor, Integer size, boolean withTotal) {
+        int pageSize = KeysetCursor.boundedSize(size);
+        List<Simulation> rows = repository.findByIdGreaterThanOrderByIdAsc(
+                KeysetCursor.decode(cursor), Limit.of(pageSize + 1)
+        );
+        Long estimatedTotal = withTotal ? repository.estimateCount() : null;
+        return PageResponseDTO.of(rows, pageSize, SimulationResponseDTO::new, Simulation::getId, estimatedTotal);
     }
 
-    public List<SimulationResponseDTO> findAll() {
-        return repository.findAll().stream().map(SimulationResponseDTO::new).toList();
+    @Transactional(readOnly = true)
+    public PageResponseDTO<Map<String, Object>> findAll(String cursor, Integer size, boolean withTotal, String fields) {
+        SparseFields selection = SparseFields.parse(fields, SparseFields.SIMULATION);
+        int pageSize = KeysetCursor.boundedSize(size);
+        List<SparseRow> rows = repository.findFieldsByIdGreaterThan(KeysetCursor.decode(cursor), selection, pageSize + 1);
+        Long estimatedTotal = withTotal ? repository.estimateCount() : null;
+        return PageResponseDTO.of(rows, pageSize, SparseRow::fields, SparseRow::id, estimatedTotal);
     }
 
+    // Simulations moved to the cold store by SimulationArchiveService are no longer in the table and are read from
+    // their segment instead.
+    @Transactional(readOnly = true)
     public SimulationResponseDTO findById(Long id) {
-        return new SimulationResponseDTO(
-                repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id))
-        );
+        Optional<Simulation> simulation = repository.findWithUserById(id);
+        return simulation.isPresent() ? new SimulationResponseDTO(simulation.get()) : findArchived(id);
+    }
+
+    @Transactional(readOnly = true)
+    public String currentETag(Long id) {
+        Optional<SimulationRepository.Versions> versions = repository.findVersionsById(id);
+        return versions.isPresent()
+                ? ETags.simulation(versions.get().getSimulationVersion(), versions.get().getUserVersion())
+                : ETags.of(findArchived(id));
     }
 
+    @Transactional(readOnly = true)
     public List<SimulationResponseDTO> findByTitle(String title) {
         return repository.findByTitle(title).stream().map(SimulationResponseDTO::new).toList();
     }
 
+    @Transactional(readOnly = true)
+    public List<SimulationResponseDTO> searchByTitle(String title, boolean prefix, Integer size) {
+        String normalized = Simulation.normalizeTitle(title);
+        if (normalized == null || normalized.isEmpty()) {
+            throw new ResourceBadRequestException("Title must not be blank.");
+        }
+        Limit limit = Limit.of(KeysetCursor.boundedSize(size));
+        List<Simulation> simulations = prefix
+                ? repository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(normalized, limit)
+                : repository.findByTitleNormalizedOrderByIdAsc(normalized, limit);
+        return simulations.stream().map(SimulationResponseDTO::new).toList();
+    }
+
+    // Ranked ids come from the in-memory trigram index and are loaded in one query; the order of the index is kept.
+    public List<SimulationResponseDTO> fuzzySearchByTitle(String title, Integer size) {
+        String normalized = Simulation.normalizeTitle(title);
+        if (normalized == null || normalized.length() < MIN_FUZZY_QUERY_LENGTH) {
+            throw new ResourceBadRequestException(
+                    "Title must have at least " + MIN_FUZZY_QUERY_LENGTH + " characters."
+            );
+        }
+        List<TrigramIndex.Match> matches = titleIndex.search(normalized, KeysetCursor.boundedSize(size));
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Simulation> byId = repository.findWithUserByIdIn(matches.stream().map(TrigramIndex.Match::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Simulation::getId, Function.identity()));
+        return matches.stream()
+                .map(match -> byId.get(match.id()))
+                .filter(Objects::nonNull)
+                .map(SimulationResponseDTO::new)
+                .toList();
+    }
+
+    @Transactional
     public SimulationResponseDTO save(SimulationRequestDTO dto) {
         if(dto.userId() == null){
             throw new ResourceDataIntegrityException("User ID is required for simulation.");
         }
-        User user  = userRepository.findById(dto.userId()).orElseThrow(() -> new ResourceNotFoundException(dto.userId()));
+        UserResponseDTO owner = userService.findById(dto.userId());
+        User user = userRepository.getReferenceById(owner.id());
         Simulation simulation = repository.save(copyDtoToEntity(dto, user));
-        return new SimulationResponseDTO(simulation);
+        rollupService.recordCreated(simulation);
+        titleIndex.put(simulation);
+        return new SimulationResponseDTO(simulation, owner);
     }
 
+    @Transactional
+    public BatchResponseDTO saveAll(List<SimulationRequestDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new ResourceBadRequestException("Batch must contain at least one simulation.");
+        }
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new ResourceBadRequestException("Batch must contain at most " + MAX_BATCH_SIZE + " simulations.");
+        }
+
+        Set<Long> userIds = dtos.stream()
+                .filter(Objects::nonNull)
+                .map(SimulationRequestDTO::userId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        BatchItemResultDTO[] items = new BatchItemResultDTO[dtos.size()];
+        List<Simulation> accepted = new ArrayList<>(dtos.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            SimulationRequestDTO dto = dtos.get(i);
+            String error = validateBatchItem(dto, users);
+            if (error == null) {
+                try {
+                    accepted.add(copyDtoToEntity(dto, users.get(dto.userId())));
+                    acceptedIndexes.add(i);
+                } catch (ResourceBadRequestException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error != null) {
+                items[i] = BatchItemResultDTO.failed(i, error);
+            }
+        }
+
+        try {
+            repository.saveAll(accepted);
+            repository.flush();
+            rollupService.recordCreated(accepted);
+            titleIndex.putAll(accepted);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceDataIntegrityException("Violation of database restrictions to save batch.");
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            items[index] = BatchItemResultDTO.created(index, accepted.get(i).getId());
+        }
+        return new BatchResponseDTO(Arrays.asList(items));
+    }
+
+    @Transactional
     public void delete(Long id) {
         try {
-            Simulation simulation = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+            Simulation simulation = repository.findById(id).orElseThrow(() -> missing(id));
             repository.delete(simulation);
+            repository.flush();
+            rollupService.recordDeleted(simulation);
+            titleIndex.remove(id);
         } catch (DataIntegrityViolationException e) {
             throw new ResourceDataIntegrityException("Violation of database restrictions to delete.");
         }
     }
 
     @Transactional
-    public SimulationResponseDTO update(Long id, SimulationRequestDTO dto) {
+    public SimulationResponseDTO update(Long id, SimulationRequestDTO dto, String ifMatch) {
         try {
-            Simulation simulation = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+            Simulation simulation = repository.findWithUserById(id).orElseThrow(() -> missing(id));
+            String current = ETags.simulation(simulation.getVersion(), simulation.getUser().getVersion());
+            if (ifMatch != null && !ETags.matches(ifMatch, current)) {
+                throw new ResourcePreconditionFailedException(id);
+            }
+            RollupContribution before = RollupContribution.of(simulation);
             updateSimulation(dto, simulation);
+            rollupService.recordUpdated(before, simulation);
+            repository.flush();
+            titleIndex.put(simulation);
             return new SimulationResponseDTO(simulation);
         } catch (DataIntegrityViolationException e) {
             throw new ResourceDataIntegrityException("Violations of database restrictions to update.");
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch != null) {
+                throw new ResourcePreconditionFailedException(id);
+            }
+            throw new ResourceDataIntegrityException("Simulation was modified concurrently.");
+        }
+
+    }
+
+    // Deliberately not transactional: the repository's own read-only call releases the connection before the draws.
+    public UncertaintyResponseDTO uncertainty(Long id, UncertaintyRequestDTO dto) {
+        Simulation simulation = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+        FuelType type = simulation.getFuelType();
+        int draws = dto != null && dto.draws() != null ? dto.draws() : DEFAULT_UNCERTAINTY_DRAWS;
+        long seed = dto != null && dto.seed() != null ? dto.seed() : ThreadLocalRandom.current().nextLong();
+        double[] percentiles = dto != null && dto.percentiles() != null && !dto.percentiles().isEmpty()
+                ? dto.percentiles().stream().mapToDouble(Double::doubleValue).toArray()
+                : DEFAULT_PERCENTILES;
+
+        MonteCarloResult result = monteCarloEngine.run(type, simulation.getLiters(), draws, seed, percentiles);
+        Map<String, Double> byPercentile = new LinkedHashMap<>();
+        for (int i = 0; i < percentiles.length; i++) {
+            byPercentile.put("p" + BigDecimal.valueOf(percentiles[i]).stripTrailingZeros().toPlainString(),
+                    result.percentiles()[i]);
         }
+        return new UncertaintyResponseDTO(
+                simulation.getId(), type.getLabel(), draws, seed, simulation.getResult(),
+                result.mean(), result.standardDeviation(), byPercentile
+        );
+    }
+
+    private SimulationResponseDTO findArchived(Long id) {
+        ArchivedSimulation archived = coldStore.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+        UserResponseDTO owner;
+        try {
+            owner = userService.findById(archived.userId());
+        } catch (ResourceNotFoundException e) {
+            throw new ResourceNotFoundException(id);
+        }
+        return new SimulationResponseDTO(archived, fuelTypes.byId(archived.fuelTypeId()), owner);
+    }
 
+    // Archived simulations are read-only.
+    private ResourceException missing(Long id) {
+        return coldStore.findById(id).isPresent()
+                ? new ResourceDataIntegrityException("Simulation " + id + " is archived and cannot be changed.")
+                : new ResourceNotFoundException(id);
+    }
+
+    private String validateBatchItem(SimulationRequestDTO dto, Map<Long, User> users) {
+        if (dto == null) {
+            return "Simulation must not be null.";
+        }
+        Set<ConstraintViolation<SimulationRequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!users.containsKey(dto.userId())) {
+            return ResourceNotFoundException.message(dto.userId());
+        }
+        return null;
     }
 
     private Simulation copyDtoToEntity(SimulationRequestDTO dto, User user) {
         Simulation simulation = new Simulation();
         simulation.setTitle(dto.title());
         simulation.setLiters(dto.liters());
-        simulation.setType(dto.type());
-        simulation.setResult(dto.result());
+        FuelType type = fuelTypes.resolve(dto.type());
+        simulation.setFuelType(type);
+        simulation.setResult(emergyCalculator.calculate(type, dto.liters()));
         simulation.setUser(user);
         return simulation;
     }
@@ -81,7 +329,8 @@ public class SimulationService {
     private void updateSimulation(SimulationRequestDTO dto, Simulation entity) {
         entity.setTitle(dto.title());
         entity.setLiters(dto.liters());
-        entity.setType(dto.type());
-        entity.setResult(dto.result());
+        FuelType type = fuelTypes.resolve(dto.type());
+        entity.setFuelType(type);
+        entity.setResult(emergyCalculator.calculate(type, dto.liters()));
     }
 }
@@ -0,0 +1,132 @@
+package com.carlosedolv.emergy_api.services;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.SweepRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.SweepResponseDTO;
+import com.carlosedolv.emergy_api.services.emergy.EmergyCalculator;
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeCatalog;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.DoubleConsumer;
+import java.util.stream.IntStream;
+
+@Service
+@Timed(value = "emergy.service", histogram = true)
+public class SweepService {
+    public static final int MAX_CELLS = 1_000_000;
+
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+    // SimulationRequestDTO.title's limit.
+    private static final int MAX_TITLE_LENGTH = 80;
+
+    private final EmergyCalculator emergyCalculator;
+    private final FuelTypeRegistry fuelTypes;
+    private final SimulationService simulationService;
+
+    public SweepService(EmergyCalculator emergyCalculator, FuelTypeRegistry fuelTypes, SimulationService simulationService) {
+        this.emergyCalculator = emergyCalculator;
+        this.fuelTypes = fuelTypes;
+        this.simulationService = simulationService;
+    }
+
+    public SweepResponseDTO sweep(SweepRequestDTO dto) {
+        return sweep(dto, progress -> {
+        });
+    }
+
+    // Progress is reported after each fuel type's row; computing the grid counts for half when the sweep is persisted.
+    public SweepResponseDTO sweep(SweepRequestDTO dto, DoubleConsumer progress) {
+        if (dto.litersTo() < dto.litersFrom()) {
+            throw new ResourceBadRequestException("litersTo must be greater than or equal to litersFrom.");
+        }
+        FuelTypeCatalog catalog = fuelTypes.current();
+        Set<FuelType> distinct = new LinkedHashSet<>();
+        for (String type : dto.types()) {
+            distinct.add(catalog.resolve(type));
+        }
+        FuelType[] types = distinct.toArray(FuelType[]::new);
+        int steps = dto.steps();
+        long cells = (long) types.length * steps;
+        int maxCells = dto.persist() ? SimulationService.MAX_BATCH_SIZE : MAX_CELLS;
+        if (cells > maxCells) {
+            throw new ResourceBadRequestException("Sweep must contain at most " + maxCells + " cells.");
+        }
+        if (dto.persist() && (dto.userId() == null || dto.titlePrefix() == null)) {
+            throw new ResourceBadRequestException("userId and titlePrefix are required to persist a sweep.");
+        }
+
+        double[] liters = grid(dto.litersFrom(), dto.litersTo(), steps);
+        double[][] results = new double[types.length][steps];
+        double gridShare = dto.persist() ? 0.5 : 1;
+        for (int row = 0; row < types.length; row++) {
+            FuelType type = types[row];
+            double[] rowResults = results[row];
+            IntStream columns = IntStream.range(0, steps);
+            if (cells >= PARALLEL_THRESHOLD) {
+                columns = columns.parallel();
+            }
+            columns.forEach(column -> rowResults[column] = emergyCalculator.calculate(type, liters[column]));
+            progress.accept(gridShare * (row + 1) / types.length);
+        }
+
+        List<String> labels = new ArrayList<>(types.length);
+        for (FuelType type : types) {
+            labels.add(type.getLabel());
+        }
+        BatchResponseDTO persisted = dto.persist() ? persist(dto, types, liters) : null;
+        return new SweepResponseDTO(labels, liters, results, persisted);
+    }
+
+    static double[] grid(double from, double to, int steps) {
+        double[] liters = new double[steps];
+        if (steps == 1) {
+            liters[0] = from;
+            return liters;
+        }
+        double increment = (to - from) / (steps - 1);
+        for (int i = 0; i < steps; i++) {
+            liters[i] = from + i * increment;
+        }
+        liters[steps - 1] = to;
+        return liters;
+    }
+
+    private BatchResponseDTO persist(SweepRequestDTO dto, FuelType[] types, double[] liters) {
+        List<SimulationRequestDTO> simulations = new ArrayList<>(types.length * liters.length);
+        for (FuelType type : types) {
+            for (double value : liters) {
+                simulations.add(new SimulationRequestDTO(
+                        title(dto.titlePrefix(), type.getLabel(), value), value, type.getLabel(), null, dto.userId()
+                ));
+            }
+        }
+        return simulationService.saveAll(simulations);
+    }
+
+    // The label and value tell the cells apart, so when the title would be too long the prefix is what gets cut.
+    static String title(String prefix, String label, double liters) {
+        String suffix = " " + label + " " + liters;
+        int room = MAX_TITLE_LENGTH - suffix.length();
+        if (room <= 0) {
+            return truncate(suffix.strip(), MAX_TITLE_LENGTH);
+        }
+        return truncate(prefix, room).stripTrailing() + suffix;
+    }
+
+    private static String truncate(String value, int length) {
+        if (value.length() <= length) {
+            return value;
+        }
+        int end = Character.isHighSurrogate(value.charAt(length - 1)) ? length - 1 : length;
+        return value.substring(0, end);
+    }
+}
@@ -0,0 +1,76 @@
+package com.carlosedolv.emergy_api.services;
+
+import com.carlosedolv.emergy_api.config.CacheConfig;
+import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+@Component
+public class UserCache {
+    private final Cache byId;
+    private final Cache idsByEmail;
+    private final Cache missingIds;
+
+    public UserCache(CacheManager cacheManager) {
+        this.byId = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USERS_BY_ID));
+        this.idsByEmail = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USER_IDS_BY_EMAIL));
+        this.missingIds = Objects.requireNonNull(cacheManager.getCache(CacheConfig.MISSING_USER_IDS));
+    }
+
+    public UserResponseDTO getById(Long id) {
+        return byId.get(id, UserResponseDTO.class);
+    }
+
+    // The email cache only maps to an id, so a stale entry can never return another user's data.
+    public UserResponseDTO getByEmail(String email) {
+        Long id = idsByEmail.get(email, Long.class);
+        if (id == null) {
+            return null;
+        }
+        UserResponseDTO cached = getById(id);
+        if (cached == null || !cached.email().equals(email)) {
+            idsByEmail.evict(email);
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(UserResponseDTO dto) {
+        missingIds.evict(dto.id());
+        byId.put(dto.id(), dto);
+        idsByEmail.put(dto.email(), dto.id());
+    }
+
+    public boolean isMissing(Long id) {
+        return missingIds.get(id) != null;
+    }
+
+    // A lookup racing the insert of the same id can leave a stale marker; the cache's short TTL bounds that window.
+    public void markMissing(Long id) {
+        missingIds.put(id, Boolean.TRUE);
+    }
+
+    public void evict(Long id, String email) {
+        evictNow(id, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(id, email);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long id, String email) {
+        byId.evict(id);
+        if (email != null) {
+            idsByEmail.evict(email);
+        }
+    }
+}
@@ -1,82 +1,222 @@
 package com.carlosedolv.emergy_api.services;
 
+import com.carlosedolv.emergy_api.config.ReadWriteRoutingDataSource;
 import com.carlosedolv.emergy_api.dtos.request.UserRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
 import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
 import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.repositories.SparseFields;
+import com.carlosedolv.emergy_api.repositories.SparseRow;
 import com.carlosedolv.emergy_api.repositories.UserRepository;
+import com.carlosedolv.emergy_api.services.archive.ColdStore;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
-import jakarta.transaction.Transactional;
+import com.carlosedolv.emergy_api.services.exceptions.ResourcePreconditionFailedException;
+import com.carlosedolv.emergy_api.services.security.PasswordHasher;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Timed(value = "emergy.service", histogram = true)
 public class UserService {
     private final UserRepository repository;
+    private final UserCache userCache;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate primaryReads;
+    private final ColdStore coldStore;
 
-    public UserService(UserRepository repository) {
+    public UserService(UserRepository repository, UserCache userCache, PasswordHasher passwordHasher,
+                       PlatformTransactionManager transactionManager, ColdStore coldStore) {
         this.repository = repository;
+        this.userCache = userCache;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.primaryReads.setReadOnly(true);
+        this.primaryReads.setName(ReadWriteRoutingDataSource.PRIMARY_READ);
+        this.coldStore = coldStore;
     }
 
-    public List<UserResponseDTO> findAll(){
-        return repository.findAll().stream().map(UserResponseDTO::new).toList();
+    @Transactional(readOnly = true)
+    public PageResponseDTO<UserResponseDTO> findAll(String cursor, Integer size, boolean withTotal) {
+        int pageSize = KeysetCursor.boundedSize(size);
+        List<User> rows = repository.findByIdGreaterThanOrderByIdAsc(
+                KeysetCursor.decode(cursor), Limit.of(pageSize + 1)
+        );
+        Long estimatedTotal = withTotal ? repository.estimateCount() : null;
+        return PageResponseDTO.of(rows, pageSize, UserResponseDTO::new, User::getId, estimatedTotal);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<Map<String, Object>> findAll(String cursor, Integer size, boolean withTotal, String fields) {
+        SparseFields selection = SparseFields.parse(fields, SparseFields.USER);
+        int pageSize = KeysetCursor.boundedSize(size);
+        List<SparseRow> rows = repository.findFieldsByIdGreaterThan(KeysetCursor.decode(cursor), selection, pageSize + 1);
+        Long estimatedTotal = withTotal ? repository.estimateCount() : null;
+        return PageResponseDTO.of(rows, pageSize, SparseRow::fields, SparseRow::id, estimatedTotal);
     }
 
+    // The cache-fronted lookups only open a transaction on a miss. That read fills the cache (or the missing-id cache)
+    // for minutes, so it goes to the primary: a lagging replica would pin a pre-update DTO or a false 404. A caller's
+    // read-only transaction may already hold a replica connection that the lookup would join, and a separate one
+    // would take a second pooled connection, so inside one the lookup is answered but nothing is cached.
     public UserResponseDTO findById(Long id) {
-        return new UserResponseDTO(
-                repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id))
+        UserResponseDTO cached = userCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+        if (userCache.isMissing(id)) {
+            throw new ResourceNotFoundException(id);
+        }
+        if (inReadOnlyTransaction()) {
+            return new UserResponseDTO(repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id)));
+        }
+        UserResponseDTO dto = new UserResponseDTO(
+                primaryReads.execute(status -> repository.findById(id)).orElseThrow(() -> missing(id))
         );
+        userCache.put(dto);
+        return dto;
+    }
+
+    // A cached DTO already carries the version, so only a cache miss costs a (version-only) query.
+    public String currentETag(Long id) {
+        UserResponseDTO cached = userCache.getById(id);
+        if (cached != null) {
+            return ETags.of(cached);
+        }
+        if (userCache.isMissing(id)) {
+            throw new ResourceNotFoundException(id);
+        }
+        if (inReadOnlyTransaction()) {
+            return ETags.user(repository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException(id)));
+        }
+        return ETags.user(primaryReads.execute(status -> repository.findVersionById(id)).orElseThrow(() -> missing(id)));
     }
 
     public UserResponseDTO findByEmail(String email) {
-        return new UserResponseDTO(
-                repository.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException(email))
+        UserResponseDTO cached = userCache.getByEmail(email);
+        if (cached != null) {
+            return cached;
+        }
+        if (inReadOnlyTransaction()) {
+            return new UserResponseDTO(
+                    repository.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException(email))
+            );
+        }
+        UserResponseDTO dto = new UserResponseDTO(
+                primaryReads.execute(status -> repository.findByEmail(email))
+                        .orElseThrow(() -> new ResourceNotFoundException(email))
         );
+        userCache.put(dto);
+        return dto;
     }
 
+    // No existence pre-check: the unique index on email is the only race-free arbiter, so a duplicate surfaces as a
+    // constraint violation on the INSERT itself.
     public UserResponseDTO save(UserRequestDTO dto) {
-        if(repository.existsByEmail(dto.email())) {
-            throw new ResourceDataIntegrityException("Email already exists.");
+        User entity = copyDtoToEntity(dto, passwordHasher.hash(dto.password()));
+        try {
+            UserResponseDTO saved = new UserResponseDTO(repository.saveAndFlush(entity));
+            userCache.put(saved);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw integrityViolation(e, "Email already exists.");
         }
-        User entity = repository.save(copyDtoToEntity(dto));
-        return new UserResponseDTO(entity);
     }
 
+    @Transactional
+    // Archived simulations have no foreign key to stand in the way, so their owners are checked here.
     public void delete(Long id) {
+        if (coldStore.referencesUser(id)) {
+            throw new ResourceDataIntegrityException("User " + id + " owns archived simulations.");
+        }
+        UserResponseDTO cached = userCache.getById(id);
         try {
-            User entity = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
-            repository.delete(entity);
+            if (repository.deleteByIdReturningCount(id) == 0) {
+                throw new ResourceNotFoundException(id);
+            }
         } catch (DataIntegrityViolationException e) {
             throw new ResourceDataIntegrityException("Violations of database restrictions.");
         }
+        userCache.evict(id, cached != null ? cached.email() : null);
     }
 
-    @Transactional
-    public UserResponseDTO update(Long id, UserRequestDTO dto) {
-        User entity = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
-        if(!entity.getEmail().equals(dto.email()) && repository.existsByEmail(dto.email())) {
-            throw new ResourceDataIntegrityException("Email is already in use.");
+    // The hash is computed before the transaction starts so a pooled connection is never held while BCrypt runs.
+    public UserResponseDTO update(Long id, UserRequestDTO dto, String ifMatch) {
+        List<Long> expectedVersions = ifMatch != null ? ETags.userVersions(ifMatch) : null;
+        String passwordHash = passwordHasher.hash(dto.password());
+        try {
+            return transactionTemplate.execute(status -> applyUpdate(id, dto, passwordHash, expectedVersions));
+        } catch (DataIntegrityViolationException e) {
+            throw integrityViolation(e, "Email is already in use.");
         }
-        updateEntity(entity, dto);
-        return new UserResponseDTO(entity);
     }
 
-    private User copyDtoToEntity(UserRequestDTO dto) {
-        User entity = new User();
-        entity.setName(dto.name());
-        entity.setEmail(dto.email());
-        entity.setPassword(dto.password());
-        entity.setBirthday(dto.birthday());
-        return entity;
+    // A single UPDATE guarded by the If-Match versions. The row is only read again when nothing was updated (to tell
+    // 404 from 412) or when the new version cannot be inferred from a single expected version. The UPDATE bypasses
+    // entity validation, so UserRequestDTO has to carry every constraint declared on User.
+    private UserResponseDTO applyUpdate(Long id, UserRequestDTO dto, String passwordHash, List<Long> expectedVersions) {
+        int updated;
+        if (expectedVersions == null) {
+            updated = repository.updateById(id, dto.name(), dto.email(), passwordHash, dto.birthday());
+        } else if (expectedVersions.isEmpty()) {
+            updated = 0;
+        } else {
+            updated = repository.updateByIdAndVersionIn(
+                    id, expectedVersions, dto.name(), dto.email(), passwordHash, dto.birthday()
+            );
+        }
+        if (updated == 0) {
+            repository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+            throw new ResourcePreconditionFailedException(id);
+        }
+
+        Long version = expectedVersions != null && expectedVersions.size() == 1
+                ? expectedVersions.get(0) + 1
+                : repository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+        UserResponseDTO cached = userCache.getById(id);
+        userCache.evict(id, cached != null ? cached.email() : null);
+        return new UserResponseDTO(id, dto.name(), dto.email(), dto.birthday(), version);
     }
 
-    private void updateEntity(User entity, UserRequestDTO dto) {
+    private static boolean inReadOnlyTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private ResourceNotFoundException missing(Long id) {
+        userCache.markMissing(id);
+        return new ResourceNotFoundException(id);
+    }
+
+    private static ResourceDataIntegrityException integrityViolation(DataIntegrityViolationException e, String uniqueMessage) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                return new ResourceDataIntegrityException(uniqueMessage);
+            }
+        }
+        return new ResourceDataIntegrityException("Violations of database restrictions.");
+    }
+
+    private User copyDtoToEntity(UserRequestDTO dto, String passwordHash) {
+        User entity = new User();
         entity.setName(dto.name());
         entity.setEmail(dto.email());
-        entity.setPassword(dto.password());
+        entity.setPassword(passwordHash);
         entity.setBirthday(dto.birthday());
+        return entity;
     }
 
 }
@@ -0,0 +1,23 @@
+package com.carlosedolv.emergy_api.services.archive;
+
+import com.carlosedolv.emergy_api.entities.Simulation;
+
+import java.time.Instant;
+
+public record ArchivedSimulation(
+        long id, String title, double liters, int fuelTypeId, double result, Instant createdAt, long version,
+        long userId
+) {
+    public static ArchivedSimulation of(Simulation simulation) {
+        return new ArchivedSimulation(
+                simulation.getId(),
+                simulation.getTitle(),
+                simulation.getLiters(),
+                simulation.getFuelType().getId(),
+                simulation.getResult(),
+                simulation.getCreatedAt(),
+                simulation.getVersion(),
+                simulation.getUser().getId()
+        );
+    }
+}
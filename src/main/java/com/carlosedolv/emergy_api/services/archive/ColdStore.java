@@ -0,0 +1,259 @@
+package com.carlosedolv.emergy_api.services.archive;
+
+import com.carlosedolv.emergy_api.entities.ArchiveSegment;
+import com.carlosedolv.emergy_api.repositories.ArchiveSegmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The committed segments of the archive directory, newest first. Segments never change once written, so publishing
+// one swaps in a new list and readers keep whichever snapshot they started with.
+//
+// A segment only counts once the transaction that wrote it has committed, and that transaction also records it in
+// archive_segments. Until then it is not listed (segmentCount, forEachBlock); on rollback the file is removed, and a
+// file left behind by a crash has no row and is removed on the next start.
+//
+// Lookups (findById, referencesUser) also see segments whose transaction has not completed yet. Otherwise there is a
+// window between the delete committing and afterCompletion publishing the segment in which an archived simulation is
+// in neither place: a GET answers 404 and a user delete finds no reference. Callers only look here after a miss on
+// the hot table, which cannot happen before the delete commits, so they never see a copy that is later rolled back
+// while its hot row still exists; referencesUser may refuse a user delete for a batch that then rolls back.
+@Component
+public class ColdStore {
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{16})\\.seg");
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final ArchiveSegmentRepository repository;
+    private final List<Segment> pending = new ArrayList<>();
+    private volatile List<Segment> segments = List.of();
+    private volatile Lookup lookup = Lookup.of(List.of());
+    private long lastSequence;
+
+    public ColdStore(
+            @Value("${emergy.archive.directory:archive}") Path directory, ArchiveSegmentRepository repository
+    ) {
+        this.directory = directory;
+        this.repository = repository;
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        Set<Long> committed = new HashSet<>(repository.findAllIds());
+        List<Segment> opened = openCommitted(directory, committed);
+        lastSequence = opened.isEmpty() ? 0 : opened.getFirst().sequence();
+        pending.clear();
+        segments = opened;
+        lookup = Lookup.of(opened);
+    }
+
+    public Optional<ArchivedSimulation> findById(long id) {
+        return Optional.ofNullable(lookup.find(id));
+    }
+
+    public boolean referencesUser(long userId) {
+        return lookup.referencesUser(userId);
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public void forEachBlock(Consumer<List<ArchivedSimulation>> consumer) {
+        for (Segment segment : segments) {
+            segment.forEachBlock(consumer);
+        }
+    }
+
+    // Oldest segment first, so rows come out roughly in id order; segments without the owner are not inflated.
+    public void forEachRowOf(long userId, Consumer<ArchivedSimulation> consumer) {
+        for (Segment segment : segments.reversed()) {
+            if (segment.referencesUser(userId)) {
+                segment.forEachBlock(block -> {
+                    for (ArchivedSimulation row : block) {
+                        if (row.userId() == userId) {
+                            consumer.accept(row);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    // Must run inside the transaction that deletes the rows. The segment is written and forced under a temporary name,
+    // renamed, and recorded in archive_segments; it is published to readers only after that transaction commits.
+    public synchronized void append(List<ArchivedSimulation> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Archive segments must be written inside a transaction");
+        }
+        List<ArchivedSimulation> sorted = rows.stream().sorted(Comparator.comparingLong(ArchivedSimulation::id)).toList();
+        long sequence = Math.max(lastSequence, repository.findMaxId()) + 1;
+        Path target = directory.resolve("segment-%016d.seg".formatted(sequence));
+        Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        Segment segment;
+        try {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(temp);
+            Segment.write(temp, sorted);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+            segment = Segment.open(target, sequence);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            deleteQuietly(target);
+            throw new UncheckedIOException("Could not write archive segment " + target, e);
+        }
+        lastSequence = sequence;
+        repository.save(ArchiveSegment.builder().id(sequence).rowCount(sorted.size()).createdAt(Instant.now()).build());
+        pending.add(segment);
+        lookup = lookup.with(segment);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(segment, status == STATUS_COMMITTED);
+                if (status == STATUS_ROLLED_BACK) {
+                    deleteQuietly(target);
+                }
+            }
+        });
+    }
+
+    // An unknown outcome is hidden from readers like a rollback, but its file is kept: if the transaction did commit,
+    // the archive_segments row brings the segment back on the next start.
+    private synchronized void complete(Segment segment, boolean committed) {
+        pending.remove(segment);
+        if (committed) {
+            List<Segment> next = new ArrayList<>(segments.size() + 1);
+            next.add(segment);
+            next.addAll(segments);
+            next.sort(Comparator.comparingLong(Segment::sequence).reversed());
+            segments = List.copyOf(next);
+            return;
+        }
+        List<Segment> visible = new ArrayList<>(segments);
+        visible.addAll(pending);
+        lookup = Lookup.of(visible);
+    }
+
+    private static List<Segment> openCommitted(Path directory, Set<Long> committed) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<Segment> opened = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Matcher matcher = SEGMENT_NAME.matcher(name);
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.delete(file);
+                } else if (matcher.matches()) {
+                    long sequence = Long.parseLong(matcher.group(1));
+                    if (committed.contains(sequence)) {
+                        opened.add(Segment.open(file, sequence));
+                    } else {
+                        Files.delete(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open archive segments in " + directory, e);
+        }
+        opened.sort(Comparator.comparingLong(Segment::sequence).reversed());
+        return List.copyOf(opened);
+    }
+
+    // Makes the rename itself durable. Not every platform allows opening a directory; there the rename is left to the
+    // file system's own ordering.
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // Immutable lookup structures over a set of segments. Segments are ordered by first id alongside the running
+    // maximum of their last ids, so a lookup binary-searches to the last segment starting at or before the id and
+    // walks back only while an earlier one can still reach it; archive batches are cut in id order, so that is
+    // usually a single segment. Owners are the sorted union of every segment's owners.
+    private static final class Lookup {
+        private final Segment[] byMinId;
+        private final long[] maxIdSoFar;
+        private final long[] owners;
+
+        private Lookup(Segment[] byMinId, long[] owners) {
+            this.byMinId = byMinId;
+            this.maxIdSoFar = new long[byMinId.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < byMinId.length; i++) {
+                max = Math.max(max, byMinId[i].maxId());
+                maxIdSoFar[i] = max;
+            }
+            this.owners = owners;
+        }
+
+        static Lookup of(Collection<Segment> segments) {
+            Segment[] byMinId = segments.toArray(Segment[]::new);
+            Arrays.sort(byMinId, Comparator.comparingLong(Segment::minId));
+            long[] owners = segments.stream()
+                    .flatMapToLong(segment -> Arrays.stream(segment.userIds()))
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            return new Lookup(byMinId, owners);
+        }
+
+        Lookup with(Segment segment) {
+            List<Segment> next = new ArrayList<>(Arrays.asList(byMinId));
+            next.add(segment);
+            return of(next);
+        }
+
+        ArchivedSimulation find(long id) {
+            int low = 0;
+            int high = byMinId.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (byMinId[mid].minId() <= id) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            for (int i = high; i >= 0 && maxIdSoFar[i] >= id; i--) {
+                if (id <= byMinId[i].maxId()) {
+                    ArchivedSimulation row = byMinId[i].find(id);
+                    if (row != null) {
+                        return row;
+                    }
+                }
+            }
+            return null;
+        }
+
+        boolean referencesUser(long userId) {
+            return Arrays.binarySearch(owners, userId) >= 0;
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.carlosedolv.emergy_api.services.archive;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Immutable file of archived simulations. Rows are sorted by id and cut into blocks of BLOCK_ROWS; each column of a
+// block is deflated on its own, so a lookup inflates the id column of a single block and touches the other columns
+// only on a hit. The footer is the sparse index: first and last id of every block and where its columns lie, plus
+// the distinct owners so a user delete can be refused without scanning.
+//
+// header (magic, format) | blocks | footer | footer offset (long) | magic
+//
+// The file is memory-mapped read-only and only read through absolute offsets, so one instance serves concurrent
+// lookups without locking.
+final class Segment {
+    static final int BLOCK_ROWS = 256;
+
+    private static final int MAGIC = 0x454D5347;
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int TRAILER_BYTES = Long.BYTES + Integer.BYTES;
+
+    private static final int ID = 0;
+    private static final int CREATED_AT = 1;
+    private static final int VERSION = 2;
+    private static final int USER_ID = 3;
+    private static final int FUEL_TYPE = 4;
+    private static final int LITERS = 5;
+    private static final int RESULT = 6;
+    private static final int TITLE = 7;
+    private static final int COLUMNS = 8;
+
+    private final Path path;
+    private final long sequence;
+    private final ByteBuffer buffer;
+    private final long[] firstIds;
+    private final long[] lastIds;
+    private final int[] rowCounts;
+    private final int[][] offsets;
+    private final int[][] compressedLengths;
+    private final int[][] rawLengths;
+    private final long[] userIds;
+
+    private Segment(
+            Path path, long sequence, ByteBuffer buffer, long[] firstIds, long[] lastIds, int[] rowCounts,
+            int[][] offsets, int[][] compressedLengths, int[][] rawLengths, long[] userIds
+    ) {
+        this.path = path;
+        this.sequence = sequence;
+        this.buffer = buffer;
+        this.firstIds = firstIds;
+        this.lastIds = lastIds;
+        this.rowCounts = rowCounts;
+        this.offsets = offsets;
+        this.compressedLengths = compressedLengths;
+        this.rawLengths = rawLengths;
+        this.userIds = userIds;
+    }
+
+    // Rows must be sorted by id without repeats. The file is forced to disk before this returns.
+    static void write(Path path, List<ArchivedSimulation> rows) throws IOException {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("A segment needs at least one row");
+        }
+        ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+        DataOutputStream footer = new DataOutputStream(footerBytes);
+        footer.writeInt((rows.size() + BLOCK_ROWS - 1) / BLOCK_ROWS);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            long offset = HEADER_BYTES;
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                for (int from = 0; from < rows.size(); from += BLOCK_ROWS) {
+                    List<ArchivedSimulation> block = rows.subList(from, Math.min(rows.size(), from + BLOCK_ROWS));
+                    footer.writeLong(block.getFirst().id());
+                    footer.writeLong(block.getLast().id());
+                    footer.writeInt(block.size());
+                    footer.writeLong(offset);
+                    for (byte[] column : encode(block)) {
+                        byte[] compressed = deflate(deflater, column);
+                        out.write(compressed);
+                        footer.writeInt(compressed.length);
+                        footer.writeInt(column.length);
+                        offset += compressed.length;
+                    }
+                }
+            } finally {
+                deflater.end();
+            }
+            long[] owners = rows.stream().mapToLong(ArchivedSimulation::userId).distinct().sorted().toArray();
+            footer.writeInt(owners.length);
+            for (long owner : owners) {
+                footer.writeLong(owner);
+            }
+            if (offset + footerBytes.size() + TRAILER_BYTES > Integer.MAX_VALUE) {
+                throw new IOException("Segment exceeds 2 GB: " + path);
+            }
+            footerBytes.writeTo(out);
+            out.writeLong(offset);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    static Segment open(Path path, long sequence) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                throw corrupt(path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        int size = buffer.capacity();
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != FORMAT
+                || buffer.getInt(size - Integer.BYTES) != MAGIC) {
+            throw corrupt(path);
+        }
+        long footerOffset = buffer.getLong(size - TRAILER_BYTES);
+        if (footerOffset < HEADER_BYTES || footerOffset > size - TRAILER_BYTES) {
+            throw corrupt(path);
+        }
+        ByteBuffer footer = buffer.slice((int) footerOffset, size - TRAILER_BYTES - (int) footerOffset);
+        try {
+            int blocks = footer.getInt();
+            if (blocks < 1 || blocks > footer.remaining()) {
+                throw corrupt(path);
+            }
+            long[] firstIds = new long[blocks];
+            long[] lastIds = new long[blocks];
+            int[] rowCounts = new int[blocks];
+            int[][] offsets = new int[blocks][COLUMNS];
+            int[][] compressedLengths = new int[blocks][COLUMNS];
+            int[][] rawLengths = new int[blocks][COLUMNS];
+            for (int block = 0; block < blocks; block++) {
+                firstIds[block] = footer.getLong();
+                lastIds[block] = footer.getLong();
+                rowCounts[block] = footer.getInt();
+                long offset = footer.getLong();
+                for (int column = 0; column < COLUMNS; column++) {
+                    offsets[block][column] = (int) offset;
+                    compressedLengths[block][column] = footer.getInt();
+                    rawLengths[block][column] = footer.getInt();
+                    offset += compressedLengths[block][column];
+                }
+                if (offset > footerOffset) {
+                    throw corrupt(path);
+                }
+            }
+            long[] userIds = new long[footer.getInt()];
+            for (int i = 0; i < userIds.length; i++) {
+                userIds[i] = footer.getLong();
+            }
+            return new Segment(path, sequence, buffer, firstIds, lastIds, rowCounts, offsets, compressedLengths,
+                    rawLengths, userIds);
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw corrupt(path);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    long minId() {
+        return firstIds[0];
+    }
+
+    long maxId() {
+        return lastIds[lastIds.length - 1];
+    }
+
+    boolean referencesUser(long userId) {
+        return Arrays.binarySearch(userIds, userId) >= 0;
+    }
+
+    // Sorted and distinct; shared, so callers must not modify it.
+    long[] userIds() {
+        return userIds;
+    }
+
+    ArchivedSimulation find(long id) {
+        int block = blockOf(id);
+        if (block < 0) {
+            return null;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            Column ids = inflate(inflater, block, ID);
+            int row = rowOf(ids, rowCounts[block], id);
+            return row < 0 ? null : new BlockReader(inflater, block, ids.rewind()).skip(row).next();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    void forEachBlock(Consumer<List<ArchivedSimulation>> consumer) {
+        Inflater inflater = new Inflater();
+        try {
+            for (int block = 0; block < firstIds.length; block++) {
+                BlockReader reader = new BlockReader(inflater, block, inflate(inflater, block, ID));
+                List<ArchivedSimulation> rows = new ArrayList<>(rowCounts[block]);
+                for (int row = 0; row < rowCounts[block]; row++) {
+                    rows.add(reader.next());
+                }
+                consumer.accept(rows);
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // The last block starting at or before the id, if the id falls inside it.
+    private int blockOf(long id) {
+        int found = Arrays.binarySearch(firstIds, id);
+        int block = found >= 0 ? found : -found - 2;
+        return block >= 0 && id <= lastIds[block] ? block : -1;
+    }
+
+    private static int rowOf(Column ids, int rows, long id) {
+        long current = 0;
+        for (int row = 0; row < rows; row++) {
+            current += ids.readVarLong();
+            if (current >= id) {
+                return current == id ? row : -1;
+            }
+        }
+        return -1;
+    }
+
+    private Column inflate(Inflater inflater, int block, int column) {
+        byte[] raw = new byte[rawLengths[block][column]];
+        inflater.reset();
+        try {
+            inflater.setInput(buffer.slice(offsets[block][column], compressedLengths[block][column]));
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != raw.length) {
+                throw new UncheckedIOException(corrupt(path));
+            }
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(corrupt(path));
+        }
+        return new Column(raw);
+    }
+
+    private static byte[][] encode(List<ArchivedSimulation> block) {
+        ColumnWriter[] columns = new ColumnWriter[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = new ColumnWriter();
+        }
+        long previousId = 0;
+        long previousSecond = 0;
+        long previousUser = 0;
+        for (ArchivedSimulation row : block) {
+            columns[ID].writeVarLong(row.id() - previousId);
+            columns[CREATED_AT].writeZigZag(row.createdAt().getEpochSecond() - previousSecond);
+            columns[CREATED_AT].writeVarLong(row.createdAt().getNano());
+            columns[VERSION].writeVarLong(row.version());
+            columns[USER_ID].writeZigZag(row.userId() - previousUser);
+            columns[FUEL_TYPE].writeVarLong(row.fuelTypeId());
+            columns[LITERS].writeDouble(row.liters());
+            columns[RESULT].writeDouble(row.result());
+            columns[TITLE].writeString(row.title());
+            previousId = row.id();
+            previousSecond = row.createdAt().getEpochSecond();
+            previousUser = row.userId();
+        }
+        byte[][] encoded = new byte[COLUMNS][];
+        for (int i = 0; i < COLUMNS; i++) {
+            encoded[i] = columns[i].toByteArray();
+        }
+        return encoded;
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+
+    private static IOException corrupt(Path path) {
+        return new IOException("Corrupt segment: " + path);
+    }
+
+    // Walks the rows of one block with every column inflated, undoing the delta encoding as it goes.
+    private final class BlockReader {
+        private final Column[] columns = new Column[COLUMNS];
+        private long id;
+        private long second;
+        private long userId;
+
+        BlockReader(Inflater inflater, int block, Column ids) {
+            columns[ID] = ids;
+            for (int column = ID + 1; column < COLUMNS; column++) {
+                columns[column] = inflate(inflater, block, column);
+            }
+        }
+
+        // Only the delta-encoded columns need decoding to move past a row; the rest are stepped over.
+        BlockReader skip(int rows) {
+            for (int i = 0; i < rows; i++) {
+                id += columns[ID].readVarLong();
+                second += columns[CREATED_AT].readZigZag();
+                columns[CREATED_AT].skipVarLong();
+                columns[VERSION].skipVarLong();
+                userId += columns[USER_ID].readZigZag();
+                columns[FUEL_TYPE].skipVarLong();
+                columns[TITLE].skip((int) columns[TITLE].readVarLong());
+            }
+            columns[LITERS].skip(rows * Double.BYTES);
+            columns[RESULT].skip(rows * Double.BYTES);
+            return this;
+        }
+
+        ArchivedSimulation next() {
+            id += columns[ID].readVarLong();
+            second += columns[CREATED_AT].readZigZag();
+            Instant createdAt = Instant.ofEpochSecond(second, columns[CREATED_AT].readVarLong());
+            long version = columns[VERSION].readVarLong();
+            userId += columns[USER_ID].readZigZag();
+            int fuelTypeId = (int) columns[FUEL_TYPE].readVarLong();
+            double liters = columns[LITERS].readDouble();
+            double result = columns[RESULT].readDouble();
+            String title = columns[TITLE].readString();
+            return new ArchivedSimulation(id, title, liters, fuelTypeId, result, createdAt, version, userId);
+        }
+    }
+
+    private static final class ColumnWriter extends ByteArrayOutputStream {
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (bits >>> shift));
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static final class Column {
+        private final byte[] data;
+        private int position;
+
+        Column(byte[] data) {
+            this.data = data;
+        }
+
+        Column rewind() {
+            position = 0;
+            return this;
+        }
+
+        void skip(int bytes) {
+            position += bytes;
+        }
+
+        void skipVarLong() {
+            while (data[position++] < 0) {
+            }
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                bits = (bits << 8) | (data[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.carlosedolv.emergy_api.services.archive;
+
+import com.carlosedolv.emergy_api.dtos.response.ArchiveResponseDTO;
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.services.search.TitleSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Moves simulations created more than emergy.archive.min-age ago into the cold store. Each batch is locked, written
+// to a segment and deleted in one transaction, and the cold store only publishes the segment once that transaction
+// commits; if it rolls back, the rows stay hot and no cold copy exists. Rollups are left alone: an archived
+// simulation still counts.
+@Service
+@Timed(value = "emergy.service", histogram = true)
+public class SimulationArchiveService {
+    private final SimulationRepository repository;
+    private final ColdStore coldStore;
+    private final TitleSearchIndex titleIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+
+    public SimulationArchiveService(
+            SimulationRepository repository,
+            ColdStore coldStore,
+            TitleSearchIndex titleIndex,
+            PlatformTransactionManager transactionManager,
+            @Value("${emergy.archive.min-age:365d}") Duration minAge,
+            @Value("${emergy.archive.batch-size:1000}") int batchSize
+    ) {
+        this.repository = repository;
+        this.coldStore = coldStore;
+        this.titleIndex = titleIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${emergy.archive.cron:-}")
+    public void scheduledArchive() {
+        archive();
+    }
+
+    public ArchiveResponseDTO archive() {
+        Instant cutoff = Instant.now().minus(minAge);
+        long archived = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            List<Long> ids = transactionTemplate.execute(status -> archiveBatch(cutoff, afterId));
+            if (ids == null || ids.isEmpty()) {
+                return new ArchiveResponseDTO(cutoff, archived, coldStore.segmentCount());
+            }
+            archived += ids.size();
+            lastId = ids.getLast();
+        }
+    }
+
+    private List<Long> archiveBatch(Instant cutoff, long afterId) {
+        List<Simulation> simulations = repository.findByCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(
+                cutoff, afterId, Limit.of(batchSize)
+        );
+        if (simulations.isEmpty()) {
+            return List.of();
+        }
+        coldStore.append(simulations.stream().map(ArchivedSimulation::of).toList());
+        List<Long> ids = simulations.stream().map(Simulation::getId).toList();
+        repository.deleteAllByIdInBatch(ids);
+        ids.forEach(titleIndex::remove);
+        return ids;
+    }
+}
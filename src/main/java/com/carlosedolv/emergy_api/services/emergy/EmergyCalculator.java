@@ -0,0 +1,10 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class EmergyCalculator {
+    public double calculate(FuelType type, double liters) {
+        return liters * type.getEmergyPerLiter();
+    }
+}
@@ -0,0 +1,96 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import com.carlosedolv.emergy_api.entities.FuelTypeDefinition;
+
+// Immutable snapshot of a fuel_types row. Instances are only created by FuelTypeCatalog, which assigns each one its
+// position in the catalog so per-type tables can be plain arrays indexed by ordinal.
+public final class FuelType {
+    private final int ordinal;
+    private final int id;
+    private final String code;
+    private final String label;
+    private final double density;
+    private final double lowerHeatingValue;
+    private final double transformity;
+    private final double densityCv;
+    private final double lowerHeatingValueCv;
+    private final double transformityCv;
+    // seJ per liter = density (kg/L) * lower heating value (J/kg) * transformity (seJ/J)
+    private final double emergyPerLiter;
+
+    FuelType(int ordinal, FuelTypeDefinition definition) {
+        this.ordinal = ordinal;
+        this.id = definition.getId();
+        this.code = definition.getCode();
+        this.label = definition.getLabel();
+        this.density = definition.getDensity();
+        this.lowerHeatingValue = definition.getLowerHeatingValue();
+        this.transformity = definition.getTransformity();
+        this.densityCv = definition.getDensityCv();
+        this.lowerHeatingValueCv = definition.getLowerHeatingValueCv();
+        this.transformityCv = definition.getTransformityCv();
+        this.emergyPerLiter = density * lowerHeatingValue * transformity;
+    }
+
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public double getDensity() {
+        return density;
+    }
+
+    public double getLowerHeatingValue() {
+        return lowerHeatingValue;
+    }
+
+    public double getTransformity() {
+        return transformity;
+    }
+
+    public double getDensityCv() {
+        return densityCv;
+    }
+
+    public double getLowerHeatingValueCv() {
+        return lowerHeatingValueCv;
+    }
+
+    public double getTransformityCv() {
+        return transformityCv;
+    }
+
+    public double getEmergyPerLiter() {
+        return emergyPerLiter;
+    }
+
+    // Equal by id so a simulation loaded before a reload still matches the reloaded type it refers to.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return id == ((FuelType) o).id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
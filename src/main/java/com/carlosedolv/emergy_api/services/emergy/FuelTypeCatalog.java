@@ -0,0 +1,83 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import com.carlosedolv.emergy_api.entities.FuelTypeDefinition;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+
+import java.util.*;
+
+// One consistent generation of fuel types. Never mutated after construction, so readers holding a catalog see the same
+// types for as long as they keep it, whatever reloads happen meanwhile.
+public final class FuelTypeCatalog {
+    public static final FuelTypeCatalog EMPTY = new FuelTypeCatalog(new FuelType[0], new FuelType[0], Map.of());
+
+    private final FuelType[] types;
+    private final FuelType[] byId;
+    private final Map<String, FuelType> byKey;
+
+    private FuelTypeCatalog(FuelType[] types, FuelType[] byId, Map<String, FuelType> byKey) {
+        this.types = types;
+        this.byId = byId;
+        this.byKey = byKey;
+    }
+
+    // Ordinals follow id order, so the same rows always produce the same ordinals.
+    public static FuelTypeCatalog of(Collection<FuelTypeDefinition> definitions) {
+        List<FuelTypeDefinition> sorted = new ArrayList<>(definitions);
+        sorted.sort(Comparator.comparing(FuelTypeDefinition::getId));
+
+        FuelType[] types = new FuelType[sorted.size()];
+        int maxId = sorted.isEmpty() ? -1 : sorted.get(sorted.size() - 1).getId();
+        FuelType[] byId = new FuelType[maxId + 1];
+        Map<String, FuelType> byKey = new HashMap<>();
+        for (int i = 0; i < types.length; i++) {
+            FuelType type = new FuelType(i, sorted.get(i));
+            types[i] = type;
+            byId[type.getId()] = type;
+            for (String key : new String[]{type.getCode(), type.getLabel()}) {
+                FuelType previous = byKey.putIfAbsent(normalize(key), type);
+                if (previous != null && previous != type) {
+                    throw new ResourceBadRequestException("Ambiguous fuel type: " + key);
+                }
+            }
+        }
+        return new FuelTypeCatalog(types, byId, Map.copyOf(byKey));
+    }
+
+    public List<FuelType> all() {
+        return List.of(types);
+    }
+
+    public int size() {
+        return types.length;
+    }
+
+    public FuelType byOrdinal(int ordinal) {
+        return types[ordinal];
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id < byId.length && byId[id] != null;
+    }
+
+    // Rows are never deleted, so an id read from the database that is unknown here means the catalog is out of date.
+    public FuelType byId(int id) {
+        FuelType type = id >= 0 && id < byId.length ? byId[id] : null;
+        if (type == null) {
+            throw new IllegalStateException("Fuel type " + id + " is not loaded.");
+        }
+        return type;
+    }
+
+    // Accepts the code or the label, ignoring case and surrounding spaces.
+    public FuelType resolve(String key) {
+        FuelType type = key != null ? byKey.get(normalize(key)) : null;
+        if (type == null) {
+            throw new ResourceBadRequestException("Unknown fuel type: " + key);
+        }
+        return type;
+    }
+
+    private static String normalize(String key) {
+        return key.strip().toLowerCase(Locale.ROOT);
+    }
+}
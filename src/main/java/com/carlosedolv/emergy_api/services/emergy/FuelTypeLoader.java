@@ -0,0 +1,184 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import com.carlosedolv.emergy_api.entities.FuelTypeDefinition;
+import com.carlosedolv.emergy_api.repositories.FuelTypeDefinitionRepository;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Syncs the fuel_types table from a CSV file and publishes the result to the registry. Rows missing from the file are
+// kept rather than deleted: simulations reference them by foreign key.
+@Component
+public class FuelTypeLoader {
+    static final List<String> COLUMNS = List.of(
+            "id", "code", "label", "density", "lower_heating_value", "transformity",
+            "density_cv", "lower_heating_value_cv", "transformity_cv"
+    );
+
+    private final FuelTypeRegistry registry;
+    private final FuelTypeDefinitionRepository repository;
+    private final ResourceLoader resourceLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final String location;
+
+    public FuelTypeLoader(
+            FuelTypeRegistry registry, FuelTypeDefinitionRepository repository, ResourceLoader resourceLoader,
+            PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate,
+            @Value("${emergy.fuel-types.location:classpath:fuel-types.csv}") String location
+    ) {
+        this.registry = registry;
+        this.repository = repository;
+        this.resourceLoader = resourceLoader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.location = location;
+        registry.refreshWith(this::readTable);
+    }
+
+    // Runs before any bean that depends on the registry can read a simulation, so rows always find their type.
+    @PostConstruct
+    public void load() {
+        reload();
+    }
+
+    // The new catalog is built inside the transaction, so a file that would make it ambiguous rolls the table back too.
+    public synchronized FuelTypeCatalog reload() {
+        List<FuelTypeDefinition> definitions = read(resourceLoader.getResource(location));
+        try {
+            FuelTypeCatalog catalog = transactionTemplate.execute(status -> {
+                repository.saveAll(definitions);
+                repository.flush();
+                return FuelTypeCatalog.of(repository.findAll());
+            });
+            registry.replace(catalog);
+            return catalog;
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceDataIntegrityException("Violation of database restrictions to reload fuel types.");
+        }
+    }
+
+    // Called by the registry while Hibernate is reading a row, so it bypasses the persistence context and runs on the
+    // caller's connection (if any) rather than taking a second one from the pool.
+    FuelTypeCatalog readTable() {
+        return FuelTypeCatalog.of(jdbcTemplate.query(
+                "SELECT * FROM fuel_types", new BeanPropertyRowMapper<>(FuelTypeDefinition.class)
+        ));
+    }
+
+    static List<FuelTypeDefinition> read(Resource resource) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            List<FuelTypeDefinition> definitions = new ArrayList<>();
+            Set<Integer> ids = new HashSet<>();
+            boolean header = false;
+            int lineNumber = 0;
+            for (String line; (line = reader.readLine()) != null; ) {
+                lineNumber++;
+                line = line.replace("\uFEFF", "").strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                List<String> fields = Arrays.stream(line.split(",", -1)).map(String::strip).toList();
+                if (!header) {
+                    if (!fields.equals(COLUMNS)) {
+                        throw new ResourceBadRequestException("Fuel type file header must be: " + String.join(",", COLUMNS));
+                    }
+                    header = true;
+                    continue;
+                }
+                FuelTypeDefinition definition = parse(lineNumber, fields);
+                if (!ids.add(definition.getId())) {
+                    throw new ResourceBadRequestException(
+                            "Line " + lineNumber + ": duplicate fuel type id " + definition.getId() + "."
+                    );
+                }
+                definitions.add(definition);
+            }
+            if (definitions.isEmpty()) {
+                throw new ResourceBadRequestException("Fuel type file must define at least one fuel type.");
+            }
+            return definitions;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read fuel types from " + resource.getDescription(), e);
+        }
+    }
+
+    private static FuelTypeDefinition parse(int lineNumber, List<String> fields) {
+        if (fields.size() != COLUMNS.size()) {
+            throw new ResourceBadRequestException(
+                    "Line " + lineNumber + ": expected " + COLUMNS.size() + " columns but found " + fields.size() + "."
+            );
+        }
+        try {
+            int id = Integer.parseInt(fields.get(0));
+            if (id < 1 || id > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("id must be between 1 and " + Short.MAX_VALUE + ".");
+            }
+            return FuelTypeDefinition.builder()
+                    .id(id)
+                    .code(required("code", fields.get(1), 40))
+                    .label(required("label", fields.get(2), 60))
+                    .density(positive("density", fields.get(3)))
+                    .lowerHeatingValue(positive("lower_heating_value", fields.get(4)))
+                    .transformity(positive("transformity", fields.get(5)))
+                    .densityCv(nonNegative("density_cv", fields.get(6)))
+                    .lowerHeatingValueCv(nonNegative("lower_heating_value_cv", fields.get(7)))
+                    .transformityCv(nonNegative("transformity_cv", fields.get(8)))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new ResourceBadRequestException("Line " + lineNumber + ": " + e.getMessage());
+        }
+    }
+
+    private static String required(String name, String value, int maxLength) {
+        if (value.isEmpty() || value.length() > maxLength) {
+            throw new IllegalArgumentException(name + " must have between 1 and " + maxLength + " characters.");
+        }
+        return value;
+    }
+
+    private static double positive(String name, String value) {
+        double parsed = parseDouble(name, value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than zero.");
+        }
+        return parsed;
+    }
+
+    private static double nonNegative(String name, String value) {
+        double parsed = parseDouble(name, value);
+        if (parsed < 0) {
+            throw new IllegalArgumentException(name + " must not be negative.");
+        }
+        return parsed;
+    }
+
+    private static double parseDouble(String name, String value) {
+        try {
+            double parsed = Double.parseDouble(value);
+            if (!Double.isFinite(parsed)) {
+                throw new NumberFormatException();
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number.");
+        }
+    }
+}
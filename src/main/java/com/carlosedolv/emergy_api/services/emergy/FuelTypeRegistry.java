@@ -0,0 +1,48 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Lookups read a single volatile reference and never lock; a reload builds a whole new catalog and swaps it in. An id
+// this catalog has never seen (added by another instance's reload or straight in the table) triggers one re-read of
+// the table before it is treated as an error.
+@Component
+public class FuelTypeRegistry {
+    private volatile FuelTypeCatalog catalog = FuelTypeCatalog.EMPTY;
+    private volatile Supplier<FuelTypeCatalog> refresher;
+
+    public FuelTypeCatalog current() {
+        return catalog;
+    }
+
+    public FuelType resolve(String key) {
+        return catalog.resolve(key);
+    }
+
+    public FuelType byId(int id) {
+        FuelTypeCatalog current = catalog;
+        if (current.contains(id) || refresher == null) {
+            return current.byId(id);
+        }
+        return refresh(current).byId(id);
+    }
+
+    void replace(FuelTypeCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    void refreshWith(Supplier<FuelTypeCatalog> refresher) {
+        this.refresher = refresher;
+    }
+
+    // Threads that missed on the same generation wait for a single re-read instead of each issuing one.
+    private synchronized FuelTypeCatalog refresh(FuelTypeCatalog stale) {
+        if (catalog != stale) {
+            return catalog;
+        }
+        FuelTypeCatalog refreshed = refresher.get();
+        catalog = refreshed;
+        return refreshed;
+    }
+}
@@ -0,0 +1,112 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+@Component
+public class MonteCarloEngine {
+    private static final int LEAF_SIZE = 1 << 14;
+
+    private final ForkJoinPool pool;
+
+    public MonteCarloEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MonteCarloEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Density and heating value are drawn from normal distributions; transformity, whose spread is much wider and
+    // must stay positive, from a mean-preserving lognormal. Percentiles are linearly interpolated, in [0, 100].
+    public MonteCarloResult run(FuelType type, double liters, int draws, long seed, double[] percentiles) {
+        double transformitySigma = Math.sqrt(Math.log1p(type.getTransformityCv() * type.getTransformityCv()));
+        Model model = new Model(
+                liters * type.getDensity() * type.getLowerHeatingValue() * type.getTransformity(),
+                type.getDensityCv(),
+                type.getLowerHeatingValueCv(),
+                -0.5 * transformitySigma * transformitySigma,
+                transformitySigma
+        );
+        double[] samples = new double[draws];
+        Moments moments = pool.invoke(new DrawTask(model, samples, 0, draws, new SplittableRandom(seed)));
+        Arrays.parallelSort(samples);
+
+        double[] values = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            values[i] = percentile(samples, percentiles[i]);
+        }
+        double variance = draws > 1 ? moments.m2 / (draws - 1) : 0.0;
+        return new MonteCarloResult(draws, moments.mean, Math.sqrt(variance), values);
+    }
+
+    static double percentile(double[] sorted, double percentile) {
+        double rank = percentile / 100.0 * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    private record Model(double deterministic, double densityCv, double heatingValueCv, double logMu, double logSigma) {
+    }
+
+    private record Moments(long count, double mean, double m2) {
+        // Chan et al. pairwise combination of two partial mean / sum-of-squared-deviations pairs.
+        Moments merge(Moments other) {
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            double combinedMean = mean + delta * other.count / total;
+            double combinedM2 = m2 + other.m2 + delta * delta * ((double) count * other.count / total);
+            return new Moments(total, combinedMean, combinedM2);
+        }
+    }
+
+    private static final class DrawTask extends RecursiveTask<Moments> {
+        private final Model model;
+        private final double[] samples;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        DrawTask(Model model, double[] samples, int from, int to, SplittableRandom random) {
+            this.model = model;
+            this.samples = samples;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Moments compute() {
+            if (to - from <= LEAF_SIZE) {
+                return draw();
+            }
+            int mid = (from + to) >>> 1;
+            DrawTask left = new DrawTask(model, samples, from, mid, random.split());
+            DrawTask right = new DrawTask(model, samples, mid, to, random);
+            left.fork();
+            Moments rightMoments = right.compute();
+            return left.join().merge(rightMoments);
+        }
+
+        private Moments draw() {
+            double mean = 0.0;
+            double m2 = 0.0;
+            for (int i = from; i < to; i++) {
+                double density = 1.0 + model.densityCv * random.nextGaussian();
+                double heatingValue = 1.0 + model.heatingValueCv * random.nextGaussian();
+                double transformity = Math.exp(model.logMu + model.logSigma * random.nextGaussian());
+                double sample = model.deterministic * density * heatingValue * transformity;
+                samples[i] = sample;
+                double delta = sample - mean;
+                mean += delta / (i - from + 1);
+                m2 += delta * (sample - mean);
+            }
+            return new Moments(to - from, mean, m2);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+public record MonteCarloResult(int draws, double mean, double standardDeviation, double[] percentiles) {
+}
@@ -0,0 +1,7 @@
+package com.carlosedolv.emergy_api.services.exceptions;
+
+public class ResourceBadRequestException extends ResourceException {
+    public ResourceBadRequestException(String message) {
+        super("Bad request: " + message);
+    }
+}
@@ -1,6 +1,6 @@
 package com.carlosedolv.emergy_api.services.exceptions;
 
-public class ResourceDataIntegrityException extends RuntimeException {
+public class ResourceDataIntegrityException extends ResourceException {
     public ResourceDataIntegrityException(String message) {
         super("Data Integrity error: " + message);
     }
@@ -0,0 +1,9 @@
+package com.carlosedolv.emergy_api.services.exceptions;
+
+// Base of the exceptions the API answers with a 4xx. They are expected control flow (a missing id, a stale ETag),
+// never logged with a trace, so they skip stack capture, which is most of an exception's construction cost.
+public abstract class ResourceException extends RuntimeException {
+    protected ResourceException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,7 +1,12 @@
 package com.carlosedolv.emergy_api.services.exceptions;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends ResourceException {
     public ResourceNotFoundException(Object reference) {
-        super("Resource not found: " + reference);
+        super(message(reference));
+    }
+
+    // For callers that report the miss without throwing (e.g. a batch item error).
+    public static String message(Object reference) {
+        return "Resource not found: " + reference;
     }
 }
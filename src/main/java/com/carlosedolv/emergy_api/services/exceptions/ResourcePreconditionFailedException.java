@@ -0,0 +1,7 @@
+package com.carlosedolv.emergy_api.services.exceptions;
+
+public class ResourcePreconditionFailedException extends ResourceException {
+    public ResourcePreconditionFailedException(Object reference) {
+        super("Resource has been modified: " + reference);
+    }
+}
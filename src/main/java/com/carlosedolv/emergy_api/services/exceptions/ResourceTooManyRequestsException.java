@@ -0,0 +1,7 @@
+package com.carlosedolv.emergy_api.services.exceptions;
+
+public class ResourceTooManyRequestsException extends ResourceException {
+    public ResourceTooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package com.carlosedolv.emergy_api.services.export;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromParam(String format) {
+        if (format == null || format.isBlank()) {
+            return NDJSON;
+        }
+        for (ExportFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format.strip())) {
+                return value;
+            }
+        }
+        throw new ResourceBadRequestException("Unsupported export format: " + format);
+    }
+}
@@ -0,0 +1,176 @@
+package com.carlosedolv.emergy_api.services.export;
+
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.services.archive.ColdStore;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+// Exports a user's archived simulations (oldest segment first) followed by the hot ones in id order. An archive batch
+// that commits while an export is running may be missing from it or appear twice.
+@Service
+public class SimulationExportService {
+    static final String CSV_HEADER = "id,title,liters,type,result,createdAt";
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final SimulationRepository repository;
+    private final ColdStore coldStore;
+    private final FuelTypeRegistry fuelTypes;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public SimulationExportService(
+            SimulationRepository repository, ColdStore coldStore, FuelTypeRegistry fuelTypes,
+            EntityManager entityManager, ObjectMapper objectMapper
+    ) {
+        this.repository = repository;
+        this.coldStore = coldStore;
+        this.fuelTypes = fuelTypes;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rows = format == ExportFormat.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+        long count = writeArchived(userId, rows);
+        try (Stream<Simulation> simulations = repository.streamByUserIdOrderByIdAsc(userId)) {
+            for (Simulation simulation : (Iterable<Simulation>) simulations::iterator) {
+                rows.write(simulation.getId(), simulation.getTitle(), simulation.getLiters(),
+                        simulation.getFuelType().getLabel(), simulation.getResult(), simulation.getCreatedAt());
+                entityManager.detach(simulation);
+                count++;
+            }
+        }
+        rows.flush();
+        writer.flush();
+        return count;
+    }
+
+    private long writeArchived(Long userId, RowWriter rows) throws IOException {
+        long[] count = {0};
+        try {
+            coldStore.forEachRowOf(userId, row -> {
+                try {
+                    rows.write(row.id(), row.title(), row.liters(), fuelTypes.byId(row.fuelTypeId()).getLabel(),
+                            row.result(), row.createdAt());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    private RowWriter ndjsonWriter(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return new RowWriter() {
+            @Override
+            public void write(long id, String title, double liters, String type, double result, Instant createdAt)
+                    throws IOException {
+                generator.writeStartObject();
+                generator.writeNumberField("id", id);
+                generator.writeStringField("title", title);
+                generator.writeNumberField("liters", liters);
+                generator.writeStringField("type", type);
+                generator.writeNumberField("result", result);
+                if (createdAt != null) {
+                    generator.writeStringField("createdAt", createdAt.toString());
+                } else {
+                    generator.writeNullField("createdAt");
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+
+            @Override
+            public void flush() throws IOException {
+                generator.flush();
+            }
+        };
+    }
+
+    private RowWriter csvWriter(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        return new RowWriter() {
+            @Override
+            public void write(long id, String title, double liters, String type, double result, Instant createdAt)
+                    throws IOException {
+                writer.write(String.valueOf(id));
+                writer.write(',');
+                writer.write(csvEscape(title));
+                writer.write(',');
+                writer.write(String.valueOf(liters));
+                writer.write(',');
+                writer.write(csvEscape(type));
+                writer.write(',');
+                writer.write(String.valueOf(result));
+                writer.write(',');
+                if (createdAt != null) {
+                    writer.write(createdAt.toString());
+                }
+                writer.write('\n');
+            }
+
+            @Override
+            public void flush() {
+            }
+        };
+    }
+
+    private interface RowWriter {
+        void write(long id, String title, double liters, String type, double result, Instant createdAt)
+                throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    // A cell starting with =, +, -, @, tab or CR is run as a formula by spreadsheets, so it gets a leading ' (as does
+    // one already starting with 's before such a char, which keeps the CSV import's unescaping lossless).
+    static String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (startsLikeFormula(value)) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    public static boolean startsLikeFormula(String value) {
+        int i = 0;
+        while (i < value.length() && value.charAt(i) == '\'') {
+            i++;
+        }
+        if (i == value.length()) {
+            return false;
+        }
+        char c = value.charAt(i);
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+}
@@ -0,0 +1,194 @@
+package com.carlosedolv.emergy_api.services.imports;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.export.SimulationExportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// RFC 4180 reader that keeps one record in memory at a time. Columns are matched by header name, so extra columns
+// (such as the id, result and createdAt written by the export) are ignored; userId falls back to the request default.
+// The ' the export puts before formula-like text is dropped again.
+final class CsvImportReader implements ImportRowReader {
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Reader reader;
+    private final Long defaultUserId;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private final int columnCount;
+    private final int titleColumn;
+    private final int litersColumn;
+    private final int typeColumn;
+    private final int userIdColumn;
+    private int position;
+    private int limit;
+    private long rowNumber;
+
+    CsvImportReader(InputStream in, Long defaultUserId) throws IOException {
+        this.reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        this.defaultUserId = defaultUserId;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new ResourceBadRequestException("CSV import must start with a header row.");
+        }
+        List<String> names = header.stream()
+                .map(name -> name.replace("\uFEFF", "").strip().toLowerCase(Locale.ROOT))
+                .toList();
+        this.columnCount = names.size();
+        this.titleColumn = requiredColumn(names, "title");
+        this.litersColumn = requiredColumn(names, "liters");
+        this.typeColumn = requiredColumn(names, "type");
+        this.userIdColumn = names.indexOf("userid");
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        long number = ++rowNumber;
+        if (record.size() != columnCount) {
+            return ImportRow.rejected(number, "Expected " + columnCount + " columns but found " + record.size() + ".");
+        }
+        try {
+            Long userId = userIdColumn >= 0 ? parseLong("userId", record.get(userIdColumn)) : null;
+            return ImportRow.parsed(number, new SimulationRequestDTO(
+                    blankToNull(unescapeFormula(record.get(titleColumn))),
+                    parseDouble("liters", record.get(litersColumn)),
+                    blankToNull(unescapeFormula(record.get(typeColumn))),
+                    null,
+                    userId != null ? userId : defaultUserId
+            ));
+        } catch (IllegalArgumentException e) {
+            return ImportRow.rejected(number, e.getMessage());
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        int length = 0;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw new ResourceBadRequestException("Unterminated quoted field at row " + (rowNumber + 1) + ".");
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new ResourceBadRequestException(
+                        "Row " + (rowNumber + 1) + " exceeds " + MAX_RECORD_LENGTH + " characters."
+                );
+            }
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private static int requiredColumn(List<String> names, String name) {
+        int index = names.indexOf(name.toLowerCase(Locale.ROOT));
+        if (index < 0) {
+            throw new ResourceBadRequestException("CSV header is missing the '" + name + "' column.");
+        }
+        return index;
+    }
+
+    private static String unescapeFormula(String value) {
+        return value.startsWith("'") && SimulationExportService.startsLikeFormula(value) ? value.substring(1) : value;
+    }
+
+    private static String blankToNull(String value) {
+        return value.isBlank() ? null : value.strip();
+    }
+
+    private static Double parseDouble(String column, String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + column + ": '" + value + "'.");
+        }
+    }
+
+    private static Long parseLong(String column, String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + column + ": '" + value + "'.");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.carlosedolv.emergy_api.services.imports;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public enum ImportFormat {
+    CSV,
+    JSON;
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null && !contentType.isBlank()) {
+            try {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                if (mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+                    return CSV;
+                }
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                        || mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))) {
+                    return JSON;
+                }
+            } catch (InvalidMediaTypeException ignored) {
+            }
+        }
+        throw new ResourceBadRequestException("Unsupported import content type: " + contentType);
+    }
+
+    ImportRowReader open(InputStream in, Long defaultUserId, ObjectMapper objectMapper) throws IOException {
+        return this == CSV ? new CsvImportReader(in, defaultUserId) : new JsonImportReader(in, defaultUserId, objectMapper);
+    }
+}
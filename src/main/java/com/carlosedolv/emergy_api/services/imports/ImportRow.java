@@ -0,0 +1,14 @@
+package com.carlosedolv.emergy_api.services.imports;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+
+// One source row, numbered from 1 after any header. A row that could not be turned into a DTO carries the reason.
+record ImportRow(long number, SimulationRequestDTO dto, String error) {
+    static ImportRow parsed(long number, SimulationRequestDTO dto) {
+        return new ImportRow(number, dto, null);
+    }
+
+    static ImportRow rejected(long number, String error) {
+        return new ImportRow(number, null, error);
+    }
+}
@@ -0,0 +1,8 @@
+package com.carlosedolv.emergy_api.services.imports;
+
+import java.io.IOException;
+
+interface ImportRowReader {
+    // Returns null once the source is exhausted.
+    ImportRow next() throws IOException;
+}
@@ -0,0 +1,110 @@
+package com.carlosedolv.emergy_api.services.imports;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Accepts either a top-level array or newline-delimited objects (the export's NDJSON), reading one element at a
+// time. A malformed element value rejects that row; broken JSON syntax aborts, since the parser cannot resync. Input
+// that ends inside an element is a truncated upload, not bad syntax, so it surfaces as an EOFException. An element is
+// capped at the CSV reader's record length: the parser rejects longer strings outright, and RowLimitParser checks the
+// element's length after every token, so a row never holds more than one token past the cap in memory.
+final class JsonImportReader implements ImportRowReader {
+    static final int MAX_ROW_LENGTH = CsvImportReader.MAX_RECORD_LENGTH;
+
+    private final RowLimitParser parser;
+    private final ObjectMapper objectMapper;
+    private final Long defaultUserId;
+    private boolean started;
+    private boolean array;
+    private long rowNumber;
+
+    JsonImportReader(InputStream in, Long defaultUserId, ObjectMapper objectMapper) throws IOException {
+        JsonFactory factory = objectMapper.getFactory().copy();
+        factory.setStreamReadConstraints(StreamReadConstraints.builder().maxStringLength(MAX_ROW_LENGTH).build());
+        this.parser = new RowLimitParser(factory.createParser(in));
+        this.objectMapper = objectMapper;
+        this.defaultUserId = defaultUserId;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        try {
+            JsonToken token = parser.nextToken();
+            if (!started) {
+                started = true;
+                if (token == JsonToken.START_ARRAY) {
+                    array = true;
+                    token = parser.nextToken();
+                }
+            }
+            if (token == null || (array && token == JsonToken.END_ARRAY)) {
+                return null;
+            }
+
+            long number = ++rowNumber;
+            parser.startRow();
+            JsonNode node = objectMapper.readTree(parser);
+            if (!node.isObject()) {
+                return ImportRow.rejected(number, "Row must be a JSON object.");
+            }
+            try {
+                SimulationRequestDTO dto = objectMapper.treeToValue(node, SimulationRequestDTO.class);
+                if (dto.userId() == null && defaultUserId != null) {
+                    dto = new SimulationRequestDTO(dto.title(), dto.liters(), dto.type(), dto.result(), defaultUserId);
+                }
+                return ImportRow.parsed(number, dto);
+            } catch (JsonProcessingException e) {
+                return ImportRow.rejected(number, "Invalid row: " + e.getOriginalMessage());
+            }
+        } catch (StreamConstraintsException e) {
+            throw new ResourceBadRequestException("Row " + rowNumber + " exceeds " + MAX_ROW_LENGTH + " bytes.");
+        } catch (JsonEOFException e) {
+            throw new EOFException("JSON ended inside row " + (rowNumber + 1) + ".");
+        } catch (JsonParseException e) {
+            throw new ResourceBadRequestException("Malformed JSON after row " + rowNumber + ".");
+        }
+    }
+
+    private static final class RowLimitParser extends JsonParserDelegate {
+        private long rowStart = -1;
+
+        RowLimitParser(JsonParser parser) {
+            super(parser);
+        }
+
+        // Called with the parser on the element's first token.
+        void startRow() {
+            rowStart = offset(currentTokenLocation());
+        }
+
+        @Override
+        public JsonToken nextToken() throws IOException {
+            JsonToken token = super.nextToken();
+            if (rowStart >= 0 && offset(currentLocation()) - rowStart > MAX_ROW_LENGTH) {
+                throw new StreamConstraintsException("Row exceeds " + MAX_ROW_LENGTH + " bytes");
+            }
+            return token;
+        }
+
+        private static long offset(JsonLocation location) {
+            long bytes = location.getByteOffset();
+            return bytes >= 0 ? bytes : location.getCharOffset();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.carlosedolv.emergy_api.services.imports;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchItemResultDTO;
+import com.carlosedolv.emergy_api.dtos.response.ImportRejectionDTO;
+import com.carlosedolv.emergy_api.dtos.response.ImportResponseDTO;
+import com.carlosedolv.emergy_api.entities.SimulationImport;
+import com.carlosedolv.emergy_api.repositories.SimulationImportRepository;
+import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+// Streams an upload into SimulationService.saveAll in chunks. Each chunk and the checkpoint advance commit in one
+// transaction, so after an interruption the same file can be posted again under the same import id and only the
+// rows after the last committed chunk are processed. Any I/O failure on the body counts as an interrupted upload,
+// and the final chunk only commits once the body is known to be complete: a client that drops mid-record must not
+// have the cut-off last row imported as if it were whole.
+@Service
+public class SimulationImportService {
+    public static final int MAX_REPORTED_REJECTIONS = 1000;
+    public static final int MAX_IMPORT_ID_LENGTH = 100;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final SimulationService simulationService;
+    private final SimulationImportRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultChunkSize;
+
+    public SimulationImportService(
+            SimulationService simulationService,
+            SimulationImportRepository repository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${emergy.import.chunk-size:1000}") int defaultChunkSize
+    ) {
+        this.simulationService = simulationService;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    public ImportResponseDTO importSimulations(
+            String importId, ImportFormat format, Long defaultUserId, Integer chunkSize, Long contentLength,
+            InputStream body
+    ) {
+        if (importId == null || importId.isBlank() || importId.length() > MAX_IMPORT_ID_LENGTH) {
+            throw new ResourceBadRequestException(
+                    "Import id is required and must have at most " + MAX_IMPORT_ID_LENGTH + " characters."
+            );
+        }
+        int size = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (size < 1 || size > SimulationService.MAX_BATCH_SIZE) {
+            throw new ResourceBadRequestException(
+                    "Chunk size must be between 1 and " + SimulationService.MAX_BATCH_SIZE + "."
+            );
+        }
+
+        SimulationImport checkpoint = findOrCreate(importId);
+        Progress progress = new Progress(importId, checkpoint.getCommittedRows());
+        Chunk chunk = new Chunk(size);
+        CountingInputStream counted = new CountingInputStream(body);
+        try {
+            ImportRowReader reader = format.open(decode(counted), defaultUserId, objectMapper);
+            for (ImportRow row = reader.next(); row != null; row = reader.next()) {
+                if (row.number() <= progress.committedRows) {
+                    progress.skipped++;
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.rows == size) {
+                    commit(chunk, progress, false);
+                    chunk = new Chunk(size);
+                }
+            }
+            // Readers may stop before the end (e.g. after a JSON array), so drain the rest before comparing.
+            counted.transferTo(OutputStream.nullOutputStream());
+        } catch (ZipException e) {
+            throw new ResourceBadRequestException("Invalid gzip body: " + e.getMessage());
+        } catch (IOException e) {
+            throw interrupted(progress);
+        }
+        if (contentLength != null && contentLength >= 0 && counted.count != contentLength) {
+            throw interrupted(progress);
+        }
+        commit(chunk, progress, true);
+        return progress.toResponse();
+    }
+
+    private static ResourceBadRequestException interrupted(Progress progress) {
+        return new ResourceBadRequestException("Body ended unexpectedly after " + progress.committedRows
+                + " committed rows. Post the same file again with the same import id to resume.");
+    }
+
+    private SimulationImport findOrCreate(String importId) {
+        return repository.findById(importId).orElseGet(() -> {
+            try {
+                return repository.saveAndFlush(SimulationImport.builder().id(importId).updatedAt(Instant.now()).build());
+            } catch (DataIntegrityViolationException e) {
+                return repository.findById(importId).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    private void commit(Chunk chunk, Progress progress, boolean last) {
+        List<ImportRejectionDTO> rejections = transactionTemplate.execute(status -> {
+            List<ImportRejectionDTO> rejected = new ArrayList<>(chunk.rejections);
+            if (!chunk.dtos.isEmpty()) {
+                for (BatchItemResultDTO item : simulationService.saveAll(chunk.dtos).items()) {
+                    if (!item.success()) {
+                        rejected.add(new ImportRejectionDTO(chunk.rowNumbers.get(item.index()), item.error()));
+                    }
+                }
+            }
+            long accepted = chunk.dtos.size() - (rejected.size() - chunk.rejections.size());
+            int advanced = repository.advance(progress.importId, progress.committedRows, chunk.rows,
+                    accepted, rejected.size(), last, Instant.now());
+            if (advanced == 0) {
+                throw new ResourceDataIntegrityException("Import " + progress.importId + " is being processed concurrently.");
+            }
+            return rejected;
+        });
+        rejections.sort(Comparator.comparingLong(ImportRejectionDTO::row));
+        progress.record(chunk.rows, rejections);
+    }
+
+    static InputStream decode(InputStream body) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(body, BUFFER_SIZE);
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        boolean gzip = first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8);
+        return gzip ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    private static final class Chunk {
+        private final List<SimulationRequestDTO> dtos;
+        private final List<Long> rowNumbers;
+        private final List<ImportRejectionDTO> rejections = new ArrayList<>();
+        private int rows;
+
+        private Chunk(int size) {
+            this.dtos = new ArrayList<>(size);
+            this.rowNumbers = new ArrayList<>(size);
+        }
+
+        private void add(ImportRow row) {
+            rows++;
+            if (row.error() != null) {
+                rejections.add(new ImportRejectionDTO(row.number(), row.error()));
+            } else {
+                dtos.add(row.dto());
+                rowNumbers.add(row.number());
+            }
+        }
+    }
+
+    private static final class Progress {
+        private final String importId;
+        private final List<ImportRejectionDTO> rejections = new ArrayList<>();
+        private long committedRows;
+        private long skipped;
+        private long accepted;
+        private long rejected;
+
+        private Progress(String importId, long committedRows) {
+            this.importId = importId;
+            this.committedRows = committedRows;
+        }
+
+        private void record(int rows, List<ImportRejectionDTO> chunkRejections) {
+            committedRows += rows;
+            accepted += rows - chunkRejections.size();
+            rejected += chunkRejections.size();
+            for (ImportRejectionDTO rejection : chunkRejections) {
+                if (rejections.size() == MAX_REPORTED_REJECTIONS) {
+                    break;
+                }
+                rejections.add(rejection);
+            }
+        }
+
+        private ImportResponseDTO toResponse() {
+            return new ImportResponseDTO(
+                    importId, skipped, accepted, rejected, committedRows, List.copyOf(rejections),
+                    rejected > rejections.size()
+            );
+        }
+    }
+}
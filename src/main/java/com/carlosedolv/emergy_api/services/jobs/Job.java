@@ -0,0 +1,110 @@
+package com.carlosedolv.emergy_api.services.jobs;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.function.DoubleConsumer;
+
+public class Job {
+    static final String UNEXPECTED_ERROR = "An unexpected error occurred while running the job.";
+
+    private static final Logger log = LoggerFactory.getLogger(Job.class);
+
+    // Work that reports how far it has got, as a fraction between 0 and 1.
+    @FunctionalInterface
+    public interface Task<T> {
+        T run(DoubleConsumer progress) throws Exception;
+    }
+
+    private final String id;
+    private final String kind;
+    private final Long userId;
+    private final Instant submittedAt;
+    private final Task<?> task;
+
+    private volatile JobState state = JobState.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile double progress;
+    private volatile Object result;
+    private volatile String error;
+
+    Job(String id, String kind, Long userId, Task<?> task) {
+        this.id = id;
+        this.kind = kind;
+        this.userId = userId;
+        this.task = task;
+        this.submittedAt = Instant.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public JobState getState() {
+        return state;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    // Throwable, not Exception: an Error (e.g. StackOverflowError from a deep task) must still finish the job, or it
+    // stays RUNNING forever and takes the worker thread down with it. Only a ResourceException's message is meant for
+    // the client; anything else is logged and reported generically.
+    void run() {
+        startedAt = Instant.now();
+        state = JobState.RUNNING;
+        try {
+            result = task.run(this::reportProgress);
+            progress = 1;
+            finishedAt = Instant.now();
+            state = JobState.SUCCEEDED;
+        } catch (ResourceException e) {
+            fail(e.getMessage());
+        } catch (Throwable e) {
+            log.error("Job {} ({}) failed", id, kind, e);
+            fail(UNEXPECTED_ERROR);
+        }
+    }
+
+    private void reportProgress(double fraction) {
+        progress = Math.clamp(fraction, 0, 1);
+    }
+
+    private void fail(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        state = JobState.FAILED;
+    }
+}
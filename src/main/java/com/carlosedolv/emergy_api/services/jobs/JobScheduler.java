@@ -0,0 +1,154 @@
+package com.carlosedolv.emergy_api.services.jobs;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceTooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Pending jobs are kept in one FIFO per user and workers serve users round-robin, so a user with a deep backlog
+// cannot starve the others. Finished jobs stay pollable until the result TTL elapses.
+public class JobScheduler {
+    private static final Long ANONYMOUS = 0L;
+
+    private final int queueCapacity;
+    private final int perUserCapacity;
+    private final Cache<String, Job> jobs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<Long, ArrayDeque<Job>> pendingByUser = new HashMap<>();
+    private final ArrayDeque<Long> readyUsers = new ArrayDeque<>();
+    private final List<Thread> workers;
+    private int pending;
+    private boolean shutdown;
+
+    public JobScheduler(int workerCount, int queueCapacity, int perUserCapacity, Duration resultTtl) {
+        this.queueCapacity = queueCapacity;
+        this.perUserCapacity = perUserCapacity;
+        this.jobs = Caffeine.newBuilder().expireAfter(new FinishedJobExpiry(resultTtl.toNanos())).build();
+        this.workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::work, "emergy-job-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    public Job submit(Long userId, String kind, Callable<?> task) {
+        return submit(userId, kind, progress -> task.call());
+    }
+
+    public Job submit(Long userId, String kind, Job.Task<?> task) {
+        Job job = new Job(UUID.randomUUID().toString(), kind, userId, task);
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new IllegalStateException("Job scheduler is shut down.");
+            }
+            Long key = userId != null ? userId : ANONYMOUS;
+            ArrayDeque<Job> queue = pendingByUser.get(key);
+            if (pending >= queueCapacity || (queue != null && queue.size() >= perUserCapacity)) {
+                throw new ResourceTooManyRequestsException("Job queue is full. Please retry later.");
+            }
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                pendingByUser.put(key, queue);
+                readyUsers.addLast(key);
+            }
+            queue.addLast(job);
+            pending++;
+            jobs.put(job.getId(), job);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return job;
+    }
+
+    public Optional<Job> find(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+            try {
+                job = next();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == null) {
+                return;
+            }
+            job.run();
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    private Job next() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (pending == 0 && !shutdown) {
+                notEmpty.await();
+            }
+            if (shutdown) {
+                return null;
+            }
+            Long userId = readyUsers.pollFirst();
+            ArrayDeque<Job> queue = pendingByUser.get(userId);
+            Job job = queue.pollFirst();
+            if (queue.isEmpty()) {
+                pendingByUser.remove(userId);
+            } else {
+                readyUsers.addLast(userId);
+            }
+            pending--;
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record FinishedJobExpiry(long ttlNanos) implements Expiry<String, Job> {
+        @Override
+        public long expireAfterCreate(String key, Job job, long currentTime) {
+            return job.getState().isFinished() ? ttlNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Job job, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, job, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Job job, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.carlosedolv.emergy_api.services.jobs;
+
+import com.carlosedolv.emergy_api.dtos.request.SweepRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.UncertaintyRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.JobResponseDTO;
+import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.SweepService;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SimulationJobService {
+    public static final String UNCERTAINTY = "uncertainty";
+    public static final String SWEEP = "sweep";
+
+    private final JobScheduler scheduler;
+    private final SimulationService simulationService;
+    private final SweepService sweepService;
+
+    public SimulationJobService(JobScheduler scheduler, SimulationService simulationService, SweepService sweepService) {
+        this.scheduler = scheduler;
+        this.simulationService = simulationService;
+        this.sweepService = sweepService;
+    }
+
+    public JobResponseDTO submitUncertainty(Long simulationId, UncertaintyRequestDTO dto) {
+        Long userId = simulationService.findById(simulationId).user().id();
+        Job job = scheduler.submit(userId, UNCERTAINTY, () -> simulationService.uncertainty(simulationId, dto));
+        return new JobResponseDTO(job);
+    }
+
+    public JobResponseDTO submitSweep(SweepRequestDTO dto) {
+        Job job = scheduler.submit(dto.userId(), SWEEP, progress -> sweepService.sweep(dto, progress));
+        return new JobResponseDTO(job);
+    }
+
+    public JobResponseDTO findById(String id) {
+        return scheduler.find(id).map(JobResponseDTO::new).orElseThrow(() -> new ResourceNotFoundException(id));
+    }
+}
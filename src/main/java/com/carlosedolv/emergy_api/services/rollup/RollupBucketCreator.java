@@ -0,0 +1,55 @@
+package com.carlosedolv.emergy_api.services.rollup;
+
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+// Creates an empty bucket on the caller's connection: a separate transaction would need a second pooled connection
+// while the caller holds one, and every writer creates a bucket at the same moment (a new DAY at midnight). The insert
+// skips a bucket that is already visible; one created concurrently still fails the unique key, and rolling back to a
+// savepoint keeps that failure from aborting the caller's transaction (PostgreSQL would otherwise refuse every later
+// statement). Plain JDBC, so Hibernate never sees the error and does not mark the caller rollback-only.
+@Component
+public class RollupBucketCreator {
+    private final JdbcTemplate jdbcTemplate;
+    private final String insert;
+
+    public RollupBucketCreator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        String nextId = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSelectSequenceNextValString("simulation_rollups_seq");
+        this.insert = "INSERT INTO simulation_rollups "
+                + "(id, dimension, bucket_key, simulation_count, total_liters, total_result) "
+                + "SELECT " + nextId + ", ?, ?, 0, 0, 0 FROM (VALUES (0)) AS one(x) WHERE NOT EXISTS "
+                + "(SELECT 1 FROM simulation_rollups WHERE dimension = ? AND bucket_key = ?)";
+    }
+
+    public void create(RollupDimension dimension, String key) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                statement.setString(1, dimension.name());
+                statement.setString(2, key);
+                statement.setString(3, dimension.name());
+                statement.setString(4, key);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                throw e;
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.carlosedolv.emergy_api.services.rollup;
+
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.services.archive.ArchivedSimulation;
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+public record RollupContribution(Long userId, FuelType type, Instant createdAt, double liters, double result) {
+    public static RollupContribution of(Simulation simulation) {
+        return new RollupContribution(
+                simulation.getUser() != null ? simulation.getUser().getId() : null,
+                simulation.getFuelType(),
+                simulation.getCreatedAt(),
+                simulation.getLiters() != null ? simulation.getLiters() : 0.0,
+                simulation.getResult() != null ? simulation.getResult() : 0.0
+        );
+    }
+
+    public static RollupContribution of(ArchivedSimulation archived, FuelType type) {
+        return new RollupContribution(archived.userId(), type, archived.createdAt(), archived.liters(), archived.result());
+    }
+
+    // TYPE buckets are keyed by id, which a fuel type reload never changes; the label is resolved when reading.
+    public String keyFor(RollupDimension dimension) {
+        return switch (dimension) {
+            case USER -> userId != null ? userId.toString() : null;
+            case TYPE -> type != null ? String.valueOf(type.getId()) : null;
+            case DAY -> createdAt != null ? LocalDate.ofInstant(createdAt, ZoneOffset.UTC).toString() : null;
+        };
+    }
+}
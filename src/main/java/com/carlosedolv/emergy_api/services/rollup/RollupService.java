@@ -0,0 +1,241 @@
+package com.carlosedolv.emergy_api.services.rollup;
+
+import com.carlosedolv.emergy_api.dtos.response.RollupResponseDTO;
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.entities.SimulationRollup;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.repositories.SimulationRollupRepository;
+import com.carlosedolv.emergy_api.services.archive.ArchivedSimulation;
+import com.carlosedolv.emergy_api.services.archive.ColdStore;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Totals are kept current by deltas applied in the writer's transaction; rebuild() recomputes them from scratch.
+// A rebuild replaces every row from a snapshot, so a delta committed between that snapshot and the replacement would
+// be lost: deltas hold the read side of rebuildLock and rebuild the write side, each until its transaction completes.
+// The lock is per JVM, so all rollup writes must go through this service and the app must run as a single instance
+// (as the local cold store already requires).
+@Service
+@Timed(value = "emergy.service", histogram = true)
+public class RollupService {
+    private static final Comparator<Bucket> BUCKET_ORDER =
+            Comparator.comparing(Bucket::dimension).thenComparing(Bucket::key);
+
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final SimulationRollupRepository repository;
+    private final SimulationRepository simulationRepository;
+    private final RollupBucketCreator bucketCreator;
+    private final ColdStore coldStore;
+    private final FuelTypeRegistry fuelTypes;
+
+    public RollupService(
+            SimulationRollupRepository repository, SimulationRepository simulationRepository,
+            RollupBucketCreator bucketCreator, ColdStore coldStore, FuelTypeRegistry fuelTypes
+    ) {
+        this.repository = repository;
+        this.simulationRepository = simulationRepository;
+        this.bucketCreator = bucketCreator;
+        this.coldStore = coldStore;
+        this.fuelTypes = fuelTypes;
+    }
+
+    // TYPE buckets are stored under the fuel type id, so they are labelled, range-filtered and sorted by the current
+    // label here; there are only as many as there are fuel types.
+    @Transactional(readOnly = true)
+    public List<RollupResponseDTO> findAll(RollupDimension dimension, String from, String to) {
+        if (dimension != RollupDimension.TYPE) {
+            return repository.findActive(dimension, from, to).stream().map(RollupResponseDTO::new).toList();
+        }
+        return repository.findActive(dimension, null, null).stream()
+                .filter(rollup -> isTypeId(rollup.getBucketKey()))
+                .map(rollup -> new RollupResponseDTO(labelOf(rollup), rollup))
+                .filter(rollup -> (from == null || rollup.key().compareTo(from) >= 0)
+                        && (to == null || rollup.key().compareTo(to) <= 0))
+                .sorted(Comparator.comparing(RollupResponseDTO::key))
+                .toList();
+    }
+
+    // A TYPE key may be the code or the label; either resolves to the id the bucket is stored under.
+    @Transactional(readOnly = true)
+    public RollupResponseDTO findByKey(RollupDimension dimension, String key) {
+        String bucketKey = key;
+        if (dimension == RollupDimension.TYPE) {
+            try {
+                bucketKey = String.valueOf(fuelTypes.resolve(key).getId());
+            } catch (ResourceBadRequestException e) {
+                throw new ResourceNotFoundException(dimension.getPath() + "/" + key);
+            }
+        }
+        return repository.findByDimensionAndBucketKey(dimension, bucketKey)
+                .filter(rollup -> rollup.getSimulationCount() > 0)
+                .map(rollup -> dimension == RollupDimension.TYPE
+                        ? new RollupResponseDTO(labelOf(rollup), rollup)
+                        : new RollupResponseDTO(rollup))
+                .orElseThrow(() -> new ResourceNotFoundException(dimension.getPath() + "/" + key));
+    }
+
+    // Buckets written before TYPE was keyed by id hold a label; they are skipped until a rebuild replaces them.
+    private static boolean isTypeId(String key) {
+        return !key.isEmpty() && key.chars().allMatch(Character::isDigit);
+    }
+
+    private String labelOf(SimulationRollup rollup) {
+        return fuelTypes.byId(Integer.parseInt(rollup.getBucketKey())).getLabel();
+    }
+
+    public void recordCreated(Collection<Simulation> simulations) {
+        Map<Bucket, Totals> deltas = new TreeMap<>(BUCKET_ORDER);
+        for (Simulation simulation : simulations) {
+            accumulate(deltas, RollupContribution.of(simulation), 1);
+        }
+        apply(deltas);
+    }
+
+    public void recordCreated(Simulation simulation) {
+        recordCreated(List.of(simulation));
+    }
+
+    public void recordUpdated(RollupContribution before, Simulation after) {
+        Map<Bucket, Totals> deltas = new TreeMap<>(BUCKET_ORDER);
+        accumulate(deltas, before, -1);
+        accumulate(deltas, RollupContribution.of(after), 1);
+        apply(deltas);
+    }
+
+    public void recordDeleted(Simulation simulation) {
+        Map<Bucket, Totals> deltas = new TreeMap<>(BUCKET_ORDER);
+        accumulate(deltas, RollupContribution.of(simulation), -1);
+        apply(deltas);
+    }
+
+    @Transactional
+    public int rebuild() {
+        Lock lock = rebuildLock.writeLock();
+        boolean held = holdUntilCompletion(lock);
+        try {
+            return replaceAll();
+        } finally {
+            if (!held) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int replaceAll() {
+        Map<Bucket, Totals> totals = new TreeMap<>(BUCKET_ORDER);
+        try (Stream<RollupContribution> contributions = simulationRepository.streamRollupContributions()) {
+            contributions.forEach(contribution -> accumulate(totals, contribution, 1));
+        }
+        // Archived simulations still count. A committed segment only holds rows whose hot copy was deleted in the
+        // same transaction, so nothing is counted twice.
+        coldStore.forEachBlock(block -> {
+            for (ArchivedSimulation archived : block) {
+                accumulate(totals, RollupContribution.of(archived, fuelTypes.byId(archived.fuelTypeId())), 1);
+            }
+        });
+        repository.deleteAllInBatch();
+        List<SimulationRollup> rollups = new ArrayList<>(totals.size());
+        totals.forEach((bucket, total) -> rollups.add(SimulationRollup.builder()
+                .dimension(bucket.dimension())
+                .bucketKey(bucket.key())
+                .simulationCount(total.count)
+                .totalLiters(total.liters)
+                .totalResult(total.result)
+                .build()));
+        repository.saveAll(rollups);
+        return rollups.size();
+    }
+
+    private void accumulate(Map<Bucket, Totals> deltas, RollupContribution contribution, int sign) {
+        for (RollupDimension dimension : RollupDimension.values()) {
+            String key = contribution.keyFor(dimension);
+            if (key != null) {
+                deltas.computeIfAbsent(new Bucket(dimension, key), bucket -> new Totals())
+                        .add(sign, contribution.liters(), contribution.result());
+            }
+        }
+    }
+
+    // Buckets are visited in a fixed order so concurrent writers lock rollup rows in the same sequence.
+    private void apply(Map<Bucket, Totals> deltas) {
+        Lock lock = rebuildLock.readLock();
+        boolean held = holdUntilCompletion(lock);
+        try {
+            applyAll(deltas);
+        } finally {
+            if (!held) {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Inside a transaction the lock is released once it completes, so the other side never sees it half-applied;
+    // returns false when there is no transaction and the caller has to unlock.
+    private static boolean holdUntilCompletion(Lock lock) {
+        lock.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+        return true;
+    }
+
+    private void applyAll(Map<Bucket, Totals> deltas) {
+        deltas.forEach((bucket, delta) -> {
+            if (delta.isZero()) {
+                return;
+            }
+            if (applyDelta(bucket, delta) == 0) {
+                try {
+                    bucketCreator.create(bucket.dimension(), bucket.key());
+                } catch (DataIntegrityViolationException e) {
+                    // Another transaction created the bucket first; the retry below updates it.
+                }
+                applyDelta(bucket, delta);
+            }
+        });
+    }
+
+    private int applyDelta(Bucket bucket, Totals delta) {
+        return repository.applyDelta(bucket.dimension(), bucket.key(), delta.count, delta.liters, delta.result);
+    }
+
+    private record Bucket(RollupDimension dimension, String key) {
+    }
+
+    private static final class Totals {
+        private long count;
+        private double liters;
+        private double result;
+
+        void add(int sign, double liters, double result) {
+            this.count += sign;
+            this.liters += sign * liters;
+            this.result += sign * result;
+        }
+
+        boolean isZero() {
+            return count == 0 && liters == 0.0 && result == 0.0;
+        }
+    }
+}
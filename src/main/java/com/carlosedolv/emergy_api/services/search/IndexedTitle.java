@@ -0,0 +1,4 @@
+package com.carlosedolv.emergy_api.services.search;
+
+public record IndexedTitle(Long id, String titleNormalized) {
+}
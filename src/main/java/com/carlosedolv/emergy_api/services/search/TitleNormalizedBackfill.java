@@ -0,0 +1,46 @@
+package com.carlosedolv.emergy_api.services.search;
+
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Fills title_normalized for rows written before the column existed, so prefix search and the trigram index see them.
+// Runs before TitleSearchIndex.load. The update only touches rows that are still null, so a concurrent write that
+// sets the column through the entity wins, and the version is left alone because the title itself is unchanged.
+@Component
+public class TitleNormalizedBackfill {
+    static final int BATCH_SIZE = 500;
+
+    private final SimulationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public TitleNormalizedBackfill(SimulationRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Integer filled;
+        do {
+            filled = transactionTemplate.execute(status -> backfillBatch());
+        } while (filled != null && filled == BATCH_SIZE);
+    }
+
+    private int backfillBatch() {
+        List<Simulation> batch = repository.findByTitleNormalizedIsNullOrderByIdAsc(Limit.of(BATCH_SIZE));
+        for (Simulation simulation : batch) {
+            repository.backfillTitleNormalized(simulation.getId(), Simulation.normalizeTitle(simulation.getTitle()));
+        }
+        return batch.size();
+    }
+}
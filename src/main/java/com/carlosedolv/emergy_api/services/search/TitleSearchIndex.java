@@ -0,0 +1,113 @@
+package com.carlosedolv.emergy_api.services.search;
+
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Keeps an in-process trigram index of simulation titles in step with committed writes. It only produces candidate
+// ids: results are always loaded from the database, so an id whose row is already gone simply drops out.
+@Component
+public class TitleSearchIndex {
+    private final TrigramIndex index = new TrigramIndex();
+    private final SimulationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private Set<Long> removedDuringLoad; // guarded by this
+
+    public TitleSearchIndex(SimulationRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Writes committed while this runs reach the index through put/remove; the load only fills in ids it has not seen,
+    // so it never overwrites a newer title with the one it streamed, and it skips ids removed since it started, so a
+    // row deleted after being streamed is not put back. Deliberately not read-only, so it reads from the primary: rows
+    // committed before this process started would never reach the index from a lagging replica.
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            removedDuringLoad = new HashSet<>();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<IndexedTitle> titles = repository.streamIndexedTitles()) {
+                    titles.filter(title -> title.titleNormalized() != null).forEach(this::loadTitle);
+                }
+            });
+        } finally {
+            synchronized (this) {
+                removedDuringLoad = null;
+            }
+        }
+    }
+
+    public List<TrigramIndex.Match> search(String normalizedTitle, int limit) {
+        return index.search(normalizedTitle, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public void put(Simulation simulation) {
+        putAll(List.of(simulation));
+    }
+
+    public void putAll(Collection<Simulation> simulations) {
+        long[] ids = new long[simulations.size()];
+        String[] titles = new String[simulations.size()];
+        int i = 0;
+        for (Simulation simulation : simulations) {
+            ids[i] = simulation.getId();
+            titles[i++] = Simulation.normalizeTitle(simulation.getTitle());
+        }
+        afterCommit(() -> {
+            for (int j = 0; j < ids.length; j++) {
+                index.put(ids[j], titles[j]);
+            }
+        });
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> removeNow(id));
+    }
+
+    private synchronized void loadTitle(IndexedTitle title) {
+        if (!removedDuringLoad.contains(title.id())) {
+            index.putIfAbsent(title.id(), title.titleNormalized());
+        }
+    }
+
+    private synchronized void removeNow(long id) {
+        if (removedDuringLoad != null) {
+            removedDuringLoad.add(id);
+        }
+        index.remove(id);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
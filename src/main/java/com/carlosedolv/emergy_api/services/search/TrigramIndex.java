@@ -0,0 +1,358 @@
+package com.carlosedolv.emergy_api.services.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index from character trigrams to documents. Documents get dense, append-only numbers so every posting list
+// stays sorted without re-sorting; replaced or removed documents are only marked dead and dropped in bulk once they
+// outnumber the live ones.
+public class TrigramIndex {
+    public static final double MIN_SIMILARITY = 0.3;
+
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    public record Match(long id, double score) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final LongIntMap docsById = new LongIntMap();
+    private final BitSet live = new BitSet();
+    private long[] docIds = new long[1024];
+    private int[] docTrigrams = new int[1024];
+    private int docCount;
+    private int liveCount;
+
+    public void put(long id, String text) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            addLocked(id, text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putIfAbsent(long id, String text) {
+        lock.writeLock().lock();
+        try {
+            if (docsById.get(id) < 0) {
+                addLocked(id, text);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ranks by the share of query trigrams a document contains, so a query that is a substring of a title scores 1.0;
+    // ties go to the shorter document, then the lower id.
+    //
+    // A document sharing at least t of the q query trigrams must appear in one of the q - t + 1 shortest posting lists,
+    // so a pass merges only those and probes the long ones. Passes start at t = q and lower t until one finds `limit`
+    // documents: since ranking is by shared trigrams first, those are exactly the top results, and a selective query
+    // never touches the huge lists of common trigrams.
+    public List<Match> search(String query, int limit) {
+        long[] grams = trigrams(query);
+        int q = grams.length;
+        if (q == 0 || limit <= 0) {
+            return List.of();
+        }
+        int minThreshold = Math.max(1, (int) Math.ceil(q * MIN_SIMILARITY));
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[q];
+            for (int i = 0; i < q; i++) {
+                lists[i] = postings.getOrDefault(grams[i], Postings.EMPTY);
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, RANK.reversed());
+            for (int threshold = q; ; threshold = Math.max(minThreshold, Math.min(threshold - 1, threshold * 3 / 4))) {
+                top.clear();
+                if (collect(lists, threshold, limit, top) >= limit || threshold == minThreshold) {
+                    break;
+                }
+            }
+
+            Candidate[] ranked = top.toArray(new Candidate[0]);
+            Arrays.sort(ranked, RANK);
+            List<Match> matches = new ArrayList<>(ranked.length);
+            for (Candidate candidate : ranked) {
+                matches.add(new Match(candidate.id, (double) candidate.shared / q));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns how many live documents share at least `threshold` trigrams, keeping the best `limit` of them in `top`.
+    private int collect(Postings[] lists, int threshold, int limit, PriorityQueue<Candidate> top) {
+        int q = lists.length;
+        int merged = q - threshold + 1;
+        int[] cursors = new int[q];
+        int found = 0;
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int i = 0; i < merged; i++) {
+                if (cursors[i] < lists[i].size && lists[i].docs[cursors[i]] < doc) {
+                    doc = lists[i].docs[cursors[i]];
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                return found;
+            }
+            int shared = 0;
+            for (int i = 0; i < merged; i++) {
+                if (cursors[i] < lists[i].size && lists[i].docs[cursors[i]] == doc) {
+                    shared++;
+                    cursors[i]++;
+                }
+            }
+            if (!live.get(doc)) {
+                continue;
+            }
+            for (int j = merged; j < q && shared + (q - j) >= threshold; j++) {
+                cursors[j] = lists[j].advance(cursors[j], doc);
+                if (cursors[j] < lists[j].size && lists[j].docs[cursors[j]] == doc) {
+                    shared++;
+                }
+            }
+            if (shared < threshold) {
+                continue;
+            }
+            found++;
+            Candidate candidate = new Candidate(docIds[doc], shared, docTrigrams[doc]);
+            if (top.size() < limit) {
+                top.add(candidate);
+            } else if (RANK.compare(candidate, top.peek()) < 0) {
+                top.poll();
+                top.add(candidate);
+            }
+        }
+    }
+
+    // Padded with one space on each side so word boundaries carry weight: " di" only matches words starting with "di".
+    static long[] trigrams(String text) {
+        if (text == null || text.isEmpty()) {
+            return new long[0];
+        }
+        String padded = " " + text + " ";
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (long gram : grams) {
+            if (distinct == 0 || grams[distinct - 1] != gram) {
+                grams[distinct++] = gram;
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private void addLocked(long id, String text) {
+        long[] grams = trigrams(text);
+        if (docCount == docIds.length) {
+            docIds = Arrays.copyOf(docIds, docCount * 2);
+            docTrigrams = Arrays.copyOf(docTrigrams, docCount * 2);
+        }
+        int doc = docCount++;
+        docIds[doc] = id;
+        docTrigrams[doc] = grams.length;
+        live.set(doc);
+        liveCount++;
+        docsById.put(id, doc);
+        for (long gram : grams) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+        }
+    }
+
+    private void removeLocked(long id) {
+        int doc = docsById.remove(id);
+        if (doc < 0) {
+            return;
+        }
+        live.clear(doc);
+        liveCount--;
+        int dead = docCount - liveCount;
+        if (dead > COMPACT_MIN_DEAD && dead > liveCount) {
+            compact();
+        }
+    }
+
+    // Renumbering keeps relative order, so posting lists stay sorted after being filtered in place.
+    private void compact() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            remap[doc] = next;
+            docIds[next] = docIds[doc];
+            docTrigrams[next] = docTrigrams[doc];
+            docsById.put(docIds[next], next);
+            next++;
+        }
+        postings.values().removeIf(list -> list.retain(live, remap) == 0);
+        live.clear();
+        live.set(0, next);
+        docCount = next;
+    }
+
+    private record Candidate(long id, int shared, int trigrams) {
+    }
+
+    private static final Comparator<Candidate> RANK = Comparator
+            .comparingInt((Candidate candidate) -> -candidate.shared)
+            .thenComparingInt(Candidate::trigrams)
+            .thenComparingLong(Candidate::id);
+
+    private static final class Postings {
+        static final Postings EMPTY = new Postings();
+
+        int[] docs = new int[2];
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+            }
+            docs[size++] = doc;
+        }
+
+        // First position at or after `from` whose doc is >= target. Candidates arrive in ascending order, so probes
+        // gallop forward from the previous position instead of searching the whole list again.
+        int advance(int from, int target) {
+            if (from >= size || docs[from] >= target) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            int high = from + 1;
+            while (high < size && docs[high] < target) {
+                low = high;
+                step <<= 1;
+                high = low + step;
+            }
+            int found = Arrays.binarySearch(docs, low + 1, Math.min(high + 1, size), target);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        int retain(BitSet live, int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (live.get(docs[i])) {
+                    docs[kept++] = remap[docs[i]];
+                }
+            }
+            size = kept;
+            if (docs.length > 2 * kept + 2) {
+                docs = Arrays.copyOf(docs, kept + 2);
+            }
+            return kept;
+        }
+    }
+
+    // Open addressing with linear probing and backward-shift deletion: at millions of documents a HashMap<Long, Integer>
+    // would cost several times the memory of the postings it points into.
+    private static final class LongIntMap {
+        private long[] keys = new long[16];
+        private int[] values = emptyValues(16);
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); values[i] >= 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            for (; values[i] >= 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int gap = slot(key, mask);
+            while (values[gap] >= 0 && keys[gap] != key) {
+                gap = (gap + 1) & mask;
+            }
+            int removed = values[gap];
+            if (removed < 0) {
+                return -1;
+            }
+            for (int j = (gap + 1) & mask; values[j] >= 0; j = (j + 1) & mask) {
+                int home = slot(keys[j], mask);
+                boolean movable = j > gap ? (home <= gap || home > j) : (home <= gap && home > j);
+                if (movable) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            values[gap] = -1;
+            size--;
+            return removed;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = emptyValues(oldKeys.length * 2);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] >= 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            int hash = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+
+        private static int[] emptyValues(int capacity) {
+            int[] values = new int[capacity];
+            Arrays.fill(values, -1);
+            return values;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.carlosedolv.emergy_api.services.security;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceTooManyRequestsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// BCrypt is deliberately CPU-bound, so hashing runs on its own small pool with a bounded queue: a signup burst
+// saturates these threads and is shed with 429s instead of competing with request threads for every core.
+public class PasswordHasher {
+    // BCrypt's input limit, in UTF-8 bytes; the encoder throws beyond it.
+    public static final int MAX_PASSWORD_BYTES = 72;
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PasswordHasher(int strength, int threads, int queueCapacity, Duration timeout) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutNanos = timeout.toNanos();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "emergy-password-" + sequence.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public String hash(CharSequence rawPassword) {
+        if (rawPassword.toString().getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            throw new ResourceBadRequestException("Password cannot be longer than " + MAX_PASSWORD_BYTES + " bytes.");
+        }
+        Future<String> future;
+        try {
+            future = executor.submit(() -> encoder.encode(rawPassword));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ResourceTooManyRequestsException("Password hashing is saturated. Please retry later.");
+        }
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new ResourceTooManyRequestsException("Password hashing is saturated. Please retry later.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return encoder.matches(rawPassword, encodedPassword);
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
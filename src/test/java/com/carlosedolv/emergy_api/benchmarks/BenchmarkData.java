@@ -0,0 +1,63 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.EmergyApiApplication;
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+    private static final FuelType[] TYPES = FuelTypes.CATALOG.all().toArray(FuelType[]::new);
+
+    private BenchmarkData() {
+    }
+
+    // Passed as command-line arguments so they take precedence over application-test.properties.
+    static ConfigurableApplicationContext startContext(String databaseName) {
+        return new SpringApplicationBuilder(EmergyApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.devtools.restart.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_ON_EXIT=FALSE"
+                );
+    }
+
+    static List<Simulation> simulations(int size) {
+        List<User> owners = new ArrayList<>();
+        for (long i = 1; i <= 100; i++) {
+            owners.add(User.builder()
+                    .id(i)
+                    .name("Usuário " + i)
+                    .email("usuario" + i + "@email.com")
+                    .password("1234")
+                    .birthday(LocalDate.of(1990, 1, 1).plusDays(i))
+                    .build());
+        }
+        List<Simulation> simulations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            simulations.add(Simulation.builder()
+                    .id((long) i + 1)
+                    .title("Simulação " + i)
+                    .liters(10.0 + i)
+                    .fuelType(TYPES[i % TYPES.length])
+                    .result(1.0e14 + i)
+                    .user(owners.get(i % owners.size()))
+                    .build());
+        }
+        return simulations;
+    }
+
+    static List<SimulationResponseDTO> simulationResponses(int size) {
+        return simulations(size).stream().map(SimulationResponseDTO::new).toList();
+    }
+}
@@ -0,0 +1,17 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// IDE entry point; from Maven use: mvn -Pbenchmark verify -Djmh.includes=<regex>
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String includes = args.length > 0 ? args[0] : ".*Benchmark.*";
+        new Runner(new OptionsBuilder()
+                .include(includes)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.repositories.ArchiveSegmentRepository;
+import com.carlosedolv.emergy_api.services.archive.ArchivedSimulation;
+import com.carlosedolv.emergy_api.services.archive.ColdStore;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Lookups by id against archives written the way SimulationArchiveService writes them: one segment per batch.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ColdStoreBenchmark {
+    private static final String[] WORDS = {"Etanol", "Gasolina", "Diesel", "Biodiesel", "Frota", "Safra", "Usina", "Teste"};
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"1000", "10000"})
+    private int batchSize;
+
+    private Path directory;
+    private ColdStore store;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cold-store-benchmark");
+        store = new ColdStore(directory, Mockito.mock(ArchiveSegmentRepository.class));
+        store.load();
+        SplittableRandom data = new SplittableRandom(42);
+        Instant start = Instant.parse("2020-01-01T00:00:00Z");
+        for (int from = 0; from < rows; from += batchSize) {
+            List<ArchivedSimulation> batch = new ArrayList<>(batchSize);
+            for (int i = from; i < Math.min(rows, from + batchSize); i++) {
+                String title = WORDS[data.nextInt(WORDS.length)] + " " + WORDS[data.nextInt(WORDS.length)] + " " + i;
+                batch.add(new ArchivedSimulation(i + 1L, title, 10.0 + data.nextInt(500), data.nextInt(4) + 1,
+                        data.nextDouble() * 1.0e14, start.plusSeconds(i * 30L), 0, 1 + data.nextInt(1000)));
+            }
+            append(batch);
+        }
+        random = new SplittableRandom(7);
+    }
+
+    // Without a transaction manager here, the commit that publishes each segment is completed by hand.
+    private void append(List<ArchivedSimulation> batch) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            store.append(batch);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public ArchivedSimulation findById() {
+        return store.findById(1 + random.nextInt(rows)).orElseThrow();
+    }
+
+    @Benchmark
+    public boolean findMissing() {
+        return store.findById(rows + 1 + random.nextInt(rows)).isPresent();
+    }
+}
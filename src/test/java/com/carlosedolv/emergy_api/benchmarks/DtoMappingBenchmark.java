@@ -0,0 +1,44 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.entities.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DtoMappingBenchmark {
+    @Param({"1000"})
+    private int size;
+
+    private List<Simulation> simulations;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        simulations = BenchmarkData.simulations(size);
+        users = new ArrayList<>(size);
+        for (Simulation simulation : simulations) {
+            users.add(simulation.getUser());
+        }
+    }
+
+    @Benchmark
+    public List<SimulationResponseDTO> simulationResponseDTO() {
+        return simulations.stream().map(SimulationResponseDTO::new).toList();
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> userResponseDTO() {
+        return users.stream().map(UserResponseDTO::new).toList();
+    }
+}
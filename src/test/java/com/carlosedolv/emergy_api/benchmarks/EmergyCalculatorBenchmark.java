@@ -0,0 +1,49 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.services.emergy.EmergyCalculator;
+import com.carlosedolv.emergy_api.services.emergy.FuelType;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmergyCalculatorBenchmark {
+    private final EmergyCalculator calculator = new EmergyCalculator();
+    private final FuelTypeRegistry registry = FuelTypes.registry();
+
+    @Param({"Etanol", "Biodiesel"})
+    private String type;
+
+    private FuelType fuelType;
+    private double liters;
+
+    @Setup
+    public void setUp() {
+        fuelType = registry.resolve(type);
+        liters = 42.5;
+    }
+
+    @Benchmark
+    public double calculateByFuelType() {
+        return calculator.calculate(fuelType, liters);
+    }
+
+    @Benchmark
+    public double calculateByLabel() {
+        return calculator.calculate(registry.resolve(type), liters);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmergyCalculatorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.controllers.UserController;
+import com.carlosedolv.emergy_api.controllers.exceptions.ResourceExceptionHandler;
+import com.carlosedolv.emergy_api.dtos.request.UserRequestDTO;
+import com.carlosedolv.emergy_api.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Compares a successful, cache-served GET with a GET for an id that does not exist, through the full MVC dispatch
+// (argument resolution, exception resolution, message conversion).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String existingPath;
+    private String missingPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkData.startContext("errors");
+        UserService userService = context.getBean(UserService.class);
+        Long id = userService.save(
+                new UserRequestDTO("Benchmark", "benchmark@email.com", "1234", LocalDate.of(1990, 1, 1))
+        ).id();
+        userService.findById(id);
+        mockMvc = MockMvcBuilders.standaloneSetup(context.getBean(UserController.class))
+                .setControllerAdvice(new ResourceExceptionHandler())
+                .build();
+        existingPath = "/users/" + id;
+        missingPath = "/users/" + (id + 1_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int cachedHit() throws Exception {
+        MvcResult result = mockMvc.perform(get(existingPath)).andReturn();
+        return result.getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int notFound() throws Exception {
+        MvcResult result = mockMvc.perform(get(missingPath)).andReturn();
+        return result.getResponse().getStatus();
+    }
+}
@@ -0,0 +1,53 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.controllers.exceptions.ResourceExceptionHandler;
+import com.carlosedolv.emergy_api.controllers.exceptions.StandardError;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExceptionHandlerBenchmark {
+    private final ResourceExceptionHandler handler = new ResourceExceptionHandler();
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+    private long id;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        request = new MockHttpServletRequest("GET", "/simulations/999");
+    }
+
+    // The previous error path: a stack-capturing exception and a StandardError serialized through Jackson.
+    @Benchmark
+    public byte[] baselineNotFound() throws Exception {
+        RuntimeException ex = new RuntimeException("Resource not found: " + ++id);
+        StandardError error = new StandardError(Instant.now(), 404, "Resource not found", ex.getMessage(),
+                request.getRequestURI());
+        return objectMapper.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public byte[] renderNotFound() {
+        return handler.handleResourceNotFound(new ResourceNotFoundException(++id), request).getBody();
+    }
+
+    @Benchmark
+    public byte[] renderDataIntegrity() {
+        return handler.handleResourceDataIntegrity(
+                new ResourceDataIntegrityException("Email already exists."), request
+        ).getBody();
+    }
+}
@@ -0,0 +1,37 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSerializationBenchmark {
+    @Param({"1000", "10000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<SimulationResponseDTO> simulations;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, SimulationResponseDTO.class));
+        simulations = BenchmarkData.simulationResponses(size);
+    }
+
+    @Benchmark
+    public byte[] serializeSimulationList() throws Exception {
+        return writer.writeValueAsBytes(simulations);
+    }
+}
@@ -0,0 +1,56 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import com.carlosedolv.emergy_api.services.emergy.MonteCarloEngine;
+import com.carlosedolv.emergy_api.services.emergy.MonteCarloResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonteCarloBenchmark {
+    private static final double[] PERCENTILES = {2.5, 5, 25, 50, 75, 95, 97.5};
+
+    @Param({"1000000"})
+    private int draws;
+
+    private MonteCarloEngine parallel;
+    private MonteCarloEngine sequential;
+    private ForkJoinPool singleThreadPool;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        singleThreadPool = new ForkJoinPool(1);
+        parallel = new MonteCarloEngine();
+        sequential = new MonteCarloEngine(singleThreadPool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        singleThreadPool.shutdown();
+    }
+
+    @Benchmark
+    public MonteCarloResult parallelForkJoin() {
+        return parallel.run(FuelTypes.ETANOL, 42.5, draws, seed++, PERCENTILES);
+    }
+
+    @Benchmark
+    public MonteCarloResult singleThreadBaseline() {
+        return sequential.run(FuelTypes.ETANOL, 42.5, draws, seed++, PERCENTILES);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MonteCarloBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.config.MessageFormatConfig;
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serialization CPU per list of simulations for each negotiable encoding. Wire sizes are printed once per trial, since
+// they do not vary between invocations; "-gzip" variants include the deflate cost Tomcat pays at its default level.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseFormatBenchmark {
+    @Param({"10000"})
+    private int size;
+
+    @Param({"json", "json-gzip", "cbor", "cbor-gzip", "smile", "smile-gzip"})
+    private String format;
+
+    private ObjectWriter writer;
+    private boolean gzip;
+    private List<SimulationResponseDTO> simulations;
+
+    @Setup
+    public void setUp() throws IOException {
+        MessageFormatConfig config = new MessageFormatConfig();
+        ObjectMapper objectMapper = switch (format.replace("-gzip", "")) {
+            case "cbor" -> config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+            case "smile" -> config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, SimulationResponseDTO.class));
+        gzip = format.endsWith("-gzip");
+        simulations = BenchmarkData.simulationResponses(size);
+        System.out.printf("%n%s: %d bytes for %d simulations%n", format, serialize().length, size);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (!gzip) {
+            return writer.writeValueAsBytes(simulations);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8192)) {
+            writer.writeValue(compressed, simulations);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,70 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.UserRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimulationServiceBenchmark {
+    private static final int SEEDED_SIMULATIONS = 10_000;
+
+    @Param({"20", "200"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private SimulationService simulationService;
+    private SimulationRequestDTO request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext("benchmark");
+        simulationService = context.getBean(SimulationService.class);
+        UserService userService = context.getBean(UserService.class);
+        Long userId = userService.save(
+                new UserRequestDTO("Benchmark", "benchmark@email.com", "1234", LocalDate.of(1990, 1, 1))
+        ).id();
+
+        List<SimulationRequestDTO> batch = new ArrayList<>(SimulationService.MAX_BATCH_SIZE);
+        for (int i = 0; i < SEEDED_SIMULATIONS; i++) {
+            batch.add(new SimulationRequestDTO("Simulação " + i, 10.0 + i, "Etanol", null, userId));
+            if (batch.size() == SimulationService.MAX_BATCH_SIZE) {
+                simulationService.saveAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            simulationService.saveAll(batch);
+        }
+        request = new SimulationRequestDTO("Benchmark", 42.0, "Gasolina", null, userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageResponseDTO<SimulationResponseDTO> findAllFirstPage() {
+        return simulationService.findAll(null, pageSize, false);
+    }
+
+    @Benchmark
+    public SimulationResponseDTO save() {
+        return simulationService.save(request);
+    }
+}
@@ -0,0 +1,115 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.EmergyApiApplication;
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.UserRequestDTO;
+import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.UserService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs the same closed-loop GET load against the platform-thread and the virtual-thread model.
+// Extra arguments are passed to Spring, e.g. --spring.datasource.url=jdbc:postgresql://... for a networked database.
+public class ThreadModelLoadComparison {
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+    private static final int TOMCAT_MAX_THREADS = 50;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        for (boolean virtual : new boolean[]{false, true}) {
+            String[] properties = {
+                    "--server.port=0",
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    "--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN",
+                    "--spring.datasource.url=jdbc:h2:mem:load-" + virtual + ";DB_CLOSE_ON_EXIT=FALSE"
+            };
+            String[] effectiveArgs = concat(properties, args);
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EmergyApiApplication.class)
+                    .run(effectiveArgs)) {
+                seed(context);
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                report(virtual ? "virtual threads" : "platform threads (" + TOMCAT_MAX_THREADS + ")", run(port));
+            }
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        SimulationService simulationService = context.getBean(SimulationService.class);
+        Long userId = userService.save(new UserRequestDTO("Carga", "carga@email.com", "1234", LocalDate.of(1990, 1, 1))).id();
+        List<SimulationRequestDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(new SimulationRequestDTO("Simulação " + i, 10.0 + i, "Etanol", null, userId));
+        }
+        simulationService.saveAll(batch);
+    }
+
+    private static LoadResult run(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/simulations?size=50")).build();
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger rejected = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                int offset = c * REQUESTS_PER_CLIENT;
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long t0 = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[offset + r] = System.nanoTime() - t0;
+                        if (response.statusCode() != 200) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new LoadResult(latencies, elapsed, rejected.get());
+    }
+
+    private static void report(String mode, LoadResult result) {
+        long[] latencies = result.latencies();
+        System.out.printf(
+                "%-28s throughput=%8.0f req/s  p50=%6.2f ms  p99=%7.2f ms  max=%7.2f ms  non-200=%d%n",
+                mode,
+                latencies.length / (result.elapsedNanos() / 1e9),
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) (latencies.length * 0.99)] / 1e6,
+                latencies[latencies.length - 1] / 1e6,
+                result.rejected()
+        );
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private record LoadResult(long[] latencies, long elapsedNanos, int rejected) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.carlosedolv.emergy_api.benchmarks;
+
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.search.TitleSearchIndex;
+import com.carlosedolv.emergy_api.services.search.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TitleSearchBenchmark {
+    private static final String[] WORDS = {"Etanol", "Gasolina", "Diesel", "Biodiesel", "Frota", "Safra", "Usina", "Teste"};
+    private static final int CHUNK = 10_000;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private SimulationRepository repository;
+    private SimulationService simulationService;
+    private TitleSearchIndex titleIndex;
+    private JdbcTemplate jdbcTemplate;
+    private String exactTitle;
+    private String prefix;
+    private String typo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext("title-search");
+        repository = context.getBean(SimulationRepository.class);
+        simulationService = context.getBean(SimulationService.class);
+        titleIndex = context.getBean(TitleSearchIndex.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password, created_at) VALUES (1, 'Bench', 'bench@email.com', '1234', ?)",
+                Timestamp.from(Instant.now()));
+
+        SplittableRandom random = new SplittableRandom(42);
+        Timestamp now = Timestamp.from(Instant.now());
+        String sql = "INSERT INTO simulations (id, title, title_normalized, liters, fuel_type_id, result, created_at, user_id) "
+                + "VALUES (?, ?, ?, ?, 1, ?, ?, 1)";
+        for (int start = 0; start < rows; start += CHUNK) {
+            List<Object[]> batch = new ArrayList<>(CHUNK);
+            for (int i = start; i < Math.min(rows, start + CHUNK); i++) {
+                String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+                batch.add(new Object[]{(long) i + 1, title, Simulation.normalizeTitle(title), 10.0, 1.0e14, now});
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        exactTitle = jdbcTemplate.queryForObject("SELECT title FROM simulations WHERE id = ?", String.class, rows / 2);
+        prefix = Simulation.normalizeTitle(exactTitle.substring(0, exactTitle.lastIndexOf(' ')) + " " + (rows / 20));
+        // Drops the second letter, e.g. "diesel safra 500000" -> "desel safra 500000".
+        String normalized = Simulation.normalizeTitle(exactTitle);
+        typo = normalized.charAt(0) + normalized.substring(2);
+        titleIndex.load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Simulation> exactTitleIndexed() {
+        return repository.findByTitle(exactTitle);
+    }
+
+    @Benchmark
+    public List<SimulationResponseDTO> prefixNormalizedIndexed() {
+        return simulationService.searchByTitle(prefix, true, 20);
+    }
+
+    @Benchmark
+    public List<SimulationResponseDTO> caseInsensitiveExactIndexed() {
+        return simulationService.searchByTitle(exactTitle.toUpperCase(), false, 20);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> fuzzyTypoIndexOnly() {
+        return titleIndex.search(typo, 20);
+    }
+
+    // Two words out of eight: a quarter of all titles match, the worst case for candidate generation.
+    @Benchmark
+    public List<TrigramIndex.Match> fuzzyCommonWordsIndexOnly() {
+        return titleIndex.search("diesel frota", 20);
+    }
+
+    @Benchmark
+    public List<SimulationResponseDTO> fuzzyTypoWithLoad() {
+        return simulationService.fuzzySearchByTitle(typo, 20);
+    }
+
+    @Benchmark
+    public List<Long> containsFullScanBaseline() {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM simulations WHERE LOWER(title) LIKE ? LIMIT 20", Long.class, "%" + prefix + "%"
+        );
+    }
+}
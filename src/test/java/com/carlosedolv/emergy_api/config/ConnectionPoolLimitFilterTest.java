@@ -0,0 +1,97 @@
+package com.carlosedolv.emergy_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ConnectionPoolLimitFilterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    @DisplayName("Deve liberar a permissão após a requisição")
+    void testDoFilter_ReleasesPermit() throws Exception {
+        ConnectionPoolLimitFilter filter = new ConnectionPoolLimitFilter(1, Duration.ofMillis(10), objectMapper);
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/simulations"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+        verify(chain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 503 quando todas as permissões estão ocupadas")
+    void testDoFilter_RejectsWhenSaturated() throws Exception {
+        ConnectionPoolLimitFilter filter = new ConnectionPoolLimitFilter(1, Duration.ofMillis(10), objectMapper);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/simulations"), new MockHttpServletResponse(), (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/simulations"), response, chain);
+
+        release.countDown();
+        holder.join();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"status\":503");
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    @DisplayName("Deve manter a permissão até a conclusão de uma requisição assíncrona")
+    void testDoFilter_HoldsPermitUntilAsyncCompletes() throws Exception {
+        ConnectionPoolLimitFilter filter = new ConnectionPoolLimitFilter(1, Duration.ofMillis(10), objectMapper);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1/simulations/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(filter.availablePermits()).isZero();
+
+        request.getAsyncContext().complete();
+
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve atender /actuator sem consumir permissão mesmo quando saturado")
+    void testDoFilter_SkipsActuator() throws Exception {
+        ConnectionPoolLimitFilter filter = new ConnectionPoolLimitFilter(0, Duration.ofMillis(10), objectMapper);
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        verify(chain, times(1)).doFilter(any(), any());
+    }
+}
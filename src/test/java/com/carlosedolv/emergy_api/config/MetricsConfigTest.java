@@ -0,0 +1,38 @@
+package com.carlosedolv.emergy_api.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsConfigTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("GET /actuator/prometheus - Deve expor métricas de endpoints, serviços, Hibernate e Hikari")
+    void testPrometheusEndpoint() throws Exception {
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("emergy_service_seconds_bucket")))
+                .andExpect(content().string(containsString("method=\"findAll\"")))
+                .andExpect(content().string(containsString("hibernate_statements_per_request_count{method=\"GET\",uri=\"/users\"}")))
+                .andExpect(content().string(containsString("hibernate_query_executions")))
+                .andExpect(content().string(containsString("hikaricp_connections")))
+                .andExpect(content().string(containsString("cache_gets_total")));
+    }
+}
@@ -0,0 +1,17 @@
+package com.carlosedolv.emergy_api.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PasswordConfigTest {
+
+    @Test
+    @DisplayName("Deve usar metade dos núcleos para hashing de senha, com no mínimo uma thread")
+    void testDefaultPoolSize() {
+        assertThat(PasswordConfig.defaultPoolSize(1)).isEqualTo(1);
+        assertThat(PasswordConfig.defaultPoolSize(3)).isEqualTo(1);
+        assertThat(PasswordConfig.defaultPoolSize(8)).isEqualTo(4);
+    }
+}
@@ -0,0 +1,186 @@
+package com.carlosedolv.emergy_api.config;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.UserRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
+import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.repositories.UserRepository;
+import com.carlosedolv.emergy_api.services.ETags;
+import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.UserService;
+import com.carlosedolv.emergy_api.services.archive.SimulationArchiveService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "emergy.password.bcrypt-strength=4",
+        "emergy.datasource.replica.url=jdbc:h2:mem:emergyreplicadb;DB_CLOSE_DELAY=-1"
+})
+public class ReadReplicaConfigTest {
+    private static final String EMAIL = "replica@test.com";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private SimulationArchiveService archiveService;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private JdbcTemplate replica;
+
+    // The two in-memory databases do not replicate, so the replica only gets the schema and stays empty: any row a
+    // read returns proves it was routed to the primary.
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        if (replica.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'USERS'",
+                Integer.class) == 0) {
+            List<String> schema = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+            schema.stream().filter(statement -> !statement.startsWith("CREATE USER")).forEach(replica::execute);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+            ((EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory))
+                    .getEntityManager().close();
+        }
+        new JdbcTemplate(primaryDataSource).update("DELETE FROM users WHERE email = ?", EMAIL);
+        replica.update("DELETE FROM users");
+    }
+
+    @Test
+    @DisplayName("Deve gravar no primário e enviar as leituras da requisição seguinte para a réplica")
+    void testReadsGoToReplica() {
+        UserResponseDTO saved = userService.save(new UserRequestDTO("Carlos", EMAIL, "1234", LocalDate.of(1995, 5, 15)));
+
+        nextRequest();
+        assertThat(new JdbcTemplate(primaryDataSource).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, saved.id())).isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM users", Integer.class)).isZero();
+        assertThat(userService.findAll(null, 100, false).content()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário no restante da requisição depois de uma escrita, mesmo com open-in-view")
+    void testReadYourWritesWithinRequest() {
+        nextRequest();
+        TransactionSynchronizationManager.bindResource(
+                entityManagerFactory, new EntityManagerHolder(entityManagerFactory.createEntityManager())
+        );
+
+        assertThat(userService.findAll(null, 100, false).content()).isEmpty();
+        UserResponseDTO saved = userService.save(new UserRequestDTO("Carlos", EMAIL, "1234", LocalDate.of(1995, 5, 15)));
+
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM users", Integer.class)).isZero();
+        assertThat(userService.findAll(null, 100, false).content())
+                .extracting(UserResponseDTO::id).contains(saved.id());
+    }
+
+    @Test
+    @DisplayName("Deve manter as leituras fora de requisições (ex.: jobs) na réplica mesmo após uma escrita")
+    void testReadsOutsideRequestStayOnReplica() {
+        RequestContextHolder.resetRequestAttributes();
+        userService.save(new UserRequestDTO("Carlos", EMAIL, "1234", LocalDate.of(1995, 5, 15)));
+
+        assertThat(userService.findAll(null, 100, false).content()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve preencher o cache a partir do primário mesmo com a réplica atrasada")
+    void testCacheFillsComeFromPrimary() {
+        UserResponseDTO saved = userService.save(new UserRequestDTO("Carlos", EMAIL, "1234", LocalDate.of(1995, 5, 15)));
+        copyToReplica(saved.id());
+        userService.update(saved.id(), new UserRequestDTO("Carlos Eduardo", EMAIL, "1234", LocalDate.of(1995, 5, 15)), null);
+        // Saved past the service so the cache knows nothing about it and the first lookups have to query.
+        User other = userRepository.save(User.builder()
+                .name("Outro").email("outro." + EMAIL).password("1234").birthday(LocalDate.of(1995, 5, 15)).build());
+
+        nextRequest();
+        UserResponseDTO found = userService.findById(saved.id());
+
+        assertThat(replica.queryForObject("SELECT name FROM users WHERE id = ?", String.class, saved.id()))
+                .isEqualTo("Carlos");
+        assertThat(found.name()).isEqualTo("Carlos Eduardo");
+        assertThat(found.version()).isEqualTo(saved.version() + 1);
+        assertThat(userService.findById(saved.id())).isEqualTo(found);
+        assertThat(userService.findByEmail(EMAIL)).isEqualTo(found);
+        assertThat(userService.currentETag(other.getId())).isEqualTo(ETags.user(other.getVersion()));
+        assertThat(userService.findById(other.getId())).isEqualTo(new UserResponseDTO(other));
+        assertThat(userService.findAll(null, 100, false).content()).extracting(UserResponseDTO::name)
+                .containsExactly("Carlos");
+
+        userRepository.deleteById(other.getId());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar no cache o dono lido da réplica ao servir uma simulação arquivada")
+    void testArchivedOwnerNotCachedFromReplica() {
+        UserResponseDTO saved = userService.save(new UserRequestDTO("Carlos", EMAIL, "1234", LocalDate.of(1995, 5, 15)));
+        SimulationResponseDTO simulation = simulationService.save(
+                new SimulationRequestDTO("Safra antiga", 10.0, "Diesel", null, saved.id())
+        );
+        new JdbcTemplate(primaryDataSource).update("UPDATE simulations SET created_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(800))), simulation.id());
+        assertThat(archiveService.archive().archived()).isEqualTo(1);
+        copyToReplica(saved.id());
+        userService.update(saved.id(), new UserRequestDTO("Carlos Eduardo", EMAIL, "1234", LocalDate.of(1995, 5, 15)), null);
+
+        nextRequest();
+        SimulationResponseDTO archived = simulationService.findById(simulation.id());
+        simulationService.currentETag(simulation.id());
+
+        assertThat(archived.id()).isEqualTo(simulation.id());
+        assertThat(userService.findById(saved.id()).name()).isEqualTo("Carlos Eduardo");
+    }
+
+    private void copyToReplica(Long id) {
+        Map<String, Object> row = new JdbcTemplate(primaryDataSource).queryForMap("SELECT * FROM users WHERE id = ?", id);
+        String columns = String.join(", ", row.keySet());
+        String placeholders = String.join(", ", Collections.nCopies(row.size(), "?"));
+        replica.update("INSERT INTO users (" + columns + ") VALUES (" + placeholders + ")", row.values().toArray());
+    }
+
+    private static void nextRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.carlosedolv.emergy_api.config;
+
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
+import com.carlosedolv.emergy_api.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ResponseCompressionTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        List<UserResponseDTO> users = LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> new UserResponseDTO(id, "Usuário " + id, "usuario" + id + "@email.com",
+                        LocalDate.of(1990, 1, 1), 0L))
+                .toList();
+        when(userService.findAll(null, null, false)).thenReturn(new PageResponseDTO<>(users, null, null));
+    }
+
+    @Test
+    @DisplayName("Deve compactar respostas JSON com gzip quando o cliente aceitar")
+    void testGzipJson() throws Exception {
+        HttpResponse<byte[]> response = get("application/json", "gzip");
+
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(response.body())).readAllBytes());
+        assertThat(json).contains("usuario100@email.com");
+        assertThat(response.body().length).isLessThan(json.length() / 3);
+    }
+
+    @Test
+    @DisplayName("Deve compactar também as respostas CBOR e não compactar sem Accept-Encoding")
+    void testGzipCborAndIdentity() throws Exception {
+        assertThat(get("application/cbor", "gzip").headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(get("application/json", "identity").headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    private HttpResponse<byte[]> get(String accept, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+                .header("Accept", accept)
+                .header("Accept-Encoding", acceptEncoding)
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+}
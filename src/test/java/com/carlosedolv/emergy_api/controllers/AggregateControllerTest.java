@@ -0,0 +1,75 @@
+package com.carlosedolv.emergy_api.controllers;
+
+import com.carlosedolv.emergy_api.dtos.response.RollupResponseDTO;
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import com.carlosedolv.emergy_api.services.rollup.RollupService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+public class AggregateControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RollupService rollupService;
+
+    @Test
+    @DisplayName("GET /aggregates/{dimension} - Deve retornar os agregados da dimensão")
+    void testFindAll() throws Exception {
+        when(rollupService.findAll(RollupDimension.DAY, "2025-03-01", null)).thenReturn(List.of(
+                new RollupResponseDTO("2025-03-01", 2, 15.0, 150.0),
+                new RollupResponseDTO("2025-03-02", 1, 5.0, 50.0)
+        ));
+
+        mockMvc.perform(get("/aggregates/days").param("from", "2025-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].key").value("2025-03-01"))
+                .andExpect(jsonPath("$[0].count").value(2))
+                .andExpect(jsonPath("$[0].totalLiters").value(15.0));
+    }
+
+    @Test
+    @DisplayName("GET /aggregates/{dimension} - Deve retornar 400 para dimensão desconhecida")
+    void testFindAll_UnknownDimension() throws Exception {
+        mockMvc.perform(get("/aggregates/months"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad request"));
+
+        verifyNoInteractions(rollupService);
+    }
+
+    @Test
+    @DisplayName("GET /aggregates/{dimension}/{key} - Deve retornar 404 quando agregado não existir")
+    void testFindByKey_NotFound() throws Exception {
+        when(rollupService.findByKey(RollupDimension.USER, "99")).thenThrow(new ResourceNotFoundException("users/99"));
+
+        mockMvc.perform(get("/aggregates/users/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /aggregates/rebuild - Deve recalcular os agregados")
+    void testRebuild() throws Exception {
+        mockMvc.perform(post("/aggregates/rebuild"))
+                .andExpect(status().isNoContent());
+
+        verify(rollupService, times(1)).rebuild();
+    }
+}
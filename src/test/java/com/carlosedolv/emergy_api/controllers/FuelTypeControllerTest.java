@@ -0,0 +1,67 @@
+package com.carlosedolv.emergy_api.controllers;
+
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeLoader;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+public class FuelTypeControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FuelTypeRegistry registry;
+
+    @MockitoBean
+    private FuelTypeLoader loader;
+
+    @Test
+    @DisplayName("GET /fuel-types - Deve retornar os tipos de combustível carregados")
+    void testFindAll() throws Exception {
+        when(registry.current()).thenReturn(FuelTypes.CATALOG);
+
+        mockMvc.perform(get("/fuel-types"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].code").value("ETANOL"))
+                .andExpect(jsonPath("$[0].label").value("Etanol"))
+                .andExpect(jsonPath("$[0].density").value(0.789));
+    }
+
+    @Test
+    @DisplayName("POST /fuel-types/reload - Deve recarregar o arquivo e retornar o novo catálogo")
+    void testReload() throws Exception {
+        when(loader.reload()).thenReturn(FuelTypes.CATALOG);
+
+        mockMvc.perform(post("/fuel-types/reload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[3].code").value("BIODIESEL"));
+
+        verify(loader, times(1)).reload();
+    }
+
+    @Test
+    @DisplayName("POST /fuel-types/reload - Deve retornar 400 quando o arquivo for inválido")
+    void testReload_InvalidFile() throws Exception {
+        when(loader.reload()).thenThrow(new ResourceBadRequestException("Line 2: density must be greater than zero."));
+
+        mockMvc.perform(post("/fuel-types/reload"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad request"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.carlosedolv.emergy_api.controllers;
+
+import com.carlosedolv.emergy_api.dtos.request.SweepRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.JobResponseDTO;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceTooManyRequestsException;
+import com.carlosedolv.emergy_api.services.jobs.JobState;
+import com.carlosedolv.emergy_api.services.jobs.SimulationJobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+public class JobControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private SimulationJobService jobService;
+
+    private final SweepRequestDTO sweepRequest = new SweepRequestDTO(10.0, 20.0, 2, List.of("Etanol"), false, 1L, null);
+
+    @Test
+    @DisplayName("POST /jobs/simulations/sweep - Deve retornar 202 com o endereço do job")
+    void testSubmitSweep() throws Exception {
+        JobResponseDTO job = new JobResponseDTO(
+                "abc", "sweep", 1L, JobState.QUEUED, 0, Instant.now(), null, null, null, null
+        );
+        when(jobService.submitSweep(sweepRequest)).thenReturn(job);
+
+        mockMvc.perform(post("/jobs/simulations/sweep")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sweepRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/jobs/abc"))
+                .andExpect(jsonPath("$.id").value("abc"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    @Test
+    @DisplayName("POST /jobs/simulations/sweep - Deve retornar 429 quando a fila estiver cheia")
+    void testSubmitSweep_QueueFull() throws Exception {
+        when(jobService.submitSweep(sweepRequest))
+                .thenThrow(new ResourceTooManyRequestsException("Job queue is full. Please retry later."));
+
+        mockMvc.perform(post("/jobs/simulations/sweep")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sweepRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("Too many requests"));
+    }
+
+    @Test
+    @DisplayName("GET /jobs/{id} - Deve retornar o resultado do job concluído")
+    void testFindById() throws Exception {
+        JobResponseDTO job = new JobResponseDTO(
+                "abc", "uncertainty", 1L, JobState.SUCCEEDED, 1, Instant.now(), Instant.now(), Instant.now(),
+                Map.of("mean", 10.5), null
+        );
+        when(jobService.findById("abc")).thenReturn(job);
+
+        mockMvc.perform(get("/jobs/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.progress").value(1.0))
+                .andExpect(jsonPath("$.result.mean").value(10.5));
+    }
+
+    @Test
+    @DisplayName("GET /jobs/{id} - Deve retornar 404 para job inexistente ou expirado")
+    void testFindById_NotFound() throws Exception {
+        when(jobService.findById("missing")).thenThrow(new ResourceNotFoundException("missing"));
+
+        mockMvc.perform(get("/jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,14 +1,34 @@
 package com.carlosedolv.emergy_api.controllers;
 
 import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.SweepRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.UncertaintyRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.ArchiveResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchItemResultDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.ImportRejectionDTO;
+import com.carlosedolv.emergy_api.dtos.response.ImportResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
 import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.SweepResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UncertaintyResponseDTO;
 import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
 import com.carlosedolv.emergy_api.entities.Simulation;
 import com.carlosedolv.emergy_api.entities.User;
 import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.SweepService;
 import com.carlosedolv.emergy_api.services.UserService;
+import com.carlosedolv.emergy_api.services.archive.SimulationArchiveService;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.imports.ImportFormat;
+import com.carlosedolv.emergy_api.services.imports.SimulationImportService;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourcePreconditionFailedException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,10 +39,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +53,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 @AutoConfigureMockMvc(addFilters = false)
 public class SimulationControllerTest {
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -39,6 +65,15 @@ public class SimulationControllerTest {
     @MockitoBean
     private SimulationService simulationService;
 
+    @MockitoBean
+    private SweepService sweepService;
+
+    @MockitoBean
+    private SimulationImportService importService;
+
+    @MockitoBean
+    private SimulationArchiveService archiveService;
+
     private Simulation simulation;
     private User owner;
     private SimulationRequestDTO simulationRequestDTO;
@@ -60,7 +95,7 @@ public class SimulationControllerTest {
                 .id(1L)
                 .title("Teste")
                 .liters(242.43)
-                .type("Etanol")
+                .fuelType(FuelTypes.ETANOL)
                 .result(120.02)
                 .user(owner)
                 .build();
@@ -68,7 +103,7 @@ public class SimulationControllerTest {
         simulationRequestDTO = new SimulationRequestDTO(
                 simulation.getTitle(),
                 simulation.getLiters(),
-                simulation.getType(),
+                simulation.getFuelType().getLabel(),
                 simulation.getResult(),
                 owner.getId()
         );
@@ -84,22 +119,79 @@ public class SimulationControllerTest {
                 .id(2L)
                 .title("Teste2")
                 .liters(24.43)
-                .type("Etanol")
+                .fuelType(FuelTypes.ETANOL)
                 .result(10.02)
                 .user(owner)
                 .build();
-        when(simulationService.findAll()).thenReturn(List.of(simulationResponseDTO, new SimulationResponseDTO(simulation2)));
+        PageResponseDTO<SimulationResponseDTO> page = new PageResponseDTO<>(
+                List.of(simulationResponseDTO, new SimulationResponseDTO(simulation2)), "bmV4dA", null
+        );
+        when(simulationService.findAll(null, 2, false)).thenReturn(page);
 
         // Act & Assert
-        mockMvc.perform(get("/simulations"))
+        mockMvc.perform(get("/simulations").param("size", "2"))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()").value(2))
-                .andExpect(jsonPath("$[0].title").value("Teste"))
-                .andExpect(jsonPath("$[1].title").value("Teste2"));
+                .andExpect(jsonPath("$.content.size()").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("Teste"))
+                .andExpect(jsonPath("$.content[1].title").value("Teste2"))
+                .andExpect(jsonPath("$.nextCursor").value("bmV4dA"));
 
         // Verify
-        verify(simulationService, times(1)).findAll();
+        verify(simulationService, times(1)).findAll(null, 2, false);
+    }
+
+    @Test
+    @DisplayName("GET /simulations - Deve retornar apenas os campos pedidos em fields")
+    void testFindAll_Fields() throws Exception {
+        // Arrange
+        when(simulationService.findAll(null, null, false, "id,title")).thenReturn(
+                new PageResponseDTO<>(List.of(Map.of("id", 1L, "title", "Teste")), null, null)
+        );
+
+        // Act & Assert
+        mockMvc.perform(get("/simulations").param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Teste"))
+                .andExpect(jsonPath("$.content[0].user").doesNotExist());
+
+        // Verify
+        verify(simulationService, never()).findAll(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("GET /simulations - Deve retornar CBOR quando solicitado no Accept")
+    void testFindAll_Cbor() throws Exception {
+        // Arrange
+        when(simulationService.findAll(null, null, false))
+                .thenReturn(new PageResponseDTO<>(List.of(simulationResponseDTO), null, null));
+
+        // Act
+        byte[] body = mockMvc.perform(get("/simulations").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        JsonNode page = new CBORMapper().readTree(body);
+        assertThat(page.at("/content/0/title").asText()).isEqualTo("Teste");
+        assertThat(page.at("/content/0/user/name").asText()).isEqualTo(owner.getName());
+        assertThat(page.at("/content/0/version").isMissingNode()).isTrue();
+    }
+
+    @Test
+    @DisplayName("GET /simulations - Deve retornar 400 quando o cursor é inválido")
+    void testFindAll_InvalidCursor() throws Exception {
+        // Arrange
+        when(simulationService.findAll("invalido", null, false))
+                .thenThrow(new ResourceBadRequestException("Invalid cursor."));
+
+        // Act & Assert
+        mockMvc.perform(get("/simulations").param("cursor", "invalido"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value("Bad request"));
     }
 
     @Test
@@ -145,7 +237,7 @@ public class SimulationControllerTest {
                 .id(2L)
                 .title(title)
                 .liters(24.43)
-                .type("Etanol")
+                .fuelType(FuelTypes.ETANOL)
                 .result(10.02)
                 .user(owner)
                 .build();
@@ -164,6 +256,38 @@ public class SimulationControllerTest {
         verify(simulationService, times(1)).findByTitle(title);
     }
 
+    @Test
+    @DisplayName("GET /simulations/search - Deve buscar simulações por prefixo do título")
+    void testSearchByTitle() throws Exception {
+        // Arrange
+        when(simulationService.searchByTitle("tes", true, null)).thenReturn(List.of(simulationResponseDTO));
+
+        // Act & Assert
+        mockMvc.perform(get("/simulations/search").param("title", "tes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Teste"));
+
+        // Verify
+        verify(simulationService, times(1)).searchByTitle("tes", true, null);
+    }
+
+    @Test
+    @DisplayName("GET /simulations/search/fuzzy - Deve buscar simulações por título aproximado")
+    void testFuzzySearchByTitle() throws Exception {
+        // Arrange
+        when(simulationService.fuzzySearchByTitle("tset", 5)).thenReturn(List.of(simulationResponseDTO));
+
+        // Act & Assert
+        mockMvc.perform(get("/simulations/search/fuzzy").param("title", "tset").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Teste"));
+
+        // Verify
+        verify(simulationService, times(1)).fuzzySearchByTitle("tset", 5);
+    }
+
     @Test
     @DisplayName("POST /simulations - Deve criar nova simulação")
     void testSave_Success() throws Exception {
@@ -199,6 +323,54 @@ public class SimulationControllerTest {
         verify(simulationService, times(1)).save(any(SimulationRequestDTO.class));
     }
 
+    @Test
+    @DisplayName("POST /simulations/batch - Deve retornar resultado por item do lote")
+    void testSaveBatch() throws Exception {
+        // Arrange
+        BatchResponseDTO response = new BatchResponseDTO(List.of(
+                BatchItemResultDTO.created(0, 1L),
+                BatchItemResultDTO.failed(1, "Resource not found: 999")
+        ));
+        when(simulationService.saveAll(anyList())).thenReturn(response);
+
+        // Act
+        mockMvc.perform(post("/simulations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(simulationRequestDTO, simulationRequestDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[1].success").value(false))
+                .andExpect(jsonPath("$.items[1].error").value("Resource not found: 999"));
+
+        // Verify
+        verify(simulationService, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("POST /simulations/batch - Deve aceitar e responder em Smile")
+    void testSaveBatch_Smile() throws Exception {
+        // Arrange
+        SmileMapper smileMapper = new SmileMapper();
+        when(simulationService.saveAll(List.of(simulationRequestDTO)))
+                .thenReturn(new BatchResponseDTO(List.of(BatchItemResultDTO.created(0, 1L))));
+
+        // Act
+        byte[] body = mockMvc.perform(post("/simulations/batch")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(List.of(simulationRequestDTO))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        JsonNode response = smileMapper.readTree(body);
+        assertThat(response.get("succeeded").asInt()).isEqualTo(1);
+        assertThat(response.at("/items/0/id").asLong()).isEqualTo(1L);
+    }
+
     @Test
     @DisplayName("DELETE /simulations/{id} - Deve deletar simulação")
     void testDelete_Success() throws Exception {
@@ -242,10 +414,11 @@ public class SimulationControllerTest {
                 updateRequest.liters(),
                 updateRequest.type(),
                 updateRequest.result(),
-                new UserResponseDTO(owner)
+                new UserResponseDTO(owner),
+                1L
         );
 
-        when(simulationService.update(eq(id), any(SimulationRequestDTO.class))).thenReturn(updateResponse);
+        when(simulationService.update(eq(id), any(SimulationRequestDTO.class), isNull())).thenReturn(updateResponse);
 
         mockMvc.perform(put("/simulations/" + id)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -253,7 +426,7 @@ public class SimulationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value(updateRequest.title()));
 
-        verify(simulationService, times(1)).update(eq(id), any(SimulationRequestDTO.class));
+        verify(simulationService, times(1)).update(eq(id), any(SimulationRequestDTO.class), isNull());
     }
 
     @Test
@@ -267,7 +440,7 @@ public class SimulationControllerTest {
                 120.02,
                 simulation.getUser().getId()
         );
-        when(simulationService.update(eq(invalidId), any(SimulationRequestDTO.class)))
+        when(simulationService.update(eq(invalidId), any(SimulationRequestDTO.class), isNull()))
                 .thenThrow(new ResourceNotFoundException(invalidId));
 
         mockMvc.perform(put("/simulations/" + invalidId)
@@ -277,6 +450,145 @@ public class SimulationControllerTest {
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.error").value("Resource not found"));
 
-        verify(simulationService, times(1)).update(eq(invalidId), any(SimulationRequestDTO.class));
+        verify(simulationService, times(1)).update(eq(invalidId), any(SimulationRequestDTO.class), isNull());
+    }
+
+    @Test
+    @DisplayName("POST /simulations/{id}/uncertainty - Deve retornar estatísticas da simulação de Monte Carlo")
+    void testUncertainty() throws Exception {
+        UncertaintyRequestDTO request = new UncertaintyRequestDTO(1000, 42L, List.of(50.0));
+        UncertaintyResponseDTO response = new UncertaintyResponseDTO(
+                1L, "Etanol", 1000, 42L, 120.02, 119.5, 40.1, Map.of("p50", 110.0)
+        );
+        when(simulationService.uncertainty(eq(1L), eq(request))).thenReturn(response);
+
+        mockMvc.perform(post("/simulations/1/uncertainty")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.draws").value(1000))
+                .andExpect(jsonPath("$.mean").value(119.5))
+                .andExpect(jsonPath("$.percentiles.p50").value(110.0));
+    }
+
+    @Test
+    @DisplayName("POST /simulations/{id}/uncertainty - Deve retornar 422 para número de sorteios inválido")
+    void testUncertainty_InvalidDraws() throws Exception {
+        UncertaintyRequestDTO request = new UncertaintyRequestDTO(10_000_000, null, List.of(150.0));
+
+        mockMvc.perform(post("/simulations/1/uncertainty")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(simulationService, never()).uncertainty(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("GET /simulations/{id} - Deve retornar 304 sem montar o DTO quando o ETag não mudou")
+    void testFindById_NotModified() throws Exception {
+        when(simulationService.currentETag(1L)).thenReturn("\"3.1\"");
+
+        mockMvc.perform(get("/simulations/1").header("If-None-Match", "\"3.1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3.1\""))
+                .andExpect(content().string(""));
+
+        verify(simulationService, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /simulations/{id} - Deve retornar o corpo com o novo ETag quando a versão mudou")
+    void testFindById_Modified() throws Exception {
+        SimulationResponseDTO versioned = new SimulationResponseDTO(
+                1L, "Teste", 24.43, "Etanol", 120.02, new UserResponseDTO(1L, "Carlos", "carlos@email.com", null, 1L), 4L
+        );
+        when(simulationService.currentETag(1L)).thenReturn("\"4.1\"");
+        when(simulationService.findById(1L)).thenReturn(versioned);
+
+        mockMvc.perform(get("/simulations/1").header("If-None-Match", "\"3.1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4.1\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("PUT /simulations/{id} - Deve retornar 412 quando o If-Match estiver desatualizado")
+    void testUpdate_PreconditionFailed() throws Exception {
+        when(simulationService.update(eq(1L), any(SimulationRequestDTO.class), eq("\"3.1\"")))
+                .thenThrow(new ResourcePreconditionFailedException(1L));
+
+        mockMvc.perform(put("/simulations/1")
+                        .header("If-Match", "\"3.1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(simulationRequestDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("Precondition failed"));
+    }
+
+    @Test
+    @DisplayName("POST /simulations/sweep - Deve retornar o resultado em colunas")
+    void testSweep() throws Exception {
+        SweepRequestDTO request = new SweepRequestDTO(10.0, 20.0, 2, List.of("Etanol"), false, null, null);
+        SweepResponseDTO response = new SweepResponseDTO(
+                List.of("Etanol"), new double[]{10.0, 20.0}, new double[][]{{1.5, 3.0}}, null
+        );
+        when(sweepService.sweep(request)).thenReturn(response);
+
+        mockMvc.perform(post("/simulations/sweep")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.types[0]").value("Etanol"))
+                .andExpect(jsonPath("$.liters[1]").value(20.0))
+                .andExpect(jsonPath("$.results[0][1]").value(3.0));
+    }
+
+    @Test
+    @DisplayName("POST /simulations/import - Deve repassar o corpo CSV e devolver o resumo da importação")
+    void testImport() throws Exception {
+        ImportResponseDTO response = new ImportResponseDTO(
+                "legado", 0, 1, 1, 2, List.of(new ImportRejectionDTO(2, "Invalid number for liters: 'x'.")), false
+        );
+        String csv = "title,liters,type\nFrota,10,Etanol\nFrota,x,Etanol\n";
+        when(importService.importSimulations(
+                eq("legado"), eq(ImportFormat.CSV), eq(1L), isNull(), eq((long) csv.length()), any()
+        )).thenReturn(response);
+
+        mockMvc.perform(post("/simulations/import")
+                        .param("importId", "legado")
+                        .param("userId", "1")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejections[0].row").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /simulations/archive - Deve arquivar as simulações antigas e devolver o resumo")
+    void testArchive() throws Exception {
+        when(archiveService.archive())
+                .thenReturn(new ArchiveResponseDTO(Instant.parse("2025-01-01T00:00:00Z"), 1200, 2));
+
+        mockMvc.perform(post("/simulations/archive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cutoff").value("2025-01-01T00:00:00Z"))
+                .andExpect(jsonPath("$.archived").value(1200))
+                .andExpect(jsonPath("$.segments").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /simulations/sweep - Deve retornar 422 quando não houver tipos")
+    void testSweep_InvalidRequest() throws Exception {
+        SweepRequestDTO request = new SweepRequestDTO(10.0, 20.0, 0, List.of(), false, null, null);
+
+        mockMvc.perform(post("/simulations/sweep")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors.length()").value(2));
+
+        verifyNoInteractions(sweepService);
     }
 }
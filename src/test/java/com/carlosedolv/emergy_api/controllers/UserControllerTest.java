@@ -1,12 +1,17 @@
 package com.carlosedolv.emergy_api.controllers;
 
 import com.carlosedolv.emergy_api.dtos.request.UserRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
 import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
 import com.carlosedolv.emergy_api.entities.User;
 import com.carlosedolv.emergy_api.services.UserService;
+import com.carlosedolv.emergy_api.services.export.ExportFormat;
+import com.carlosedolv.emergy_api.services.export.SimulationExportService;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,10 +21,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +46,9 @@ public class UserControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private SimulationExportService exportService;
+
     private User user;
     private UserRequestDTO userRequestDTO;
     private UserResponseDTO userResponseDTO;
@@ -65,18 +78,40 @@ public class UserControllerTest {
                 .birthday(LocalDate.of(2002, 5, 12))
                 .build();
 
-        when(userService.findAll()).thenReturn(List.of(userResponseDTO, new UserResponseDTO(user2)));
+        PageResponseDTO<UserResponseDTO> page = new PageResponseDTO<>(
+                List.of(userResponseDTO, new UserResponseDTO(user2)), null, 2L
+        );
+        when(userService.findAll(null, null, true)).thenReturn(page);
 
         // Act & Assert
-        mockMvc.perform(get("/users"))
+        mockMvc.perform(get("/users").param("withTotal", "true"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].name").value("Carlos"))
-                .andExpect(jsonPath("$[1].name").value("Maria"));
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Carlos"))
+                .andExpect(jsonPath("$.content[1].name").value("Maria"))
+                .andExpect(jsonPath("$.estimatedTotal").value(2));
 
         // Verify
-        verify(userService, times(1)).findAll();
+        verify(userService, times(1)).findAll(null, null, true);
+    }
+
+    @Test
+    @DisplayName("GET /users - Deve retornar Smile quando solicitado no Accept")
+    void testFindAll_Smile() throws Exception {
+        // Arrange
+        when(userService.findAll(null, null, false)).thenReturn(new PageResponseDTO<>(List.of(userResponseDTO), null, null));
+
+        // Act
+        byte[] body = mockMvc.perform(get("/users").accept(MediaType.parseMediaType("application/x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        JsonNode page = new SmileMapper().readTree(body);
+        assertThat(page.at("/content/0/name").asText()).isEqualTo("Carlos");
+        assertThat(page.at("/content/0/email").asText()).isEqualTo(userResponseDTO.email());
     }
 
     @Test
@@ -146,6 +181,35 @@ public class UserControllerTest {
         verify(userService, times(1)).save(any(UserRequestDTO.class));
     }
 
+    @Test
+    @DisplayName("POST /users - Deve retornar 422 para senha com mais de 72 bytes em UTF-8")
+    void testSave_PasswordTooManyBytes() throws Exception {
+        // 40 chars, 80 bytes: fits @Size but not BCrypt
+        UserRequestDTO request = new UserRequestDTO("Carlos", "carlos@test.com", "ç".repeat(40), user.getBirthday());
+
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0].fieldName").value("password"));
+
+        verify(userService, never()).save(any(UserRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("PUT /users/{id} - Deve retornar 422 para data de nascimento no futuro")
+    void testUpdate_BirthdayInFuture() throws Exception {
+        UserRequestDTO request = new UserRequestDTO("Carlos", "carlos@test.com", "1234", LocalDate.now().plusDays(1));
+
+        mockMvc.perform(put("/users/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0].fieldName").value("birthday"));
+
+        verify(userService, never()).update(anyLong(), any(UserRequestDTO.class), any());
+    }
+
     @Test
     @DisplayName("DELETE /users/{id} - Deve deletar usuário")
     void testDelete_Success() throws Exception {
@@ -193,10 +257,11 @@ public class UserControllerTest {
                 id,
                 updateRequest.name(),
                 updateRequest.email(),
-                updateRequest.birthday()
+                updateRequest.birthday(),
+                1L
         );
 
-        when(userService.update(eq(id), any(UserRequestDTO.class))).thenReturn(updateResponse);
+        when(userService.update(eq(id), any(UserRequestDTO.class), isNull())).thenReturn(updateResponse);
 
         // Act
         mockMvc.perform(put("/users/" + id)
@@ -205,7 +270,7 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("Maria"));
 
-        verify(userService, times(1)).update(eq(id), any(UserRequestDTO.class));
+        verify(userService, times(1)).update(eq(id), any(UserRequestDTO.class), isNull());
     }
 
     @Test
@@ -219,7 +284,7 @@ public class UserControllerTest {
                 LocalDate.of(2002, 8, 21)
         );
 
-        when(userService.update(eq(id), any(UserRequestDTO.class)))
+        when(userService.update(eq(id), any(UserRequestDTO.class), isNull()))
                 .thenThrow(new ResourceNotFoundException(id));
 
         mockMvc.perform(put("/users/" + id)
@@ -229,7 +294,7 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.error").value("Resource not found"));
 
-        verify(userService, times(1)).update(eq(id), any(UserRequestDTO.class));
+        verify(userService, times(1)).update(eq(id), any(UserRequestDTO.class), isNull());
     }
 
     @Test
@@ -243,7 +308,7 @@ public class UserControllerTest {
                 LocalDate.of(2002, 8, 21)
         );
 
-        when(userService.update(eq(id), any(UserRequestDTO.class)))
+        when(userService.update(eq(id), any(UserRequestDTO.class), isNull()))
                 .thenThrow(new ResourceDataIntegrityException("Email already exists."));
 
         mockMvc.perform(put("/users/" + id)
@@ -253,6 +318,50 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.status").value(409))
                 .andExpect(jsonPath("$.error").value("Resource data integrity violation"));
 
-        verify(userService, times(1)).update(eq(id), any(UserRequestDTO.class));
+        verify(userService, times(1)).update(eq(id), any(UserRequestDTO.class), isNull());
+    }
+
+    @Test
+    @DisplayName("GET /users/{id} - Deve retornar 304 quando o ETag não mudou")
+    void testFindById_NotModified() throws Exception {
+        when(userService.currentETag(1L)).thenReturn("\"2\"");
+
+        mockMvc.perform(get("/users/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/simulations/export - Deve transmitir simulações em CSV")
+    void testExportSimulations() throws Exception {
+        when(userService.findById(1L)).thenReturn(userResponseDTO);
+        when(exportService.export(eq(1L), eq(ExportFormat.CSV), any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("id,title\n1,Teste\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/users/1/simulations/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"user-1-simulations.csv\""))
+                .andExpect(content().string("id,title\n1,Teste\n"));
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/simulations/export - Deve retornar 404 antes de iniciar a transmissão")
+    void testExportSimulations_UserNotFound() throws Exception {
+        when(userService.findById(99L)).thenThrow(new ResourceNotFoundException(99L));
+
+        mockMvc.perform(get("/users/99/simulations/export"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Resource not found"));
+
+        verifyNoInteractions(exportService);
     }
 }
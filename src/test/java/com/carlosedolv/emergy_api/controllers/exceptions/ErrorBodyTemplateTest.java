@@ -0,0 +1,69 @@
+package com.carlosedolv.emergy_api.controllers.exceptions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ErrorBodyTemplateTest {
+    private static final Instant NOW = Instant.parse("2026-03-14T15:09:26.535Z");
+
+    @Test
+    @DisplayName("Deve gerar o mesmo JSON que o Jackson produz para StandardError")
+    void testRender_MatchesJackson() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ErrorBodyTemplate template = new ErrorBodyTemplate(
+                HttpStatus.NOT_FOUND, "Resource not found", new ErrorTimestamp(Clock.fixed(NOW, ZoneOffset.UTC))
+        );
+        String message = "Resource not found: \"ação\"\\\n";
+        String path = "/users/by-email/a\"b";
+
+        byte[] rendered = template.render(message, path);
+
+        StandardError expected = new StandardError(
+                Instant.parse("2026-03-14T15:09:26Z"), 404, "Resource not found", message, path
+        );
+        assertThat(new String(rendered, "UTF-8")).isEqualTo(objectMapper.writeValueAsString(expected));
+    }
+
+    @Test
+    @DisplayName("Deve formatar o timestamp no máximo uma vez por segundo")
+    void testTimestamp_CachedPerSecond() {
+        AtomicLong millis = new AtomicLong(NOW.toEpochMilli());
+        ErrorTimestamp timestamp = new ErrorTimestamp(new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis.get());
+            }
+        });
+
+        byte[] first = timestamp.bytes();
+        millis.addAndGet(400);
+        byte[] sameSecond = timestamp.bytes();
+        millis.addAndGet(600);
+        byte[] nextSecond = timestamp.bytes();
+
+        assertThat(sameSecond).isSameAs(first);
+        assertThat(new String(first)).isEqualTo("14-03-2026T15:09:26Z");
+        assertThat(new String(nextSecond)).isEqualTo("14-03-2026T15:09:27Z");
+    }
+}
@@ -0,0 +1,42 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.entities.SimulationImport;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(FuelTypeRegistry.class)
+@ActiveProfiles("test")
+public class SimulationImportRepositoryTest {
+    @Autowired
+    private SimulationImportRepository repository;
+
+    @Test
+    @DisplayName("Deve avançar o checkpoint apenas a partir da posição esperada")
+    void testAdvance() {
+        repository.saveAndFlush(SimulationImport.builder().id("legado-2019").build());
+
+        int first = repository.advance("legado-2019", 0, 500, 480, 20, false, Instant.now());
+        int stale = repository.advance("legado-2019", 0, 500, 500, 0, false, Instant.now());
+        int last = repository.advance("legado-2019", 500, 120, 120, 0, true, Instant.now());
+
+        assertThat(first).isEqualTo(1);
+        assertThat(stale).isZero();
+        assertThat(last).isEqualTo(1);
+        SimulationImport checkpoint = repository.findById("legado-2019").orElseThrow();
+        assertThat(checkpoint.getCommittedRows()).isEqualTo(620);
+        assertThat(checkpoint.getAcceptedRows()).isEqualTo(600);
+        assertThat(checkpoint.getRejectedRows()).isEqualTo(20);
+        assertThat(checkpoint.isCompleted()).isTrue();
+        assertThat(checkpoint.getVersion()).isEqualTo(2L);
+    }
+}
@@ -2,20 +2,30 @@ package com.carlosedolv.emergy_api.repositories;
 
 import com.carlosedolv.emergy_api.entities.Simulation;
 import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeLoader;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@Import({FuelTypeRegistry.class, FuelTypeLoader.class})
 @ActiveProfiles("test")
 public class SimulationRepositoryTest {
     @Autowired
@@ -24,6 +34,9 @@ public class SimulationRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Simulation simulation;
 
     private User owner;
@@ -41,7 +54,7 @@ public class SimulationRepositoryTest {
         simulation = Simulation.builder()
                 .title("Teste")
                 .liters(24.43)
-                .type("Etanol")
+                .fuelType(FuelTypes.ETANOL)
                 .result(120.02)
                 .user(owner)
                 .build();
@@ -67,7 +80,7 @@ public class SimulationRepositoryTest {
         Simulation simulation2 = Simulation.builder()
                 .title("Teste2")
                 .liters(1.43)
-                .type("Gasolina")
+                .fuelType(FuelTypes.GASOLINA)
                 .result(20.32)
                 .user(owner)
                 .build();
@@ -81,6 +94,38 @@ public class SimulationRepositoryTest {
         assertThat(simulations).extracting(Simulation::getTitle).contains("Teste", "Teste2");
     }
 
+    @Test
+    @DisplayName("Deve paginar simulações por cursor de id")
+    void testFindByIdGreaterThan() {
+        Simulation simulation2 = Simulation.builder()
+                .title("Teste2")
+                .liters(1.43)
+                .fuelType(FuelTypes.GASOLINA)
+                .result(20.32)
+                .user(owner)
+                .build();
+        Simulation simulation3 = Simulation.builder()
+                .title("Teste3")
+                .liters(2.43)
+                .fuelType(FuelTypes.GASOLINA)
+                .result(30.32)
+                .user(owner)
+                .build();
+
+        simulationRepository.save(simulation);
+        simulationRepository.save(simulation2);
+        simulationRepository.save(simulation3);
+
+        List<Simulation> firstPage = simulationRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        List<Simulation> secondPage = simulationRepository.findByIdGreaterThanOrderByIdAsc(
+                firstPage.get(1).getId(), Limit.of(2)
+        );
+
+        assertThat(firstPage).extracting(Simulation::getTitle).containsExactly("Teste", "Teste2");
+        assertThat(secondPage).extracting(Simulation::getTitle).containsExactly("Teste3");
+        assertThat(simulationRepository.estimateCount()).isEqualTo(3L);
+    }
+
     @Test
     @DisplayName("Deve buscar simulação por ID")
     void testFindById() {
@@ -97,7 +142,7 @@ public class SimulationRepositoryTest {
         Simulation simulation2 = Simulation.builder()
                 .title("Teste")
                 .liters(4.43)
-                .type("Gasolina")
+                .fuelType(FuelTypes.GASOLINA)
                 .result(20.34)
                 .user(owner)
                 .build();
@@ -114,6 +159,71 @@ public class SimulationRepositoryTest {
                 .containsOnly("Teste");
     }
 
+    @Test
+    @DisplayName("Deve buscar simulações por prefixo do título ignorando maiúsculas e acentos")
+    void testFindByTitleNormalizedStartingWith() {
+        Simulation simulation2 = Simulation.builder()
+                .title("SIMULAÇÃO Etanol")
+                .liters(4.43)
+                .fuelType(FuelTypes.ETANOL)
+                .result(20.34)
+                .user(owner)
+                .build();
+        Simulation simulation3 = Simulation.builder()
+                .title("Outra")
+                .liters(4.43)
+                .fuelType(FuelTypes.ETANOL)
+                .result(20.34)
+                .user(owner)
+                .build();
+
+        simulationRepository.save(simulation2);
+        simulationRepository.save(simulation3);
+
+        List<Simulation> byPrefix = simulationRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+                Simulation.normalizeTitle("SIMULAcao"), Limit.of(10)
+        );
+        List<Simulation> exact = simulationRepository.findByTitleNormalizedOrderByIdAsc(
+                Simulation.normalizeTitle("Simulação etanol"), Limit.of(10)
+        );
+
+        assertThat(byPrefix).extracting(Simulation::getTitle).containsExactly("SIMULAÇÃO Etanol");
+        assertThat(exact).extracting(Simulation::getTitle).containsExactly("SIMULAÇÃO Etanol");
+        assertThat(byPrefix.get(0).getTitleNormalized()).isEqualTo("simulacao etanol");
+    }
+
+    @Test
+    @DisplayName("Deve tratar curingas do LIKE no prefixo como caracteres literais")
+    void testFindByTitleNormalizedStartingWith_EscapesWildcards() {
+        Simulation percent = Simulation.builder()
+                .title("50% etanol")
+                .liters(4.43)
+                .fuelType(FuelTypes.ETANOL)
+                .result(20.34)
+                .user(owner)
+                .build();
+        Simulation other = Simulation.builder()
+                .title("500 etanol")
+                .liters(4.43)
+                .fuelType(FuelTypes.ETANOL)
+                .result(20.34)
+                .user(owner)
+                .build();
+
+        simulationRepository.save(percent);
+        simulationRepository.save(other);
+
+        List<Simulation> byPrefix = simulationRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+                "50%", Limit.of(10)
+        );
+        List<Simulation> underscore = simulationRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+                "5_0", Limit.of(10)
+        );
+
+        assertThat(byPrefix).extracting(Simulation::getTitle).containsExactly("50% etanol");
+        assertThat(underscore).isEmpty();
+    }
+
     @Test
     @DisplayName("Deve retornar lista vazia quando título não existir")
     void testFindByTitle_WhenTitleDoesNotExists() {
@@ -124,6 +234,62 @@ public class SimulationRepositoryTest {
         assertThat(simulations).isEmpty();
     }
 
+    @Test
+    @DisplayName("Deve carregar o usuário junto com a simulação nas consultas de leitura")
+    void testReadQueriesFetchUser() {
+        Simulation savedSimulation = simulationRepository.save(simulation);
+        entityManager.flush();
+        entityManager.clear();
+
+        Simulation lazy = simulationRepository.findById(savedSimulation.getId()).orElseThrow();
+        assertThat(Hibernate.isInitialized(lazy.getUser())).isFalse();
+        entityManager.clear();
+
+        Simulation fetched = simulationRepository.findWithUserById(savedSimulation.getId()).orElseThrow();
+        List<Simulation> byTitle = simulationRepository.findByTitle("Teste");
+
+        assertThat(Hibernate.isInitialized(fetched.getUser())).isTrue();
+        assertThat(byTitle).allMatch(s -> Hibernate.isInitialized(s.getUser()));
+    }
+
+    @Test
+    @DisplayName("Deve transmitir apenas as simulações do usuário em ordem de id")
+    void testStreamByUserId() {
+        User other = userRepository.save(User.builder()
+                .name("Maria")
+                .email("maria@email.com")
+                .password("5678")
+                .birthday(LocalDate.of(2002, 5, 12))
+                .build());
+        Simulation first = simulationRepository.save(simulation);
+        simulationRepository.save(Simulation.builder()
+                .title("Outro").liters(5.0).fuelType(FuelTypes.DIESEL).result(1.0).user(other).build());
+        Simulation second = simulationRepository.save(Simulation.builder()
+                .title("Segunda").liters(10.0).fuelType(FuelTypes.GASOLINA).result(2.0).user(owner).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<Simulation> stream = simulationRepository.streamByUserIdOrderByIdAsc(owner.getId())) {
+            assertThat(stream.map(Simulation::getId)).containsExactly(first.getId(), second.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve consultar apenas as versões da simulação e do usuário")
+    void testFindVersionsById() {
+        Simulation saved = simulationRepository.save(simulation);
+        entityManager.flush();
+        saved.setTitle("Alterado");
+        entityManager.flush();
+        entityManager.clear();
+
+        SimulationRepository.Versions versions = simulationRepository.findVersionsById(saved.getId()).orElseThrow();
+
+        assertThat(versions.getSimulationVersion()).isEqualTo(1L);
+        assertThat(versions.getUserVersion()).isEqualTo(0L);
+        assertThat(simulationRepository.findVersionsById(999L)).isEmpty();
+    }
+
     @Test
     @DisplayName("Deve deletar simulação com sucesso")
     void testDelete() {
@@ -133,4 +299,45 @@ public class SimulationRepositoryTest {
 
         assertThat(deletedSimulation).isEmpty();
     }
+
+    @Test
+    @DisplayName("Deve selecionar apenas os campos pedidos, usando a chave estrangeira para o ID do usuário")
+    void testFindFieldsByIdGreaterThan() {
+        simulationRepository.save(simulation);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<SparseRow> rows = simulationRepository.findFieldsByIdGreaterThan(
+                0L, SparseFields.parse("result,title,user.id", SparseFields.SIMULATION), 10
+        );
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.id()).isEqualTo(simulation.getId());
+            assertThat(row.fields()).containsExactly(
+                    Map.entry("title", "Teste"), Map.entry("result", 120.02), Map.entry("user", Map.of("id", owner.getId()))
+            );
+        });
+    }
+
+    @Test
+    @DisplayName("Deve juntar o usuário e formatar o tipo quando esses campos forem pedidos")
+    void testFindFieldsByIdGreaterThan_WithUser() {
+        simulationRepository.save(simulation);
+        entityManager.flush();
+
+        List<SparseRow> rows = simulationRepository.findFieldsByIdGreaterThan(
+                simulation.getId() - 1, SparseFields.parse("type,user", SparseFields.SIMULATION), 10
+        );
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.fields()).containsOnlyKeys("type", "user");
+            assertThat(row.fields().get("type")).isEqualTo("Etanol");
+            assertThat(row.fields().get("user")).isEqualTo(Map.of(
+                    "id", owner.getId(), "name", "Carlos", "email", "carlos@email.com", "birthday", owner.getBirthday()
+            ));
+        });
+        assertThat(simulationRepository.findFieldsByIdGreaterThan(
+                simulation.getId(), SparseFields.parse("id", SparseFields.SIMULATION), 10
+        )).isEmpty();
+    }
 }
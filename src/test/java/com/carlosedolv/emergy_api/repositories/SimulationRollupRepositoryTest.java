@@ -0,0 +1,102 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.entities.SimulationRollup;
+import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeLoader;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import com.carlosedolv.emergy_api.services.rollup.RollupContribution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({FuelTypeRegistry.class, FuelTypeLoader.class})
+@ActiveProfiles("test")
+public class SimulationRollupRepositoryTest {
+    @Autowired
+    private SimulationRollupRepository rollupRepository;
+
+    @Autowired
+    private SimulationRepository simulationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository.save(SimulationRollup.builder()
+                .dimension(RollupDimension.TYPE).bucketKey("Etanol")
+                .simulationCount(1).totalLiters(10.0).totalResult(100.0).build());
+        rollupRepository.save(SimulationRollup.builder()
+                .dimension(RollupDimension.TYPE).bucketKey("Diesel").build());
+        rollupRepository.save(SimulationRollup.builder()
+                .dimension(RollupDimension.DAY).bucketKey("2025-03-01")
+                .simulationCount(3).totalLiters(30.0).totalResult(300.0).build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o delta no agregado existente e informar as linhas afetadas")
+    void testApplyDelta() {
+        int updated = rollupRepository.applyDelta(RollupDimension.TYPE, "Etanol", 2, 5.5, 55.0);
+        int missing = rollupRepository.applyDelta(RollupDimension.TYPE, "Gasolina", 1, 1.0, 1.0);
+        entityManager.clear();
+
+        SimulationRollup rollup = rollupRepository.findByDimensionAndBucketKey(RollupDimension.TYPE, "Etanol").orElseThrow();
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(rollup.getSimulationCount()).isEqualTo(3);
+        assertThat(rollup.getTotalLiters()).isEqualTo(15.5);
+        assertThat(rollup.getTotalResult()).isEqualTo(155.0);
+    }
+
+    @Test
+    @DisplayName("Deve listar apenas agregados não vazios da dimensão dentro do intervalo")
+    void testFindActive() {
+        List<SimulationRollup> types = rollupRepository.findActive(RollupDimension.TYPE, null, null);
+        List<SimulationRollup> days = rollupRepository.findActive(RollupDimension.DAY, "2025-03-02", null);
+
+        assertThat(types).extracting(SimulationRollup::getBucketKey).containsExactly("Etanol");
+        assertThat(days).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve transmitir as contribuições das simulações sem carregar o usuário")
+    void testStreamRollupContributions() {
+        User owner = userRepository.save(User.builder()
+                .name("Carlos")
+                .email("carlos@email.com")
+                .password("1234")
+                .birthday(LocalDate.of(2004, 8, 21))
+                .build());
+        simulationRepository.save(Simulation.builder()
+                .title("Teste").liters(24.43).fuelType(FuelTypes.ETANOL).result(120.02).user(owner).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<RollupContribution> stream = simulationRepository.streamRollupContributions()) {
+            List<RollupContribution> contributions = stream.toList();
+            assertThat(contributions).hasSize(1);
+            assertThat(contributions.get(0).userId()).isEqualTo(owner.getId());
+            assertThat(contributions.get(0).liters()).isEqualTo(24.43);
+            assertThat(contributions.get(0).createdAt()).isNotNull();
+        }
+    }
+}
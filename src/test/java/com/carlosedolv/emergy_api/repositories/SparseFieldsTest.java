@@ -0,0 +1,35 @@
+package com.carlosedolv.emergy_api.repositories;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SparseFieldsTest {
+
+    @Test
+    @DisplayName("Deve expandir a associação e manter a ordem declarada sem repetições")
+    void testParse() {
+        SparseFields fields = SparseFields.parse("user, result,id,user.name", SparseFields.SIMULATION);
+
+        assertThat(fields.names())
+                .containsExactly("id", "result", "user.id", "user.name", "user.email", "user.birthday");
+        assertThat(fields.contains("title")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar campos desconhecidos ou vazios")
+    void testParse_Invalid() {
+        assertThatThrownBy(() -> SparseFields.parse("id,password", SparseFields.USER))
+                .isInstanceOf(ResourceBadRequestException.class)
+                .hasMessageContaining("Unknown field: password");
+        assertThatThrownBy(() -> SparseFields.parse("id,,title", SparseFields.SIMULATION))
+                .isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> SparseFields.parse("us", SparseFields.SIMULATION))
+                .isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> SparseFields.parse(" ", SparseFields.SIMULATION))
+                .isInstanceOf(ResourceBadRequestException.class);
+    }
+}
@@ -1,20 +1,24 @@
 package com.carlosedolv.emergy_api.repositories;
 
 import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@Import(FuelTypeRegistry.class)
 @ActiveProfiles("test")
 public class UserRepositoryTest {
     @Autowired
@@ -44,6 +48,16 @@ public class UserRepositoryTest {
         assertThat(savedUser.getCreatedAt()).isNotNull();
     }
 
+    @Test
+    @DisplayName("Deve aceitar nome com até 80 caracteres, o mesmo limite da requisição")
+    void testSave_LongName() {
+        user.setName("C".repeat(80));
+
+        User savedUser = userRepository.saveAndFlush(user);
+
+        assertThat(savedUser.getName()).hasSize(80);
+    }
+
     @Test
     @DisplayName("Deve listar todos os usuários")
     void testFindAll() {
@@ -100,4 +114,47 @@ public class UserRepositoryTest {
 
         assertThat(deletedUser).isEmpty();
     }
+
+    @Test
+    @DisplayName("Deve atualizar por ID incrementando a versão apenas quando a versão esperada conferir")
+    void testUpdateByIdAndVersionIn() {
+        User savedUser = userRepository.saveAndFlush(user);
+        Long version = savedUser.getVersion();
+
+        int stale = userRepository.updateByIdAndVersionIn(savedUser.getId(), List.of(version + 1),
+                "Maria", "maria@email.com", "hash", LocalDate.of(1992, 4, 12));
+        int updated = userRepository.updateByIdAndVersionIn(savedUser.getId(), List.of(version),
+                "Maria", "maria@email.com", "hash", LocalDate.of(1992, 4, 12));
+
+        assertThat(stale).isZero();
+        assertThat(updated).isEqualTo(1);
+        User reloaded = userRepository.findById(savedUser.getId()).orElseThrow();
+        assertThat(reloaded.getName()).isEqualTo("Maria");
+        assertThat(reloaded.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    @DisplayName("Deve informar quantas linhas foram removidas ao deletar por ID")
+    void testDeleteByIdReturningCount() {
+        User savedUser = userRepository.saveAndFlush(user);
+
+        assertThat(userRepository.deleteByIdReturningCount(savedUser.getId())).isEqualTo(1);
+        assertThat(userRepository.deleteByIdReturningCount(savedUser.getId())).isZero();
+        assertThat(userRepository.findById(savedUser.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve selecionar apenas os campos pedidos do usuário")
+    void testFindFieldsByIdGreaterThan() {
+        userRepository.save(user);
+
+        List<SparseRow> rows = userRepository.findFieldsByIdGreaterThan(
+                user.getId() - 1, SparseFields.parse(" email ,name", SparseFields.USER), 10
+        );
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.id()).isEqualTo(user.getId());
+            assertThat(row.fields()).containsExactly(Map.entry("name", "Carlos"), Map.entry("email", "carlos@email.com"));
+        });
+    }
 }
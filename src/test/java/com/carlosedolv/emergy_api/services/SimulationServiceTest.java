@@ -1,28 +1,56 @@
 package com.carlosedolv.emergy_api.services;
 
 import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.UncertaintyRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
 import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UncertaintyResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
 import com.carlosedolv.emergy_api.entities.Simulation;
 import com.carlosedolv.emergy_api.entities.User;
 import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.repositories.SparseFields;
+import com.carlosedolv.emergy_api.repositories.SparseRow;
 import com.carlosedolv.emergy_api.repositories.UserRepository;
+import com.carlosedolv.emergy_api.services.archive.ArchivedSimulation;
+import com.carlosedolv.emergy_api.services.archive.ColdStore;
+import com.carlosedolv.emergy_api.services.emergy.EmergyCalculator;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import com.carlosedolv.emergy_api.services.emergy.MonteCarloEngine;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourcePreconditionFailedException;
+import com.carlosedolv.emergy_api.services.rollup.RollupContribution;
+import com.carlosedolv.emergy_api.services.rollup.RollupService;
+import com.carlosedolv.emergy_api.services.search.TitleSearchIndex;
+import com.carlosedolv.emergy_api.services.search.TrigramIndex;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.withinPercentage;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +61,30 @@ public class SimulationServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private EmergyCalculator emergyCalculator = new EmergyCalculator();
+
+    @Spy
+    private FuelTypeRegistry fuelTypes = FuelTypes.registry();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private RollupService rollupService;
+
+    @Spy
+    private MonteCarloEngine monteCarloEngine = new MonteCarloEngine();
+
+    @Mock
+    private TitleSearchIndex titleIndex;
+
+    @Mock
+    private ColdStore coldStore;
+
     @InjectMocks
     private SimulationService simulationService;
 
@@ -54,7 +106,7 @@ public class SimulationServiceTest {
                 .id(1L)
                 .title("Teste")
                 .liters(24.43)
-                .type("Etanol")
+                .fuelType(FuelTypes.ETANOL)
                 .result(120.02)
                 .user(owner)
                 .build();
@@ -62,7 +114,7 @@ public class SimulationServiceTest {
         simulationRequestDTO = new SimulationRequestDTO(
                 simulation.getTitle(),
                 simulation.getLiters(),
-                simulation.getType(),
+                simulation.getFuelType().getLabel(),
                 simulation.getResult(),
                 owner.getId()
         );
@@ -74,29 +126,92 @@ public class SimulationServiceTest {
         Simulation simulation2 = Simulation.builder()
                 .title("Teste2")
                 .liters(2.43)
-                .type("Etanol")
+                .fuelType(FuelTypes.ETANOL)
                 .result(12120.02)
                 .user(owner)
                 .build();
 
         // Arrange
-        when(simulationRepository.findAll()).thenReturn(Arrays.asList(simulation, simulation2));
+        when(simulationRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21)))
+                .thenReturn(Arrays.asList(simulation, simulation2));
 
         // Act
-        List<SimulationResponseDTO> result = simulationService.findAll();
+        PageResponseDTO<SimulationResponseDTO> result = simulationService.findAll(null, null, false);
 
         // Assert & Verify
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).title()).isEqualTo("Teste");
-        assertThat(result.get(1).title()).isEqualTo("Teste2");
-        verify(simulationRepository, times(1)).findAll();
+        assertThat(result.content()).hasSize(2);
+        assertThat(result.content().get(0).title()).isEqualTo("Teste");
+        assertThat(result.content().get(1).title()).isEqualTo("Teste2");
+        assertThat(result.nextCursor()).isNull();
+        assertThat(result.estimatedTotal()).isNull();
+        verify(simulationRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21));
+        verify(simulationRepository, never()).estimateCount();
+    }
+
+    @Test
+    @DisplayName("Deve retornar apenas os campos pedidos, paginando pelo ID selecionado internamente")
+    void testFindAll_Fields() {
+        // Arrange
+        when(simulationRepository.findFieldsByIdGreaterThan(eq(0L), any(SparseFields.class), eq(2))).thenReturn(List.of(
+                new SparseRow(5L, Map.of("title", "Teste")),
+                new SparseRow(9L, Map.of("title", "Teste2"))
+        ));
+
+        // Act
+        PageResponseDTO<Map<String, Object>> result = simulationService.findAll(null, 1, false, "title");
+
+        // Assert & Verify
+        assertThat(result.content()).containsExactly(Map.of("title", "Teste"));
+        assertThat(result.nextCursor()).isEqualTo(KeysetCursor.encode(5L));
+        verify(simulationRepository).findFieldsByIdGreaterThan(
+                eq(0L), argThat(fields -> fields.names().equals(List.of("title"))), eq(2)
+        );
+        verify(simulationRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Deve retornar cursor da próxima página quando houver mais registros")
+    void testFindAll_WithNextPage() {
+        Simulation simulation2 = Simulation.builder()
+                .id(2L)
+                .title("Teste2")
+                .liters(2.43)
+                .fuelType(FuelTypes.ETANOL)
+                .result(12120.02)
+                .user(owner)
+                .build();
+
+        // Arrange
+        when(simulationRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(Arrays.asList(simulation, simulation2));
+        when(simulationRepository.estimateCount()).thenReturn(2L);
+
+        // Act
+        PageResponseDTO<SimulationResponseDTO> result = simulationService.findAll(null, 1, true);
+
+        // Assert
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.nextCursor()).isEqualTo(KeysetCursor.encode(1L));
+        assertThat(result.estimatedTotal()).isEqualTo(2L);
+        assertThat(KeysetCursor.decode(result.nextCursor())).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para cursor ou tamanho de página inválidos")
+    void testFindAll_InvalidArguments() {
+        assertThatThrownBy(() -> simulationService.findAll("nao-e-um-cursor", null, false))
+                .isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> simulationService.findAll(null, KeysetCursor.MAX_PAGE_SIZE + 1, false))
+                .isInstanceOf(ResourceBadRequestException.class);
+
+        verifyNoInteractions(simulationRepository);
     }
 
     @Test
     @DisplayName("Deve buscar simulação por ID")
     void testFindById_Success() {
         // Arrange
-        when(simulationRepository.findById(1L)).thenReturn(Optional.of(simulation));
+        when(simulationRepository.findWithUserById(1L)).thenReturn(Optional.of(simulation));
 
         // Act
         SimulationResponseDTO result = simulationService.findById(1L);
@@ -105,21 +220,60 @@ public class SimulationServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.id()).isEqualTo(1L);
         assertThat(result.title()).isEqualTo("Teste");
-        verify(simulationRepository, times(1)).findById(1L);
+        verify(simulationRepository, times(1)).findWithUserById(1L);
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando simulação não existe")
     void testFindById_NotFound() {
         // Arrange
-        when(simulationRepository.findById(999L)).thenReturn(Optional.empty());
+        when(simulationRepository.findWithUserById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> simulationService.findById(999L))
                 .isInstanceOf(ResourceNotFoundException.class);
 
         // Assert & Verify
-        verify(simulationRepository, times(1)).findById(999L);
+        verify(simulationRepository, times(1)).findWithUserById(999L);
+    }
+
+    @Test
+    @DisplayName("Deve buscar no armazenamento frio a simulação que já foi arquivada")
+    void testFindById_Archived() {
+        ArchivedSimulation archived = new ArchivedSimulation(
+                7L, "Safra 2019", 50.0, FuelTypes.DIESEL.getId(), 1234.5, Instant.parse("2019-05-01T12:00:00Z"), 3L, 1L
+        );
+        UserResponseDTO ownerDTO = new UserResponseDTO(owner);
+        when(simulationRepository.findWithUserById(7L)).thenReturn(Optional.empty());
+        when(simulationRepository.findVersionsById(7L)).thenReturn(Optional.empty());
+        when(coldStore.findById(7L)).thenReturn(Optional.of(archived));
+        when(userService.findById(1L)).thenReturn(ownerDTO);
+
+        SimulationResponseDTO result = simulationService.findById(7L);
+
+        assertThat(result).isEqualTo(new SimulationResponseDTO(7L, "Safra 2019", 50.0, "Diesel", 1234.5, ownerDTO, 3L));
+        assertThat(simulationService.currentETag(7L)).isEqualTo(ETags.simulation(3L, ownerDTO.version()));
+    }
+
+    @Test
+    @DisplayName("Deve recusar alterações em uma simulação arquivada")
+    void testDelete_Archived() {
+        ArchivedSimulation archived = new ArchivedSimulation(
+                7L, "Safra 2019", 50.0, FuelTypes.DIESEL.getId(), 1234.5, Instant.parse("2019-05-01T12:00:00Z"), 3L, 1L
+        );
+        SimulationRequestDTO dto = new SimulationRequestDTO("Safra 2019", 60.0, "Diesel", null, 1L);
+        when(simulationRepository.findById(7L)).thenReturn(Optional.empty());
+        when(simulationRepository.findWithUserById(7L)).thenReturn(Optional.empty());
+        when(coldStore.findById(7L)).thenReturn(Optional.of(archived));
+
+        assertThatThrownBy(() -> simulationService.delete(7L))
+                .isInstanceOf(ResourceDataIntegrityException.class)
+                .hasMessageContaining("archived");
+        assertThatThrownBy(() -> simulationService.update(7L, dto, null))
+                .isInstanceOf(ResourceDataIntegrityException.class)
+                .hasMessageContaining("archived");
+        verify(simulationRepository, never()).delete(any(Simulation.class));
+        verifyNoInteractions(rollupService, titleIndex);
     }
 
     @Test
@@ -129,7 +283,7 @@ public class SimulationServiceTest {
                 .id(2L)
                 .title("Teste")
                 .liters(24.43)
-                .type("Gasolina")
+                .fuelType(FuelTypes.GASOLINA)
                 .result(666.5)
                 .user(owner)
                 .build();
@@ -147,11 +301,63 @@ public class SimulationServiceTest {
         verify(simulationRepository, times(1)).findByTitle("Teste");
     }
 
+    @Test
+    @DisplayName("Deve buscar simulações por prefixo normalizado do título")
+    void testSearchByTitle_Prefix() {
+        // Arrange
+        when(simulationRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc("tes", Limit.of(20)))
+                .thenReturn(List.of(simulation));
+
+        // Act
+        List<SimulationResponseDTO> result = simulationService.searchByTitle("  TÉS ", true, null);
+
+        // Assert & Verify
+        assertThat(result).extracting(SimulationResponseDTO::title).containsExactly("Teste");
+        verify(simulationRepository, never()).findByTitleNormalizedOrderByIdAsc(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao buscar por título em branco")
+    void testSearchByTitle_Blank() {
+        assertThatThrownBy(() -> simulationService.searchByTitle("   ", true, null))
+                .isInstanceOf(ResourceBadRequestException.class);
+
+        verifyNoInteractions(simulationRepository);
+    }
+
+    @Test
+    @DisplayName("Deve carregar os resultados da busca aproximada em lote mantendo a ordem do índice")
+    void testFuzzySearchByTitle() {
+        // Arrange
+        Simulation other = Simulation.builder().id(7L).title("Testes").liters(1.0).fuelType(FuelTypes.ETANOL).result(1.0).user(owner).build();
+        when(titleIndex.search("tste", 20)).thenReturn(List.of(
+                new TrigramIndex.Match(7L, 0.8), new TrigramIndex.Match(99L, 0.6), new TrigramIndex.Match(1L, 0.4)
+        ));
+        when(simulationRepository.findWithUserByIdIn(List.of(7L, 99L, 1L))).thenReturn(List.of(simulation, other));
+
+        // Act
+        List<SimulationResponseDTO> result = simulationService.fuzzySearchByTitle(" TSTE ", null);
+
+        // Assert & Verify
+        assertThat(result).extracting(SimulationResponseDTO::id).containsExactly(7L, 1L);
+        verify(simulationRepository, times(1)).findWithUserByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve recusar busca aproximada com menos de três caracteres sem consultar o banco")
+    void testFuzzySearchByTitle_TooShort() {
+        assertThatThrownBy(() -> simulationService.fuzzySearchByTitle(" te ", null))
+                .isInstanceOf(ResourceBadRequestException.class);
+
+        verifyNoInteractions(titleIndex, simulationRepository);
+    }
+
     @Test
     @DisplayName("Deve salvar simulação com sucesso quando o usuário existe")
     void testSave_Success() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(userService.findById(1L)).thenReturn(new UserResponseDTO(owner));
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
         when(simulationRepository.save(any(Simulation.class))).thenReturn(simulation);
 
         // Act
@@ -161,8 +367,47 @@ public class SimulationServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.id()).isEqualTo(1L);
         assertThat(result.title()).isEqualTo(simulationRequestDTO.title());
-        verify(userRepository, times(1)).findById(1L);
+        assertThat(result.user().email()).isEqualTo(owner.getEmail());
+        verify(userService, times(1)).findById(1L);
+        verify(userRepository, never()).findById(anyLong());
         verify(simulationRepository, times(1)).save(any(Simulation.class));
+        verify(rollupService, times(1)).recordCreated(simulation);
+        verify(titleIndex, times(1)).put(simulation);
+    }
+
+    @Test
+    @DisplayName("Deve calcular o resultado da simulação no servidor ignorando o valor enviado")
+    void testSave_ComputesResult() {
+        // Arrange
+        ArgumentCaptor<Simulation> captor = ArgumentCaptor.forClass(Simulation.class);
+        when(userService.findById(1L)).thenReturn(new UserResponseDTO(owner));
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        when(simulationRepository.save(captor.capture())).thenReturn(simulation);
+
+        // Act
+        simulationService.save(simulationRequestDTO);
+
+        // Assert
+        double expected = simulationRequestDTO.liters() * FuelTypes.ETANOL.getDensity()
+                * FuelTypes.ETANOL.getLowerHeatingValue() * FuelTypes.ETANOL.getTransformity();
+        assertThat(captor.getValue().getResult()).isCloseTo(expected, withinPercentage(1e-9));
+        assertThat(captor.getValue().getResult()).isNotEqualTo(simulationRequestDTO.result());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao salvar simulação com tipo de combustível desconhecido")
+    void testSave_UnknownFuelType() {
+        // Arrange
+        SimulationRequestDTO dtoWithUnknownType = new SimulationRequestDTO("Título", 10.0, "Querosene", null, 1L);
+        when(userService.findById(1L)).thenReturn(new UserResponseDTO(owner));
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+
+        // Act & Assert
+        assertThatThrownBy(() -> simulationService.save(dtoWithUnknownType))
+                .isInstanceOf(ResourceBadRequestException.class);
+
+        // Verify
+        verify(simulationRepository, never()).save(any(Simulation.class));
     }
 
     @Test
@@ -185,17 +430,141 @@ public class SimulationServiceTest {
         // Arrange
         Long invalidId = 999L;
         SimulationRequestDTO dtoWithInvalidUser = new SimulationRequestDTO("Título", 10.0, "Tipo", 100.0, invalidId);
-        when(userRepository.findById(invalidId)).thenReturn(Optional.empty());
+        when(userService.findById(invalidId)).thenThrow(new ResourceNotFoundException(invalidId));
 
         // Act & Assert
         assertThatThrownBy(() -> simulationService.save(dtoWithInvalidUser))
                 .isInstanceOf(ResourceNotFoundException.class);
 
         // Verify
-        verify(userRepository, times(1)).findById(invalidId);
+        verify(userService, times(1)).findById(invalidId);
         verify(simulationRepository, never()).save(any(Simulation.class));
     }
 
+    @Test
+    @DisplayName("Deve salvar lote de simulações reportando falhas por item")
+    void testSaveAll_PartialFailure() {
+        // Arrange
+        List<SimulationRequestDTO> batch = Arrays.asList(
+                simulationRequestDTO,
+                new SimulationRequestDTO("Título", 10.0, "Diesel", null, 999L),
+                new SimulationRequestDTO("T", -1.0, "Diesel", null, 1L),
+                new SimulationRequestDTO("Título", 10.0, "Querosene", null, 1L),
+                null
+        );
+        when(userRepository.findAllById(anySet())).thenReturn(List.of(owner));
+        when(simulationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Simulation> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setId(10L));
+            return entities;
+        });
+
+        // Act
+        BatchResponseDTO result = simulationService.saveAll(batch);
+
+        // Assert
+        assertThat(result.succeeded()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(4);
+        assertThat(result.items()).hasSize(5);
+        assertThat(result.items().get(0).success()).isTrue();
+        assertThat(result.items().get(0).id()).isEqualTo(10L);
+        assertThat(result.items().get(1).error()).contains("999");
+        assertThat(result.items().get(2).error()).contains("liters").contains("title");
+        assertThat(result.items().get(3).error()).contains("Querosene");
+        assertThat(result.items().get(4).success()).isFalse();
+
+        // Verify
+        verify(userRepository, times(1)).findAllById(anySet());
+        verify(userRepository, never()).findById(anyLong());
+        verify(simulationRepository, times(1)).saveAll(argThat(list -> ((List<?>) list).size() == 1));
+        verify(rollupService, times(1)).recordCreated(argThat((List<Simulation> list) -> list.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar lote vazio ou maior que o limite")
+    void testSaveAll_InvalidSize() {
+        List<SimulationRequestDTO> tooLarge = Collections.nCopies(
+                SimulationService.MAX_BATCH_SIZE + 1, simulationRequestDTO
+        );
+
+        assertThatThrownBy(() -> simulationService.saveAll(List.of()))
+                .isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> simulationService.saveAll(tooLarge))
+                .isInstanceOf(ResourceBadRequestException.class);
+
+        verifyNoInteractions(simulationRepository);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a atualização quando o If-Match não corresponder à versão atual")
+    void testUpdate_IfMatchMismatch() {
+        Simulation versioned = versioned(4L, 2L);
+        when(simulationRepository.findWithUserById(1L)).thenReturn(Optional.of(versioned));
+        SimulationRequestDTO dtoUpdate = new SimulationRequestDTO("Teste2", 10.0, "Gasolina", null, 1L);
+
+        assertThatThrownBy(() -> simulationService.update(1L, dtoUpdate, "\"5.0\""))
+                .isInstanceOf(ResourcePreconditionFailedException.class);
+
+        assertThat(versioned.getTitle()).isEqualTo("Teste");
+        verify(simulationRepository, never()).flush();
+        verifyNoInteractions(rollupService);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar a atualização quando o If-Match corresponder à versão atual")
+    void testUpdate_IfMatch() {
+        when(simulationRepository.findWithUserById(1L)).thenReturn(Optional.of(versioned(4L, 2L)));
+        SimulationRequestDTO dtoUpdate = new SimulationRequestDTO("Teste2", 10.0, "Gasolina", null, 1L);
+
+        SimulationResponseDTO result = simulationService.update(1L, dtoUpdate, "\"3.2\", \"4.2\"");
+
+        assertThat(result.title()).isEqualTo("Teste2");
+        verify(simulationRepository, times(1)).flush();
+    }
+
+    @Test
+    @DisplayName("Deve estimar a incerteza da simulação com a semente e os percentis informados")
+    void testUncertainty() {
+        when(simulationRepository.findById(1L)).thenReturn(Optional.of(simulation));
+
+        UncertaintyResponseDTO result = simulationService.uncertainty(
+                1L, new UncertaintyRequestDTO(10_000, 42L, List.of(5.0, 50.0, 95.0))
+        );
+        UncertaintyResponseDTO again = simulationService.uncertainty(
+                1L, new UncertaintyRequestDTO(10_000, 42L, List.of(5.0, 50.0, 95.0))
+        );
+
+        assertThat(result.simulationId()).isEqualTo(1L);
+        assertThat(result.type()).isEqualTo("Etanol");
+        assertThat(result.draws()).isEqualTo(10_000);
+        assertThat(result.seed()).isEqualTo(42L);
+        assertThat(result.percentiles()).containsOnlyKeys("p5", "p50", "p95");
+        assertThat(result.percentiles().get("p5")).isLessThan(result.percentiles().get("p95"));
+        assertThat(again).isEqualTo(result);
+        verify(monteCarloEngine, times(2)).run(eq(FuelTypes.ETANOL), eq(24.43), eq(10_000), eq(42L), any());
+    }
+
+    @Test
+    @DisplayName("Deve usar os valores padrão quando a requisição de incerteza não tiver corpo")
+    void testUncertainty_Defaults() {
+        when(simulationRepository.findById(1L)).thenReturn(Optional.of(simulation));
+
+        UncertaintyResponseDTO result = simulationService.uncertainty(1L, null);
+
+        assertThat(result.draws()).isEqualTo(SimulationService.DEFAULT_UNCERTAINTY_DRAWS);
+        assertThat(result.percentiles()).containsOnlyKeys("p2.5", "p5", "p25", "p50", "p75", "p95", "p97.5");
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao estimar incerteza de simulação inexistente")
+    void testUncertainty_NotFound() {
+        when(simulationRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> simulationService.uncertainty(999L, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(monteCarloEngine);
+    }
+
     @Test
     @DisplayName("Deve deletar simulação com sucesso")
     void testDelete_Success() {
@@ -209,6 +578,8 @@ public class SimulationServiceTest {
         // Verify
         verify(simulationRepository, times(1)).findById(1L);
         verify(simulationRepository, times(1)).delete(simulation);
+        verify(rollupService, times(1)).recordDeleted(simulation);
+        verify(titleIndex, times(1)).remove(1L);
     }
 
     @Test
@@ -225,35 +596,53 @@ public class SimulationServiceTest {
         // Verify
         verify(simulationRepository, times(1)).findById(invalidId);
         verify(simulationRepository, never()).delete(any(Simulation.class));
+        verifyNoInteractions(rollupService);
     }
 
     @Test
     @DisplayName("Deve atualizar simulação com sucesso")
     void testUpdate_Success() {
         // Arrange
-        SimulationRequestDTO dtoUpdate = new SimulationRequestDTO("Teste2", 10.0, "Tipo", 100.0, 1L);
-        when(simulationRepository.findById(1L)).thenReturn(Optional.of(simulation));
+        SimulationRequestDTO dtoUpdate = new SimulationRequestDTO("Teste2", 10.0, "Gasolina", 100.0, 1L);
+        when(simulationRepository.findWithUserById(1L)).thenReturn(Optional.of(simulation));
 
         // Act
-        SimulationResponseDTO result = simulationService.update(1L, dtoUpdate);
+        SimulationResponseDTO result = simulationService.update(1L, dtoUpdate, null);
 
         // Assert & Verify
         assertThat(result).isNotNull();
         assertThat(result.id()).isEqualTo(1L);
         assertThat(result.title()).isEqualTo(dtoUpdate.title());
-        verify(simulationRepository, times(1)).findById(1L);
+        assertThat(result.result()).isEqualTo(emergyCalculator.calculate(FuelTypes.GASOLINA, 10.0));
+        verify(simulationRepository, times(1)).findWithUserById(1L);
+        verify(rollupService, times(1)).recordUpdated(
+                new RollupContribution(1L, FuelTypes.ETANOL, null, 24.43, 120.02), simulation
+        );
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao atualizar simulação inexistente")
     void testUpdate_NotFound() {
         Long invalidId = 999L;
-        when(simulationRepository.findById(invalidId)).thenReturn(Optional.empty());
+        when(simulationRepository.findWithUserById(invalidId)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> simulationService.update(invalidId, simulationRequestDTO))
+        assertThatThrownBy(() -> simulationService.update(invalidId, simulationRequestDTO, null))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(simulationRepository, times(1)).findById(invalidId);
+        verify(simulationRepository, times(1)).findWithUserById(invalidId);
         verify(simulationRepository, never()).save(any(Simulation.class));
     }
+
+    private Simulation versioned(Long simulationVersion, Long userVersion) {
+        User versionedOwner = User.builder().id(1L).name("Carlos").email("carlos@email.com").version(userVersion).build();
+        return Simulation.builder()
+                .id(1L)
+                .title("Teste")
+                .liters(24.43)
+                .fuelType(FuelTypes.ETANOL)
+                .result(120.02)
+                .user(versionedOwner)
+                .version(simulationVersion)
+                .build();
+    }
 }
@@ -0,0 +1,126 @@
+package com.carlosedolv.emergy_api.services;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.request.SweepRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchItemResultDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.SweepResponseDTO;
+import com.carlosedolv.emergy_api.services.emergy.EmergyCalculator;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SweepServiceTest {
+    @Spy
+    private EmergyCalculator emergyCalculator = new EmergyCalculator();
+
+    @Spy
+    private FuelTypeRegistry fuelTypes = FuelTypes.registry();
+
+    @Mock
+    private SimulationService simulationService;
+
+    @InjectMocks
+    private SweepService sweepService;
+
+    @Test
+    @DisplayName("Deve calcular a grade de litros por tipo de combustível sem persistir")
+    void testSweep() {
+        SweepRequestDTO dto = new SweepRequestDTO(10.0, 30.0, 3, List.of("etanol", "Diesel", "ETANOL"), false, null, null);
+
+        SweepResponseDTO result = sweepService.sweep(dto);
+
+        assertThat(result.types()).containsExactly("Etanol", "Diesel");
+        assertThat(result.liters()).containsExactly(10.0, 20.0, 30.0);
+        assertThat(result.results()[0][2]).isEqualTo(emergyCalculator.calculate(FuelTypes.ETANOL, 30.0));
+        assertThat(result.results()[1][0]).isEqualTo(emergyCalculator.calculate(FuelTypes.DIESEL, 10.0));
+        assertThat(result.persisted()).isNull();
+        verifyNoInteractions(simulationService);
+    }
+
+    @Test
+    @DisplayName("Deve informar o progresso após cada tipo de combustível")
+    void testSweep_Progress() {
+        SweepRequestDTO dto = new SweepRequestDTO(10.0, 30.0, 3, List.of("Etanol", "Diesel"), false, null, null);
+        List<Double> reported = new ArrayList<>();
+
+        sweepService.sweep(dto, reported::add);
+
+        assertThat(reported).containsExactly(0.5, 1.0);
+    }
+
+    @Test
+    @DisplayName("Deve calcular grades grandes em paralelo com o mesmo resultado")
+    void testSweep_Parallel() {
+        SweepRequestDTO dto = new SweepRequestDTO(1.0, 1000.0, 100_000, List.of("Gasolina", "Biodiesel"), false, null, null);
+
+        SweepResponseDTO result = sweepService.sweep(dto);
+
+        assertThat(result.results()[1]).hasSize(100_000);
+        assertThat(result.liters()[99_999]).isEqualTo(1000.0);
+        assertThat(result.results()[1][54_321])
+                .isEqualTo(emergyCalculator.calculate(FuelTypes.BIODIESEL, result.liters()[54_321]));
+    }
+
+    @Test
+    @DisplayName("Deve persistir a grade em lote quando solicitado")
+    @SuppressWarnings("unchecked")
+    void testSweep_Persist() {
+        SweepRequestDTO dto = new SweepRequestDTO(5.0, 5.0, 1, List.of("Etanol"), true, 1L, "Cenário");
+        BatchResponseDTO batch = new BatchResponseDTO(List.of(BatchItemResultDTO.created(0, 10L)));
+        when(simulationService.saveAll(anyList())).thenReturn(batch);
+
+        SweepResponseDTO result = sweepService.sweep(dto);
+
+        ArgumentCaptor<List<SimulationRequestDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(simulationService).saveAll(captor.capture());
+        assertThat(captor.getValue()).containsExactly(
+                new SimulationRequestDTO("Cenário Etanol 5.0", 5.0, "Etanol", null, 1L)
+        );
+        assertThat(result.persisted()).isEqualTo(batch);
+    }
+
+    @Test
+    @DisplayName("Deve encurtar o prefixo para que o título gerado caiba em 80 caracteres")
+    void testTitle_FitsLimit() {
+        String prefix = "P".repeat(40);
+
+        String title = SweepService.title(prefix, "Gás natural veicular comprimido", 0.1 + 0.2);
+        String longLabel = SweepService.title("Cenário", "L".repeat(100), 5.0);
+
+        assertThat(SweepService.title("Cenário", "Etanol", 5.0)).isEqualTo("Cenário Etanol 5.0");
+        assertThat(title).hasSize(80).isEqualTo("P".repeat(28) + " Gás natural veicular comprimido 0.30000000000000004");
+        assertThat(longLabel).hasSize(80).isEqualTo("L".repeat(80));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar grades inválidas ou grandes demais")
+    void testSweep_Invalid() {
+        assertThatThrownBy(() -> sweepService.sweep(
+                new SweepRequestDTO(30.0, 10.0, 3, List.of("Etanol"), false, null, null)))
+                .isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> sweepService.sweep(
+                new SweepRequestDTO(1.0, 10.0, SweepService.MAX_CELLS, List.of("Etanol", "Diesel"), false, null, null)))
+                .isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> sweepService.sweep(
+                new SweepRequestDTO(1.0, 10.0, 10, List.of("Etanol"), true, null, null)))
+                .isInstanceOf(ResourceBadRequestException.class);
+        verifyNoInteractions(simulationService);
+    }
+}
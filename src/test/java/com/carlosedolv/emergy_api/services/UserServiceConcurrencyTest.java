@@ -0,0 +1,71 @@
+package com.carlosedolv.emergy_api.services;
+
+import com.carlosedolv.emergy_api.dtos.request.UserRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
+import com.carlosedolv.emergy_api.repositories.UserRepository;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "emergy.password.bcrypt-strength=4")
+public class UserServiceConcurrencyTest {
+    private static final int CONTENDERS = 8;
+    private static final String EMAIL = "corrida@test.com";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByEmail(EMAIL).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar exatamente um cadastro quando vários competem pelo mesmo email")
+    void testSave_ConcurrentSameEmail() throws Exception {
+        UserRequestDTO dto = new UserRequestDTO("Carlos", EMAIL, "1234", LocalDate.of(1995, 5, 15));
+        CyclicBarrier start = new CyclicBarrier(CONTENDERS);
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+        try {
+            List<Future<UserResponseDTO>> results = new ArrayList<>();
+            for (int i = 0; i < CONTENDERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userService.save(dto);
+                }));
+            }
+
+            int created = 0;
+            int rejected = 0;
+            for (Future<UserResponseDTO> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    created++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(ResourceDataIntegrityException.class)
+                            .hasMessageContaining("Email already exists.");
+                    rejected++;
+                }
+            }
+
+            assertThat(created).isEqualTo(1);
+            assertThat(rejected).isEqualTo(CONTENDERS - 1);
+            assertThat(userRepository.findByEmail(EMAIL)).isPresent();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package com.carlosedolv.emergy_api.services;
 
 import com.carlosedolv.emergy_api.dtos.request.UserRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.PageResponseDTO;
 import com.carlosedolv.emergy_api.dtos.response.UserResponseDTO;
 import com.carlosedolv.emergy_api.entities.User;
 import com.carlosedolv.emergy_api.repositories.UserRepository;
+import com.carlosedolv.emergy_api.services.archive.ColdStore;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
 import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourcePreconditionFailedException;
+import com.carlosedolv.emergy_api.services.security.PasswordHasher;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +42,18 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserCache userCache = new UserCache(new ConcurrentMapCacheManager());
+
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(4, 1, 8, Duration.ofSeconds(5));
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ColdStore coldStore;
+
     @InjectMocks
     private UserService userService;
 
@@ -64,16 +90,26 @@ public class UserServiceTest {
                 .birthday(LocalDate.of(2001, 5, 15))
                 .build();
 
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user, user2));
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(Arrays.asList(user, user2));
 
         // Act
-        List<UserResponseDTO> result = userService.findAll();
+        PageResponseDTO<UserResponseDTO> result = userService.findAll(null, null, false);
 
         // Assert & Verify
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).name()).isEqualTo("Carlos");
-        assertThat(result.get(1).name()).isEqualTo("Maria");
-        verify(userRepository, times(1)).findAll();
+        assertThat(result.content()).hasSize(2);
+        assertThat(result.content().get(0).name()).isEqualTo("Carlos");
+        assertThat(result.content().get(1).name()).isEqualTo("Maria");
+        assertThat(result.nextCursor()).isNull();
+        verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para campo desconhecido sem consultar o banco")
+    void testFindAll_UnknownField() {
+        assertThatThrownBy(() -> userService.findAll(null, null, false, "id,password"))
+                .isInstanceOf(ResourceBadRequestException.class);
+
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -92,6 +128,94 @@ public class UserServiceTest {
         verify(userRepository, times(1)).findById(1L);
     }
 
+    @Test
+    @DisplayName("Deve servir buscas repetidas por ID e email a partir do cache")
+    void testFindById_Cached() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        UserResponseDTO first = userService.findById(1L);
+        UserResponseDTO second = userService.findById(1L);
+        UserResponseDTO byEmail = userService.findByEmail("carlos@test.com");
+
+        // Assert & Verify
+        assertThat(second).isSameAs(first);
+        assertThat(byEmail).isSameAs(first);
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve calcular o ETag a partir do cache sem consultar o banco")
+    void testCurrentETag() {
+        User versioned = User.builder().id(1L).name("Carlos").email("carlos@test.com").version(3L).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(versioned));
+        when(userRepository.findVersionById(2L)).thenReturn(Optional.of(7L));
+
+        userService.findById(1L);
+
+        assertThat(userService.currentETag(1L)).isEqualTo("\"3\"");
+        assertThat(userService.currentETag(2L)).isEqualTo("\"7\"");
+        verify(userRepository, never()).findVersionById(1L);
+        assertThatThrownBy(() -> userService.currentETag(99L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a atualização quando o If-Match não corresponder à versão atual")
+    void testUpdate_IfMatchMismatch() {
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertThatThrownBy(() -> userService.update(1L, userRequestDTO, "\"2\""))
+                .isInstanceOf(ResourcePreconditionFailedException.class);
+
+        verify(userRepository).updateByIdAndVersionIn(eq(1L), eq(List.of(2L)), anyString(), anyString(), anyString(), any());
+        verify(userRepository, never()).updateById(any(), any(), any(), any(), any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar em um único comando quando o If-Match trouxer uma única versão")
+    void testUpdate_IfMatchSingleVersion() {
+        when(userRepository.updateByIdAndVersionIn(eq(1L), eq(List.of(3L)), anyString(), anyString(), anyString(), any()))
+                .thenReturn(1);
+
+        UserResponseDTO result = userService.update(1L, userRequestDTO, "\"3\"");
+
+        assertThat(result.version()).isEqualTo(4L);
+        verify(userRepository, never()).findVersionById(anyLong());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache do usuário ao atualizar")
+    void testUpdate_EvictsCache() {
+        UserRequestDTO update = new UserRequestDTO(
+                "Maria",
+                "maria@test.com",
+                "1234",
+                LocalDate.of(1995, 5, 15)
+        );
+
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findByEmail("carlos@test.com")).thenReturn(Optional.empty());
+        when(userRepository.updateById(eq(1L), eq("Maria"), eq("maria@test.com"), anyString(), any())).thenReturn(1);
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.of(1L));
+        userService.findById(1L);
+
+        // Act
+        userService.update(1L, update, null);
+
+        // Assert & Verify
+        assertThat(userCache.getById(1L)).isNull();
+        assertThat(userCache.getByEmail("carlos@test.com")).isNull();
+        assertThatThrownBy(() -> userService.findByEmail("carlos@test.com"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        userService.findById(1L);
+        verify(userRepository, times(2)).findById(1L);
+    }
+
     @Test
     @DisplayName("Deve lançar exceção quando usuário não existe")
     void testFindById_NotFound() {
@@ -106,12 +230,31 @@ public class UserServiceTest {
         verify(userRepository, times(1)).findById(999L);
     }
 
+    @Test
+    @DisplayName("Deve lembrar ids inexistentes até que o usuário seja criado")
+    void testFindById_NegativeCache() {
+        // Arrange
+        User created = User.builder().id(999L).name("Maria").email("maria@test.com").version(0L).build();
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(created);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.findById(999L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> userService.findById(999L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> userService.currentETag(999L)).isInstanceOf(ResourceNotFoundException.class);
+        userService.save(userRequestDTO);
+
+        // Verify
+        assertThat(userService.findById(999L).name()).isEqualTo("Maria");
+        verify(userRepository, times(1)).findById(999L);
+        verify(userRepository, never()).findVersionById(anyLong());
+    }
+
     @Test
     @DisplayName("Deve inserir novo usuário com sucesso")
     void testSave_Success() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         // Act
         UserResponseDTO result = userService.save(userRequestDTO);
@@ -120,53 +263,79 @@ public class UserServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.name()).isEqualTo("Carlos");
         assertThat(result.email()).isEqualTo("carlos@test.com");
-        verify(userRepository, times(1)).existsByEmail("carlos@test.com");
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Deve armazenar o hash BCrypt da senha em vez do texto puro")
+    void testSave_HashesPassword() {
+        // Arrange
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
+        ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
+
+        // Act
+        userService.save(userRequestDTO);
+
+        // Assert & Verify
+        verify(userRepository).saveAndFlush(captor.capture());
+        String stored = captor.getValue().getPassword();
+        assertThat(stored).isNotEqualTo("123").startsWith("$2a$04$");
+        assertThat(passwordHasher.matches("123", stored)).isTrue();
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando o email já estiver cadastrado")
     void testSave_EmailAlreadyExists() {
         // Arrange
-        when(userRepository.existsByEmail("carlos@test.com")).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation());
 
         // Act & Assert
         assertThatThrownBy(() -> userService.save(userRequestDTO))
-                .isInstanceOf(ResourceDataIntegrityException.class);
+                .isInstanceOf(ResourceDataIntegrityException.class)
+                .hasMessageContaining("Email already exists.");
 
         // Verify
-        verify(userRepository, times(1)).existsByEmail("carlos@test.com");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
     }
 
     @Test
     @DisplayName("Deve deletar usuário com sucesso")
     void testDelete_Success() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        doNothing().when(userRepository).delete(user);
+        when(userRepository.deleteByIdReturningCount(1L)).thenReturn(1);
 
         // Act
         userService.delete(1L);
 
         // Verify
-        verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).delete(user);
+        verify(userRepository, times(1)).deleteByIdReturningCount(1L);
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao deletar usuário inexistente")
     void testDelete_NotFound() {
         // Arrange
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.deleteByIdReturningCount(999L)).thenReturn(0);
 
         // Act & Assert
         assertThatThrownBy(() -> userService.delete(999L))
                 .isInstanceOf(ResourceNotFoundException.class);
 
         // Verify
-        verify(userRepository, times(1)).findById(999L);
-        verify(userRepository, never()).delete(any(User.class));
+        verify(userRepository, times(1)).deleteByIdReturningCount(999L);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a exclusão de usuário dono de simulações arquivadas")
+    void testDelete_OwnsArchivedSimulations() {
+        when(coldStore.referencesUser(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.delete(1L))
+                .isInstanceOf(ResourceDataIntegrityException.class);
+
+        verify(userRepository, never()).deleteByIdReturningCount(anyLong());
     }
 
     @Test
@@ -180,15 +349,30 @@ public class UserServiceTest {
         );
 
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.updateById(eq(1L), eq("Maria"), eq("maria@test.com"), anyString(), any())).thenReturn(1);
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.of(1L));
+        ArgumentCaptor<String> password = ArgumentCaptor.forClass(String.class);
 
         // Act
-        UserResponseDTO result = userService.update(1L, update);
+        UserResponseDTO result = userService.update(1L, update, null);
 
         // Assert & Verify
         assertThat(result).isNotNull();
         assertThat(result.name()).isEqualTo("Maria");
-        verify(userRepository, times(1)).findById(1L);
+        assertThat(result.version()).isEqualTo(1L);
+        verify(userRepository).updateById(eq(1L), anyString(), anyString(), password.capture(), any());
+        assertThat(passwordHasher.matches("1234", password.getValue())).isTrue();
+        verify(userRepository, never()).findById(anyLong());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao atualizar usuário inexistente")
+    void testUpdate_NotFound() {
+        when(userRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.update(999L, userRequestDTO, null))
+                .isInstanceOf(ResourceNotFoundException.class);
     }
 
     @Test
@@ -202,18 +386,24 @@ public class UserServiceTest {
         );
 
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.existsByEmail("outro@test.com")).thenReturn(true);
+        when(userRepository.updateById(eq(1L), eq("Maria"), eq("outro@test.com"), anyString(), any()))
+                .thenThrow(uniqueViolation());
 
         // Act & Assert
-        assertThatThrownBy(() -> userService.update(1L, update))
-                .isInstanceOf(ResourceDataIntegrityException.class);
+        assertThatThrownBy(() -> userService.update(1L, update, null))
+                .isInstanceOf(ResourceDataIntegrityException.class)
+                .hasMessageContaining("Email is already in use.");
 
         // Verify
-        verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).existsByEmail("outro@test.com");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(transactionManager).rollback(any());
     }
 
+    private static DataIntegrityViolationException uniqueViolation() {
+        return new DataIntegrityViolationException("duplicate email", new ConstraintViolationException(
+                "duplicate email", new SQLException("duplicate email", "23505"), "insert",
+                ConstraintViolationException.ConstraintKind.UNIQUE, "UK_USERS_EMAIL"
+        ));
+    }
 
 }
@@ -0,0 +1,198 @@
+package com.carlosedolv.emergy_api.services.archive;
+
+import com.carlosedolv.emergy_api.entities.ArchiveSegment;
+import com.carlosedolv.emergy_api.repositories.ArchiveSegmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ColdStoreTest {
+    private static final Instant START = Instant.parse("2020-01-01T00:00:00.123456Z");
+
+    @TempDir
+    private Path directory;
+
+    private ArchiveSegmentRepository repository;
+    private List<Long> recorded;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ArchiveSegmentRepository.class);
+        recorded = new ArrayList<>();
+        when(repository.save(any())).thenAnswer(invocation -> {
+            ArchiveSegment segment = invocation.getArgument(0);
+            recorded.add(segment.getId());
+            return segment;
+        });
+        when(repository.findAllIds()).thenAnswer(invocation -> List.copyOf(recorded));
+    }
+
+    private static ArchivedSimulation row(long id, long version) {
+        return new ArchivedSimulation(
+                id, "Simulação nº " + id, id * 1.5, (int) (id % 4) + 1, id * 1000.25,
+                START.plusSeconds(id * 37 - 500).plusNanos(id), version, 100 - id % 7
+        );
+    }
+
+    private ColdStore open() {
+        ColdStore store = new ColdStore(directory, repository);
+        store.load();
+        return store;
+    }
+
+    // Stands in for the transaction manager: runs the action with synchronization active, then completes it.
+    private static void inTransaction(int status, Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            action.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve encontrar cada simulação gravada em vários blocos e nenhuma fora deles")
+    void testAppendAndFind() {
+        ColdStore store = open();
+        List<ArchivedSimulation> rows = new ArrayList<>();
+        for (long id = 10; id < 10 + 3 * Segment.BLOCK_ROWS; id += 3) {
+            rows.add(row(id, id % 5));
+        }
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> store.append(rows.reversed()));
+
+        for (ArchivedSimulation expected : rows) {
+            assertThat(store.findById(expected.id())).contains(expected);
+        }
+        assertThat(store.findById(11)).isEmpty();
+        assertThat(store.findById(9)).isEmpty();
+        assertThat(store.findById(10 + 3L * Segment.BLOCK_ROWS)).isEmpty();
+        assertThat(store.referencesUser(100)).isTrue();
+        assertThat(store.referencesUser(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve listar o segmento só após o commit e apagá-lo se a transação for revertida")
+    void testPublishOnlyAfterCommit() {
+        ColdStore store = open();
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> {
+            store.append(List.of(row(1, 0)));
+            assertThat(store.segmentCount()).isZero();
+        });
+
+        assertThat(store.findById(1)).isEmpty();
+        assertThat(store.referencesUser(row(1, 0).userId())).isFalse();
+        assertThat(store.segmentCount()).isZero();
+        assertThat(directory.resolve("segment-0000000000000001.seg")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Deve encontrar a simulação entre o commit da exclusão e a publicação do segmento")
+    void testFindBeforePublish() {
+        ColdStore store = open();
+        List<ArchivedSimulation> blocks = new ArrayList<>();
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            store.append(List.of(row(1, 0)));
+            assertThat(store.findById(1)).contains(row(1, 0));
+            assertThat(store.referencesUser(row(1, 0).userId())).isTrue();
+            store.forEachBlock(blocks::addAll);
+        });
+
+        assertThat(blocks).isEmpty();
+        assertThat(store.findById(1)).contains(row(1, 0));
+        assertThat(store.segmentCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve localizar simulações em muitos segmentos com intervalos de ids sobrepostos")
+    void testFindAcrossOverlappingSegments() {
+        ColdStore store = open();
+        List<ArchivedSimulation> all = new ArrayList<>();
+        for (long segment = 0; segment < 40; segment++) {
+            List<ArchivedSimulation> rows = new ArrayList<>();
+            // Ids are unique by residue modulo 40; odd segments span three times as far, so ranges nest and overlap.
+            long span = segment % 2 == 0 ? 5 : 15;
+            for (long k = segment; k < segment + span; k++) {
+                rows.add(row(1000 + segment + 40 * k, segment));
+            }
+            all.addAll(rows);
+            inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> store.append(rows));
+        }
+
+        for (ArchivedSimulation expected : all) {
+            assertThat(store.findById(expected.id())).contains(expected);
+        }
+        assertThat(store.findById(999)).isEmpty();
+        assertThat(store.findById(1003)).isEmpty();
+        assertThat(store.segmentCount()).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Deve percorrer apenas as simulações arquivadas do usuário, do segmento mais antigo ao mais novo")
+    void testForEachRowOf() {
+        ColdStore store = open();
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> store.append(List.of(row(1, 0), row(2, 0))));
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> store.append(List.of(row(8, 0), row(9, 0))));
+        List<Long> ids = new ArrayList<>();
+
+        store.forEachRowOf(row(1, 0).userId(), row -> ids.add(row.id()));
+
+        assertThat(ids).containsExactly(1L, 8L);
+    }
+
+    @Test
+    @DisplayName("Deve reabrir apenas os segmentos registrados e descartar os demais arquivos")
+    void testReopen() throws Exception {
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> open().append(List.of(row(1, 0), row(2, 0))));
+        Path uncommitted = Files.copy(directory.resolve("segment-0000000000000001.seg"),
+                directory.resolve("segment-0000000000000002.seg"));
+        Path leftover = Files.writeString(directory.resolve("segment-0000000000000003.seg.tmp"), "parcial");
+
+        ColdStore reopened = open();
+
+        assertThat(reopened.findById(2)).contains(row(2, 0));
+        assertThat(reopened.segmentCount()).isEqualTo(1);
+        assertThat(uncommitted).doesNotExist();
+        assertThat(leftover).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Deve exigir uma transação para gravar um segmento")
+    void testAppendOutsideTransaction() {
+        ColdStore store = open();
+
+        assertThatThrownBy(() -> store.append(List.of(row(1, 0))))
+                .isInstanceOf(IllegalStateException.class);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve falhar ao abrir um segmento corrompido")
+    void testCorruptSegment() throws Exception {
+        Files.write(directory.resolve("segment-0000000000000001.seg"), new byte[64]);
+        recorded.add(1L);
+
+        assertThatThrownBy(this::open)
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("archive segments");
+    }
+}
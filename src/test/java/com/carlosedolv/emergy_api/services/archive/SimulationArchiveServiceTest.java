@@ -0,0 +1,123 @@
+package com.carlosedolv.emergy_api.services.archive;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.ArchiveResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.RollupResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.repositories.UserRepository;
+import com.carlosedolv.emergy_api.services.ETags;
+import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.UserService;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import com.carlosedolv.emergy_api.services.rollup.RollupService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class SimulationArchiveServiceTest {
+    @Autowired
+    private SimulationArchiveService archiveService;
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private SimulationRepository simulationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ColdStore coldStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Deve mover simulações antigas para o armazenamento frio e continuar servindo-as por ID")
+    void testArchive() {
+        User owner = userRepository.save(User.builder()
+                .name("Carlos").email("arquivo@test.com").password("1234").birthday(LocalDate.of(1995, 5, 15)).build());
+        SimulationResponseDTO old = simulationService.save(
+                new SimulationRequestDTO("Safra antiga", 10.0, "Diesel", null, owner.getId())
+        );
+        SimulationResponseDTO recent = simulationService.save(
+                new SimulationRequestDTO("Safra atual", 20.0, "Etanol", null, owner.getId())
+        );
+        jdbcTemplate.update("UPDATE simulations SET created_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(800))), old.id());
+        RollupResponseDTO totals = rollupService.findByKey(RollupDimension.USER, owner.getId().toString());
+
+        ArchiveResponseDTO response = archiveService.archive();
+
+        assertThat(response.archived()).isEqualTo(1);
+        assertThat(simulationRepository.existsById(old.id())).isFalse();
+        assertThat(simulationRepository.existsById(recent.id())).isTrue();
+        assertThat(simulationService.findById(old.id())).isEqualTo(old);
+        assertThat(simulationService.currentETag(old.id())).isEqualTo(ETags.of(old));
+        assertThat(archiveService.archive().archived()).isZero();
+
+        assertThatThrownBy(() -> simulationService.delete(old.id()))
+                .isInstanceOf(ResourceDataIntegrityException.class);
+        assertThatThrownBy(() -> userService.delete(owner.getId()))
+                .isInstanceOf(ResourceDataIntegrityException.class);
+
+        rollupService.rebuild();
+        assertThat(rollupService.findByKey(RollupDimension.USER, owner.getId().toString())).isEqualTo(totals);
+
+        simulationService.delete(recent.id());
+    }
+
+    @Test
+    @DisplayName("Não deve expor a cópia fria de um arquivamento revertido depois que a simulação for deletada")
+    void testRolledBackArchiveStaysHidden() {
+        User owner = userRepository.save(User.builder()
+                .name("Carlos").email("revertido@test.com").password("1234").birthday(LocalDate.of(1995, 5, 15)).build());
+        SimulationResponseDTO saved = simulationService.save(
+                new SimulationRequestDTO("Safra revertida", 10.0, "Diesel", null, owner.getId())
+        );
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            coldStore.append(List.of(ArchivedSimulation.of(simulationRepository.findById(saved.id()).orElseThrow())));
+            status.setRollbackOnly();
+        });
+        simulationService.delete(saved.id());
+
+        assertThatThrownBy(() -> simulationService.findById(saved.id()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> simulationService.currentETag(saved.id()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        rollupService.rebuild();
+        assertThatThrownBy(() -> rollupService.findByKey(RollupDimension.USER, owner.getId().toString()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        userService.delete(owner.getId());
+    }
+}
@@ -0,0 +1,21 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmergyCalculatorTest {
+    private final EmergyCalculator calculator = new EmergyCalculator();
+
+    @Test
+    @DisplayName("Deve calcular a emergia proporcional aos litros para cada combustível")
+    void testCalculate() {
+        for (FuelType type : FuelTypes.CATALOG.all()) {
+            double perLiter = type.getDensity() * type.getLowerHeatingValue() * type.getTransformity();
+
+            assertThat(calculator.calculate(type, 1.0)).isEqualTo(perLiter);
+            assertThat(calculator.calculate(type, 10.0)).isEqualTo(10.0 * perLiter);
+        }
+    }
+}
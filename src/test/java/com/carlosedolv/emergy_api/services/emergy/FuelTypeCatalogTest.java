@@ -0,0 +1,56 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import com.carlosedolv.emergy_api.entities.FuelTypeDefinition;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FuelTypeCatalogTest {
+    @Test
+    @DisplayName("Deve resolver o tipo de combustível pelo código ou rótulo ignorando maiúsculas e espaços")
+    void testResolve() {
+        assertThat(FuelTypes.CATALOG.resolve("etanol")).isSameAs(FuelTypes.ETANOL);
+        assertThat(FuelTypes.CATALOG.resolve(" Gasolina ")).isSameAs(FuelTypes.GASOLINA);
+        assertThat(FuelTypes.CATALOG.byId(FuelTypes.DIESEL.getId())).isSameAs(FuelTypes.DIESEL);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para tipo de combustível desconhecido")
+    void testResolve_Unknown() {
+        assertThatThrownBy(() -> FuelTypes.CATALOG.resolve("Querosene"))
+                .isInstanceOf(ResourceBadRequestException.class)
+                .hasMessageContaining("Unknown fuel type: Querosene");
+        assertThatThrownBy(() -> FuelTypes.CATALOG.resolve(null))
+                .isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> FuelTypes.CATALOG.byId(999))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Deve atribuir ordinais densos na ordem dos IDs")
+    void testOrdinals() {
+        FuelTypeCatalog catalog = FuelTypeCatalog.of(List.of(definition(40, "B", "Bê"), definition(7, "A", "Á")));
+
+        assertThat(catalog.all()).extracting(FuelType::getCode).containsExactly("A", "B");
+        assertThat(catalog.byOrdinal(1).getId()).isEqualTo(40);
+        assertThat(catalog.byId(40).getOrdinal()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar código ou rótulo repetido entre tipos diferentes")
+    void testOf_Ambiguous() {
+        assertThatThrownBy(() -> FuelTypeCatalog.of(List.of(definition(1, "A", "Comum"), definition(2, "COMUM", "B"))))
+                .isInstanceOf(ResourceBadRequestException.class)
+                .hasMessageContaining("Ambiguous fuel type");
+    }
+
+    private static FuelTypeDefinition definition(int id, String code, String label) {
+        return FuelTypeDefinition.builder().id(id).code(code).label(label)
+                .density(1.0).lowerHeatingValue(1.0).transformity(1.0).build();
+    }
+}
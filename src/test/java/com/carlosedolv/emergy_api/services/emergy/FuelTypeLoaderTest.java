@@ -0,0 +1,153 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import com.carlosedolv.emergy_api.entities.FuelTypeDefinition;
+import com.carlosedolv.emergy_api.repositories.FuelTypeDefinitionRepository;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({FuelTypeRegistry.class, FuelTypeLoader.class})
+@ActiveProfiles("test")
+public class FuelTypeLoaderTest {
+    private static final String HEADER = String.join(",", FuelTypeLoader.COLUMNS) + "\n";
+
+    @Autowired
+    private FuelTypeRegistry sharedRegistry;
+
+    @Autowired
+    private FuelTypeDefinitionRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+    private FuelTypeRegistry registry;
+    private FuelTypeLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("fuel-types.csv");
+        registry = new FuelTypeRegistry();
+        loader = new FuelTypeLoader(
+                registry, repository, new DefaultResourceLoader(), transactionManager, jdbcTemplate,
+                file.toUri().toString()
+        );
+    }
+
+    @Test
+    @DisplayName("Deve carregar o arquivo padrão na inicialização")
+    void testLoadOnStartup() {
+        assertThat(sharedRegistry.current().all()).extracting(FuelType::getCode)
+                .containsExactly("ETANOL", "GASOLINA", "DIESEL", "BIODIESEL");
+        assertThat(repository.count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o arquivo sem alterar o catálogo já em uso pelos leitores")
+    void testReload() throws IOException {
+        write("1,ETANOL,Etanol hidratado,0.809,25.0e6,1.86e5,0.010,0.03,0.40\n"
+                + "5,HVO,Diesel renovável,0.78,44.0e6,2.0e5,0.01,0.02,0.3\n");
+        FuelTypeCatalog before = sharedRegistry.current();
+
+        FuelTypeCatalog reloaded = loader.reload();
+
+        assertThat(registry.current()).isSameAs(reloaded);
+        assertThat(reloaded.resolve("hvo").getOrdinal()).isEqualTo(4);
+        assertThat(reloaded.byId(1).getLabel()).isEqualTo("Etanol hidratado");
+        assertThat(reloaded.resolve("Diesel")).isEqualTo(FuelTypes.DIESEL);
+        assertThat(repository.findById(1)).get().extracting(FuelTypeDefinition::getDensity).isEqualTo(0.809);
+        assertThat(before.byId(1).getLabel()).isEqualTo("Etanol");
+    }
+
+    @Test
+    @DisplayName("Deve manter o catálogo anterior quando a recarga violar restrições do banco")
+    void testReload_Conflict() throws IOException {
+        write("5,ALCOOL,Etanol,0.8,25.0e6,1.86e5,0.010,0.03,0.40\n");
+        registry.replace(FuelTypes.CATALOG);
+
+        assertThatThrownBy(() -> loader.reload()).isInstanceOf(ResourceDataIntegrityException.class);
+        assertThat(registry.current()).isSameAs(FuelTypes.CATALOG);
+    }
+
+    @Test
+    @DisplayName("Deve reler a tabela uma vez ao encontrar um ID que o catálogo ainda não conhece")
+    void testById_RefreshesOnMiss() {
+        registry.replace(FuelTypes.CATALOG);
+        jdbcTemplate.update("INSERT INTO fuel_types (id, code, label, density, lower_heating_value, transformity, "
+                + "density_cv, lower_heating_value_cv, transformity_cv) VALUES (9, 'HVO', 'Diesel renovável', "
+                + "0.78, 44.0e6, 2.0e5, 0.01, 0.02, 0.3)");
+
+        FuelType added = registry.byId(9);
+
+        assertThat(added.getLabel()).isEqualTo("Diesel renovável");
+        assertThat(registry.current().resolve("hvo")).isSameAs(added);
+        assertThat(registry.current()).isNotSameAs(FuelTypes.CATALOG);
+        assertThatThrownBy(() -> registry.byId(42)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Deve ler o arquivo ignorando comentários e linhas em branco")
+    void testRead() {
+        List<FuelTypeDefinition> definitions = FuelTypeLoader.read(resource(
+                "# comentário\n\n" + HEADER + "5,HVO,Diesel renovável,0.78,44.0e6,2.0e5,0.01,0.02,0.3\n"
+        ));
+
+        assertThat(definitions).singleElement().satisfies(definition -> {
+            assertThat(definition.getId()).isEqualTo(5);
+            assertThat(definition.getLabel()).isEqualTo("Diesel renovável");
+            assertThat(definition.getLowerHeatingValue()).isEqualTo(44.0e6);
+        });
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar arquivo com cabeçalho, valores ou IDs inválidos")
+    void testRead_Invalid() {
+        assertThatThrownBy(() -> FuelTypeLoader.read(resource("id,code\n1,A\n")))
+                .isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> FuelTypeLoader.read(resource(HEADER + "1,A,Á,-0.7,1,1,0,0,0\n")))
+                .isInstanceOf(ResourceBadRequestException.class)
+                .hasMessageContaining("Line 2: density must be greater than zero.");
+        assertThatThrownBy(() -> FuelTypeLoader.read(resource(HEADER + "0,A,Á,1,1,1,0,0,0\n")))
+                .isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> FuelTypeLoader.read(resource(HEADER + "1,A,Á,1,1,1,0,0,0\n1,B,Bê,1,1,1,0,0,0\n")))
+                .isInstanceOf(ResourceBadRequestException.class)
+                .hasMessageContaining("duplicate fuel type id 1");
+        assertThatThrownBy(() -> FuelTypeLoader.read(resource(HEADER)))
+                .isInstanceOf(ResourceBadRequestException.class);
+    }
+
+    private void write(String rows) throws IOException {
+        Files.writeString(file, HEADER + rows);
+    }
+
+    private static ByteArrayResource resource(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,23 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import org.springframework.core.io.ClassPathResource;
+
+// The shipped fuel-types.csv as a catalog, for tests that run without a database.
+public final class FuelTypes {
+    public static final FuelTypeCatalog CATALOG =
+            FuelTypeCatalog.of(FuelTypeLoader.read(new ClassPathResource("fuel-types.csv")));
+
+    public static final FuelType ETANOL = CATALOG.resolve("ETANOL");
+    public static final FuelType GASOLINA = CATALOG.resolve("GASOLINA");
+    public static final FuelType DIESEL = CATALOG.resolve("DIESEL");
+    public static final FuelType BIODIESEL = CATALOG.resolve("BIODIESEL");
+
+    private FuelTypes() {
+    }
+
+    public static FuelTypeRegistry registry() {
+        FuelTypeRegistry registry = new FuelTypeRegistry();
+        registry.replace(CATALOG);
+        return registry;
+    }
+}
@@ -0,0 +1,66 @@
+package com.carlosedolv.emergy_api.services.emergy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+public class MonteCarloEngineTest {
+    private static final double[] PERCENTILES = {2.5, 50, 97.5};
+
+    private final EmergyCalculator calculator = new EmergyCalculator();
+
+    @Test
+    @DisplayName("Deve convergir para a média e o desvio padrão analíticos")
+    void testRun_Moments() {
+        FuelType type = FuelTypes.ETANOL;
+        double expectedMean = calculator.calculate(type, 10.0);
+        double cv = Math.sqrt((1 + sq(type.getDensityCv())) * (1 + sq(type.getLowerHeatingValueCv()))
+                * (1 + sq(type.getTransformityCv())) - 1);
+
+        MonteCarloResult result = new MonteCarloEngine().run(type, 10.0, 1_000_000, 42L, PERCENTILES);
+
+        assertThat(result.draws()).isEqualTo(1_000_000);
+        assertThat(result.mean()).isCloseTo(expectedMean, withinPercentage(0.5));
+        assertThat(result.standardDeviation()).isCloseTo(expectedMean * cv, withinPercentage(2));
+        assertThat(result.percentiles()[0]).isLessThan(result.percentiles()[1]);
+        assertThat(result.percentiles()[1]).isLessThan(expectedMean);
+        assertThat(result.percentiles()[2]).isGreaterThan(expectedMean);
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo resultado para a mesma semente independente do paralelismo")
+    void testRun_DeterministicAcrossParallelism() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            MonteCarloResult first = new MonteCarloEngine(single).run(FuelTypes.DIESEL, 5.0, 200_000, 7L, PERCENTILES);
+            MonteCarloResult second = new MonteCarloEngine(quad).run(FuelTypes.DIESEL, 5.0, 200_000, 7L, PERCENTILES);
+
+            assertThat(second.mean()).isEqualTo(first.mean());
+            assertThat(second.standardDeviation()).isEqualTo(first.standardDeviation());
+            assertThat(second.percentiles()).containsExactly(first.percentiles());
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve interpolar percentis linearmente entre as amostras ordenadas")
+    void testPercentile() {
+        double[] sorted = {1.0, 2.0, 3.0, 4.0, 5.0};
+
+        assertThat(MonteCarloEngine.percentile(sorted, 0)).isEqualTo(1.0);
+        assertThat(MonteCarloEngine.percentile(sorted, 50)).isEqualTo(3.0);
+        assertThat(MonteCarloEngine.percentile(sorted, 62.5)).isEqualTo(3.5);
+        assertThat(MonteCarloEngine.percentile(sorted, 100)).isEqualTo(5.0);
+    }
+
+    private static double sq(double value) {
+        return value * value;
+    }
+}
@@ -0,0 +1,164 @@
+package com.carlosedolv.emergy_api.services.export;
+
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.services.archive.ArchivedSimulation;
+import com.carlosedolv.emergy_api.services.archive.ColdStore;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SimulationExportServiceTest {
+    @Mock
+    private SimulationRepository simulationRepository;
+
+    @Mock
+    private ColdStore coldStore;
+
+    @Mock
+    private FuelTypeRegistry fuelTypes;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private SimulationExportService exportService;
+
+    private Simulation first;
+    private Simulation second;
+
+    @BeforeEach
+    void setUp() {
+        first = Simulation.builder().id(1L).title("Teste").liters(24.43).fuelType(FuelTypes.ETANOL).result(120.02).build();
+        second = Simulation.builder().id(2L).title("Frota, \"norte\"").liters(10.0).fuelType(FuelTypes.DIESEL).result(50.5).build();
+    }
+
+    @Test
+    @DisplayName("Deve exportar simulações em NDJSON desanexando cada entidade")
+    void testExportNdjson() throws Exception {
+        when(simulationRepository.streamByUserIdOrderByIdAsc(1L)).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(1L, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).startsWith("{");
+        JsonNode node = objectMapper.readTree(lines[1]);
+        assertThat(node.get("id").asLong()).isEqualTo(2L);
+        assertThat(node.get("title").asText()).isEqualTo("Frota, \"norte\"");
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    @DisplayName("Deve exportar simulações em CSV escapando vírgulas e aspas")
+    void testExportCsv() throws Exception {
+        when(simulationRepository.streamByUserIdOrderByIdAsc(1L)).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(1L, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo(SimulationExportService.CSV_HEADER);
+        assertThat(lines[1]).startsWith("1,Teste,24.43,Etanol,120.02,");
+        assertThat(lines[2]).startsWith("2,\"Frota, \"\"norte\"\"\",10.0,Diesel,50.5,");
+    }
+
+    @Test
+    @DisplayName("Deve exportar primeiro as simulações arquivadas e deixar vazia a data ausente")
+    void testExportCsv_IncludesArchived() throws Exception {
+        ArchivedSimulation archived = new ArchivedSimulation(
+                0L, "Antiga", 5.0, FuelTypes.DIESEL.getId(), 25.0, Instant.parse("2020-01-01T00:00:00Z"), 0L, 1L
+        );
+        doAnswer(invocation -> {
+            Consumer<ArchivedSimulation> consumer = invocation.getArgument(1);
+            consumer.accept(archived);
+            return null;
+        }).when(coldStore).forEachRowOf(eq(1L), any());
+        when(fuelTypes.byId(FuelTypes.DIESEL.getId())).thenReturn(FuelTypes.DIESEL);
+        when(simulationRepository.streamByUserIdOrderByIdAsc(1L)).thenReturn(Stream.of(first));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(1L, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).containsExactly(
+                SimulationExportService.CSV_HEADER,
+                "0,Antiga,5.0,Diesel,25.0,2020-01-01T00:00:00Z",
+                "1,Teste,24.43,Etanol,120.02,"
+        );
+    }
+
+    @Test
+    @DisplayName("Deve exportar data ausente como null em NDJSON")
+    void testExportNdjson_NullCreatedAt() throws Exception {
+        when(simulationRepository.streamByUserIdOrderByIdAsc(1L)).thenReturn(Stream.of(first));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(1L, ExportFormat.NDJSON, out);
+
+        JsonNode node = objectMapper.readTree(out.toString(StandardCharsets.UTF_8));
+        assertThat(node.get("createdAt").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve prefixar com apóstrofo os títulos que uma planilha executaria como fórmula")
+    void testExportCsv_FormulaInjection() throws Exception {
+        List<Simulation> simulations = Stream.of("=HYPERLINK(\"http://x\")", "+1", "-1", "@SUM(A1)", "\tTab", "\rCR",
+                        "'=já escapado", "Seguro = sim", "'")
+                .map(title -> Simulation.builder()
+                        .id(1L).title(title).liters(1.0).fuelType(FuelTypes.ETANOL).result(1.0).build())
+                .toList();
+        when(simulationRepository.streamByUserIdOrderByIdAsc(1L)).thenReturn(simulations.stream());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(1L, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(Stream.of(lines).skip(1).map(line -> line.substring(2, line.lastIndexOf(",1.0,Etanol,"))))
+                .containsExactly(
+                        "\"'=HYPERLINK(\"\"http://x\"\")\"", "'+1", "'-1", "'@SUM(A1)", "'\tTab", "\"'\rCR\"",
+                        "''=já escapado", "Seguro = sim", "'"
+                );
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para formato de exportação desconhecido")
+    void testExportFormatUnknown() {
+        assertThat(ExportFormat.fromParam(null)).isEqualTo(ExportFormat.NDJSON);
+        assertThat(ExportFormat.fromParam("CSV")).isEqualTo(ExportFormat.CSV);
+        assertThatThrownBy(() -> ExportFormat.fromParam("xml"))
+                .isInstanceOf(ResourceBadRequestException.class)
+                .hasMessageContaining("xml");
+    }
+}
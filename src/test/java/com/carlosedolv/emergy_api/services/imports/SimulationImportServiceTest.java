@@ -0,0 +1,312 @@
+package com.carlosedolv.emergy_api.services.imports;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchItemResultDTO;
+import com.carlosedolv.emergy_api.dtos.response.BatchResponseDTO;
+import com.carlosedolv.emergy_api.dtos.response.ImportRejectionDTO;
+import com.carlosedolv.emergy_api.dtos.response.ImportResponseDTO;
+import com.carlosedolv.emergy_api.entities.SimulationImport;
+import com.carlosedolv.emergy_api.repositories.SimulationImportRepository;
+import com.carlosedolv.emergy_api.services.SimulationService;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceDataIntegrityException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SimulationImportServiceTest {
+    @Mock
+    private SimulationService simulationService;
+
+    @Mock
+    private SimulationImportRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimulationImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new SimulationImportService(
+                simulationService, repository, Jackson2ObjectMapperBuilder.json().build(), transactionManager, 1000
+        );
+    }
+
+    @Test
+    @DisplayName("Deve importar CSV em blocos, rejeitando linhas inválidas com o número da linha")
+    void testImport_CsvInChunks() throws Exception {
+        checkpointAt("legado", 0);
+        acceptAllButInvalidTitles();
+        when(repository.advance(eq("legado"), anyLong(), anyLong(), anyLong(), anyLong(), anyBoolean(), any()))
+                .thenReturn(1);
+        String csv = """
+                title,liters,type,userId
+                "Frota, norte",10,Etanol,1
+                Frota sul,abc,Diesel,1
+                invalid,5,Gasolina,1
+
+                "Aspas ""duplas""\",7.5,Biodiesel,
+                """;
+
+        ImportResponseDTO result = importService.importSimulations("legado", ImportFormat.CSV, 2L, 2, null, utf8(csv));
+
+        assertThat(result.accepted()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.committedRows()).isEqualTo(4);
+        assertThat(result.rejections()).extracting(ImportRejectionDTO::row).containsExactly(2L, 3L);
+        assertThat(result.rejections().get(0).error()).contains("liters");
+
+        ArgumentCaptor<List<SimulationRequestDTO>> batches = batchCaptor();
+        verify(simulationService, times(2)).saveAll(batches.capture());
+        assertThat(batches.getAllValues().get(0)).extracting(SimulationRequestDTO::title).containsExactly("Frota, norte");
+        assertThat(batches.getAllValues().get(1)).containsExactly(
+                new SimulationRequestDTO("invalid", 5.0, "Gasolina", null, 1L),
+                new SimulationRequestDTO("Aspas \"duplas\"", 7.5, "Biodiesel", null, 2L)
+        );
+        verify(repository).advance(eq("legado"), eq(0L), eq(2L), eq(1L), eq(1L), eq(false), any());
+        verify(repository).advance(eq("legado"), eq(2L), eq(2L), eq(1L), eq(1L), eq(false), any());
+        verify(repository).advance(eq("legado"), eq(4L), eq(0L), eq(0L), eq(0L), eq(true), any());
+    }
+
+    @Test
+    @DisplayName("Deve remover o apóstrofo que a exportação CSV põe antes de títulos com cara de fórmula")
+    void testImport_CsvFormulaEscape() throws Exception {
+        checkpointAt("formulas", 0);
+        acceptAllButInvalidTitles();
+        when(repository.advance(eq("formulas"), anyLong(), anyLong(), anyLong(), anyLong(), anyBoolean(), any()))
+                .thenReturn(1);
+        String csv = "title,liters,type\n'=SUM(A1),1,Etanol\n''-1,2,Etanol\n'Citação',3,Etanol\n";
+
+        importService.importSimulations("formulas", ImportFormat.CSV, 1L, null, null, utf8(csv));
+
+        ArgumentCaptor<List<SimulationRequestDTO>> batches = batchCaptor();
+        verify(simulationService).saveAll(batches.capture());
+        assertThat(batches.getValue()).extracting(SimulationRequestDTO::title)
+                .containsExactly("=SUM(A1)", "'-1", "'Citação'");
+    }
+
+    @Test
+    @DisplayName("Deve importar NDJSON compactado com gzip aplicando o usuário padrão")
+    void testImport_GzipNdjson() throws Exception {
+        checkpointAt("export", 0);
+        acceptAllButInvalidTitles();
+        when(repository.advance(eq("export"), anyLong(), anyLong(), anyLong(), anyLong(), anyBoolean(), any()))
+                .thenReturn(1);
+        String ndjson = """
+                {"id":1,"title":"Simulação 1","liters":10.0,"type":"Etanol","result":1.0,"createdAt":"2024-01-01T00:00:00Z"}
+                {"title":"Simulação 2","liters":"muitos","type":"Diesel"}
+                """;
+
+        ImportResponseDTO result = importService.importSimulations(
+                "export", ImportFormat.JSON, 7L, null, null, gzip(ndjson)
+        );
+
+        assertThat(result.accepted()).isEqualTo(1);
+        assertThat(result.rejections()).singleElement()
+                .satisfies(rejection -> assertThat(rejection.row()).isEqualTo(2L));
+        ArgumentCaptor<List<SimulationRequestDTO>> batches = batchCaptor();
+        verify(simulationService).saveAll(batches.capture());
+        assertThat(batches.getValue()).singleElement().satisfies(dto -> {
+            assertThat(dto.title()).isEqualTo("Simulação 1");
+            assertThat(dto.userId()).isEqualTo(7L);
+        });
+    }
+
+    @Test
+    @DisplayName("Deve retomar após o último bloco confirmado ao reenviar o mesmo arquivo")
+    void testImport_ResumesFromCheckpoint() throws Exception {
+        checkpointAt("retomada", 2);
+        acceptAllButInvalidTitles();
+        when(repository.advance(eq("retomada"), anyLong(), anyLong(), anyLong(), anyLong(), anyBoolean(), any()))
+                .thenReturn(1);
+        String json = """
+                [{"title":"Linha 1","liters":1,"type":"Etanol","userId":1},
+                 {"title":"Linha 2","liters":2,"type":"Etanol","userId":1},
+                 {"title":"Linha 3","liters":3,"type":"Etanol","userId":1}]
+                """;
+
+        ImportResponseDTO result = importService.importSimulations(
+                "retomada", ImportFormat.JSON, null, 2, (long) json.length(), utf8(json)
+        );
+
+        assertThat(result.skipped()).isEqualTo(2);
+        assertThat(result.accepted()).isEqualTo(1);
+        assertThat(result.committedRows()).isEqualTo(3);
+        ArgumentCaptor<List<SimulationRequestDTO>> batches = batchCaptor();
+        verify(simulationService).saveAll(batches.capture());
+        assertThat(batches.getValue()).extracting(SimulationRequestDTO::title).containsExactly("Linha 3");
+        verify(repository).advance(eq("retomada"), eq(2L), eq(1L), eq(1L), eq(0L), eq(true), any());
+    }
+
+    @Test
+    @DisplayName("Deve abortar e desfazer o bloco quando outra importação avançou o mesmo checkpoint")
+    void testImport_ConcurrentUpload() throws Exception {
+        checkpointAt("duplicada", 0);
+        acceptAllButInvalidTitles();
+        when(repository.advance(eq("duplicada"), anyLong(), anyLong(), anyLong(), anyLong(), anyBoolean(), any()))
+                .thenReturn(0);
+
+        assertThatThrownBy(() -> importService.importSimulations(
+                "duplicada", ImportFormat.CSV, 1L, null, null, utf8("title,liters,type\nLinha,1,Etanol\n")
+        )).isInstanceOf(ResourceDataIntegrityException.class);
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar JSON malformado e cabeçalho CSV incompleto")
+    void testImport_MalformedInput() {
+        checkpointAt("quebrado", 0);
+
+        assertThatThrownBy(() -> importService.importSimulations(
+                "quebrado", ImportFormat.JSON, 1L, null, null, utf8("[{\"title\":\"Linha\",,}]")
+        )).isInstanceOf(ResourceBadRequestException.class);
+        assertThatThrownBy(() -> importService.importSimulations(
+                "quebrado", ImportFormat.CSV, 1L, null, null, utf8("title,type\nLinha,Etanol\n")
+        )).isInstanceOf(ResourceBadRequestException.class).hasMessageContaining("liters");
+        verifyNoInteractions(simulationService);
+    }
+
+    @Test
+    @DisplayName("Deve recusar elemento JSON maior que o limite de uma linha")
+    void testImport_JsonRowTooLong() {
+        checkpointAt("enorme", 0);
+        String longTitle = "{\"title\":\"" + "a".repeat(JsonImportReader.MAX_ROW_LENGTH + 1) + "\"}";
+        String manyFields = "{" + "\"x\":1,".repeat(JsonImportReader.MAX_ROW_LENGTH / 6) + "\"title\":\"Linha\"}";
+
+        assertThatThrownBy(() -> importService.importSimulations(
+                "enorme", ImportFormat.JSON, 1L, null, null, utf8(longTitle)
+        )).isInstanceOf(ResourceBadRequestException.class).hasMessageContaining("Row 1 exceeds");
+        assertThatThrownBy(() -> importService.importSimulations(
+                "enorme", ImportFormat.JSON, 1L, null, null, utf8("[{\"title\":\"Linha\"}," + manyFields + "]")
+        )).isInstanceOf(ResourceBadRequestException.class).hasMessageContaining("Row 2 exceeds");
+        verifyNoInteractions(simulationService);
+    }
+
+    @Test
+    @DisplayName("Deve manter os blocos confirmados e indicar a retomada quando o gzip vier truncado")
+    void testImport_TruncatedGzip() throws Exception {
+        checkpointAt("truncado", 0);
+        acceptAllButInvalidTitles();
+        when(repository.advance(eq("truncado"), anyLong(), anyLong(), anyLong(), anyLong(), anyBoolean(), any()))
+                .thenReturn(1);
+        StringBuilder csv = new StringBuilder("title,liters,type\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append("Linha ").append(i).append(',').append(i + 1).append(",Etanol\n");
+        }
+        byte[] compressed = gzip(csv.toString()).readAllBytes();
+        InputStream truncated = new ByteArrayInputStream(compressed, 0, compressed.length / 2);
+
+        assertThatThrownBy(() -> importService.importSimulations("truncado", ImportFormat.CSV, 1L, 100, null, truncated))
+                .isInstanceOf(ResourceBadRequestException.class)
+                .hasMessageContaining("resume");
+
+        verify(repository, atLeastOnce()).advance(eq("truncado"), anyLong(), eq(100L), eq(100L), eq(0L), eq(false), any());
+        verify(repository, never()).advance(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), eq(true), any());
+    }
+
+    @Test
+    @DisplayName("Deve tratar a queda da conexão no meio do corpo como upload interrompido")
+    void testImport_ConnectionDropped() throws Exception {
+        checkpointAt("abortado", 0);
+        acceptAllButInvalidTitles();
+        when(repository.advance(eq("abortado"), anyLong(), anyLong(), anyLong(), anyLong(), anyBoolean(), any()))
+                .thenReturn(1);
+        InputStream dropped = new SequenceInputStream(
+                utf8("title,liters,type\nLinha 1,1,Etanol\nLinha 2,2,Etanol\nLinha 3,3,"),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Connection reset by peer");
+                    }
+                }
+        );
+
+        assertThatThrownBy(() -> importService.importSimulations("abortado", ImportFormat.CSV, 1L, 2, null, dropped))
+                .isInstanceOf(ResourceBadRequestException.class)
+                .hasMessageContaining("after 2 committed rows");
+
+        verify(repository).advance(eq("abortado"), eq(0L), eq(2L), eq(2L), eq(0L), eq(false), any());
+        verify(repository, never()).advance(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), eq(true), any());
+    }
+
+    @Test
+    @DisplayName("Não deve confirmar o último registro quando o corpo terminar antes do Content-Length")
+    void testImport_ShortBody() throws Exception {
+        checkpointAt("curto", 0);
+        acceptAllButInvalidTitles();
+        when(repository.advance(eq("curto"), anyLong(), anyLong(), anyLong(), anyLong(), anyBoolean(), any()))
+                .thenReturn(1);
+        String csv = "title,liters,type\nLinha 1,1,Etanol\nLinha 2,2,Etanol\nLinha 3,35,Etanol\n";
+        String cut = csv.substring(0, csv.length() - 5);
+
+        assertThatThrownBy(() -> importService.importSimulations(
+                "curto", ImportFormat.CSV, 1L, 2, (long) csv.length(), utf8(cut)
+        )).isInstanceOf(ResourceBadRequestException.class).hasMessageContaining("resume");
+        verify(repository, never()).advance(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), eq(true), any());
+
+        String ndjson = "{\"title\":\"Linha 1\",\"liters\":1,\"type\":\"Etanol\"}\n{\"title\":\"Linha 2\",\"lit";
+        assertThatThrownBy(() -> importService.importSimulations("curto", ImportFormat.JSON, 1L, 2, null, utf8(ndjson)))
+                .isInstanceOf(ResourceBadRequestException.class).hasMessageContaining("resume");
+    }
+
+    private void checkpointAt(String importId, long committedRows) {
+        when(repository.findById(importId)).thenReturn(Optional.of(
+                SimulationImport.builder().id(importId).committedRows(committedRows).build()
+        ));
+    }
+
+    private void acceptAllButInvalidTitles() {
+        when(simulationService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<SimulationRequestDTO> dtos = invocation.getArgument(0);
+            List<BatchItemResultDTO> items = new ArrayList<>();
+            for (int i = 0; i < dtos.size(); i++) {
+                items.add("invalid".equals(dtos.get(i).title())
+                        ? BatchItemResultDTO.failed(i, "title: inválido")
+                        : BatchItemResultDTO.created(i, (long) i + 100));
+            }
+            return new BatchResponseDTO(items);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<SimulationRequestDTO>> batchCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static InputStream utf8(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
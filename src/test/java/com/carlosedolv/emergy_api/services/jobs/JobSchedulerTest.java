@@ -0,0 +1,178 @@
+package com.carlosedolv.emergy_api.services.jobs;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceTooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JobSchedulerTest {
+    private JobScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve executar a tarefa e guardar o resultado para consulta")
+    void testSubmit_Succeeded() throws Exception {
+        scheduler = new JobScheduler(1, 10, 10, Duration.ofMinutes(1));
+
+        Job job = scheduler.submit(1L, "test", () -> 42);
+        awaitFinished(job);
+
+        assertThat(scheduler.find(job.getId())).containsSame(job);
+        assertThat(job.getState()).isEqualTo(JobState.SUCCEEDED);
+        assertThat(job.getResult()).isEqualTo(42);
+        assertThat(job.getStartedAt()).isNotNull();
+        assertThat(job.getFinishedAt()).isAfterOrEqualTo(job.getStartedAt());
+    }
+
+    @Test
+    @DisplayName("Deve registrar a falha da tarefa sem expor a mensagem da exceção")
+    void testSubmit_Failed() throws Exception {
+        scheduler = new JobScheduler(1, 10, 10, Duration.ofMinutes(1));
+
+        Job job = scheduler.submit(1L, "test", () -> {
+            throw new IllegalArgumentException("jdbc:h2:mem:segredo");
+        });
+        awaitFinished(job);
+
+        assertThat(job.getState()).isEqualTo(JobState.FAILED);
+        assertThat(job.getError()).isEqualTo(Job.UNEXPECTED_ERROR);
+    }
+
+    @Test
+    @DisplayName("Deve manter a mensagem de erros destinados ao cliente")
+    void testSubmit_FailedWithResourceException() throws Exception {
+        scheduler = new JobScheduler(1, 10, 10, Duration.ofMinutes(1));
+
+        Job job = scheduler.submit(1L, "test", () -> {
+            throw new ResourceBadRequestException("litersTo must be greater than or equal to litersFrom.");
+        });
+        awaitFinished(job);
+
+        assertThat(job.getState()).isEqualTo(JobState.FAILED);
+        assertThat(job.getError()).isEqualTo("Bad request: litersTo must be greater than or equal to litersFrom.");
+    }
+
+    @Test
+    @DisplayName("Deve expor o progresso informado pela tarefa enquanto ela executa")
+    void testSubmit_Progress() throws Exception {
+        scheduler = new JobScheduler(1, 10, 10, Duration.ofMinutes(1));
+        CountDownLatch reported = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Job job = scheduler.submit(1L, "test", progress -> {
+            progress.accept(0.25);
+            reported.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertThat(reported.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(job.getState()).isEqualTo(JobState.RUNNING);
+        assertThat(job.getProgress()).isEqualTo(0.25);
+
+        release.countDown();
+        awaitFinished(job);
+        assertThat(job.getProgress()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Deve marcar como falha uma tarefa que lança Error e manter o worker vivo")
+    void testSubmit_Error() throws Exception {
+        scheduler = new JobScheduler(1, 10, 10, Duration.ofMinutes(1));
+
+        Job failed = scheduler.submit(1L, "test", () -> {
+            throw new StackOverflowError();
+        });
+        awaitFinished(failed);
+        Job next = scheduler.submit(1L, "test", () -> 42);
+        awaitFinished(next);
+
+        assertThat(failed.getState()).isEqualTo(JobState.FAILED);
+        assertThat(failed.getError()).isEqualTo(Job.UNEXPECTED_ERROR);
+        assertThat(failed.getFinishedAt()).isNotNull();
+        assertThat(next.getState()).isEqualTo(JobState.SUCCEEDED);
+    }
+
+    @Test
+    @DisplayName("Deve alternar entre usuários ao escolher o próximo job")
+    void testFairnessAcrossUsers() throws Exception {
+        scheduler = new JobScheduler(1, 100, 100, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        scheduler.submit(9L, "blocker", () -> release.await(5, TimeUnit.SECONDS));
+
+        scheduler.submit(1L, "test", () -> executed.add("A1"));
+        scheduler.submit(1L, "test", () -> executed.add("A2"));
+        Job last = scheduler.submit(1L, "test", () -> executed.add("A3"));
+        scheduler.submit(2L, "test", () -> executed.add("B1"));
+        scheduler.submit(null, "test", () -> executed.add("C1"));
+        release.countDown();
+        awaitFinished(last);
+
+        assertThat(executed).containsExactly("A1", "B1", "C1", "A2", "A3");
+    }
+
+    @Test
+    @DisplayName("Deve recusar submissões quando a fila ou a cota do usuário estiver cheia")
+    void testSubmit_QueueFull() {
+        scheduler = new JobScheduler(1, 3, 2, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            scheduler.submit(9L, "blocker", () -> release.await(5, TimeUnit.SECONDS));
+            awaitPending(0);
+            scheduler.submit(1L, "test", () -> 1);
+            scheduler.submit(1L, "test", () -> 2);
+
+            assertThatThrownBy(() -> scheduler.submit(1L, "test", () -> 3))
+                    .isInstanceOf(ResourceTooManyRequestsException.class);
+            scheduler.submit(2L, "test", () -> 4);
+            assertThatThrownBy(() -> scheduler.submit(3L, "test", () -> 5))
+                    .isInstanceOf(ResourceTooManyRequestsException.class);
+            assertThat(scheduler.pendingCount()).isEqualTo(3);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve expirar resultados concluídos após o TTL")
+    void testResultTtl() throws Exception {
+        scheduler = new JobScheduler(1, 10, 10, Duration.ofMillis(100));
+
+        Job job = scheduler.submit(1L, "test", () -> "done");
+        awaitFinished(job);
+        assertThat(scheduler.find(job.getId())).isPresent();
+        Thread.sleep(250);
+
+        assertThat(scheduler.find(job.getId())).isEmpty();
+    }
+
+    private void awaitFinished(Job job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.getState().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(job.getState().isFinished()).isTrue();
+    }
+
+    private void awaitPending(int expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.pendingCount() != expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(scheduler.pendingCount()).isEqualTo(expected);
+    }
+}
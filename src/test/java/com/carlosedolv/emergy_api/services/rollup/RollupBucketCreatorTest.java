@@ -0,0 +1,94 @@
+package com.carlosedolv.emergy_api.services.rollup;
+
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import com.carlosedolv.emergy_api.repositories.SimulationRollupRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class RollupBucketCreatorTest {
+    private static final String KEY = "2099-01-01";
+
+    @Autowired
+    private RollupBucketCreator bucketCreator;
+
+    @Autowired
+    private SimulationRollupRepository repository;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM simulation_rollups WHERE bucket_key = ?", KEY);
+    }
+
+    @Test
+    @DisplayName("Deve criar o bucket na conexão da transação chamadora e ignorar um bucket já existente")
+    void testCreate_OnCallerConnection() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int activeConnections = transaction.execute(status -> {
+            bucketCreator.create(RollupDimension.DAY, KEY);
+            bucketCreator.create(RollupDimension.DAY, KEY);
+            repository.applyDelta(RollupDimension.DAY, KEY, 1, 2.0, 20.0);
+            return dataSource.getHikariPoolMXBean().getActiveConnections();
+        });
+
+        assertThat(activeConnections).isEqualTo(1);
+        assertThat(repository.findByDimensionAndBucketKey(RollupDimension.DAY, KEY)).get()
+                .satisfies(rollup -> assertThat(rollup.getSimulationCount()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("Deve manter a transação chamadora quando outra criar o mesmo bucket ao mesmo tempo")
+    void testCreate_ConcurrentCreator() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch created = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            bucketCreator.create(RollupDimension.DAY, KEY);
+            created.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(created.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            assertThatThrownBy(() -> bucketCreator.create(RollupDimension.DAY, KEY))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            repository.applyDelta(RollupDimension.DAY, KEY, 1, 2.0, 20.0);
+        }));
+        Thread.sleep(100);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertThat(repository.findByDimensionAndBucketKey(RollupDimension.DAY, KEY)).get()
+                .satisfies(rollup -> assertThat(rollup.getSimulationCount()).isEqualTo(1));
+    }
+}
@@ -0,0 +1,265 @@
+package com.carlosedolv.emergy_api.services.rollup;
+
+import com.carlosedolv.emergy_api.dtos.response.RollupResponseDTO;
+import com.carlosedolv.emergy_api.entities.RollupDimension;
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.entities.SimulationRollup;
+import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.repositories.SimulationRollupRepository;
+import com.carlosedolv.emergy_api.services.archive.ArchivedSimulation;
+import com.carlosedolv.emergy_api.services.archive.ColdStore;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RollupServiceTest {
+    @Mock
+    private SimulationRollupRepository rollupRepository;
+
+    @Mock
+    private SimulationRepository simulationRepository;
+
+    @Mock
+    private RollupBucketCreator bucketCreator;
+
+    @Mock
+    private ColdStore coldStore;
+
+    @Spy
+    private FuelTypeRegistry fuelTypes = FuelTypes.registry();
+
+    @InjectMocks
+    private RollupService rollupService;
+
+    private Simulation simulation;
+
+    @BeforeEach
+    void setUp() {
+        User owner = User.builder().id(1L).name("Carlos").email("carlos@email.com").build();
+        simulation = Simulation.builder()
+                .id(1L)
+                .title("Teste")
+                .liters(10.0)
+                .fuelType(FuelTypes.ETANOL)
+                .result(100.0)
+                .user(owner)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve somar o delta de uma simulação criada em cada dimensão")
+    void testRecordCreated() {
+        when(rollupRepository.applyDelta(any(), anyString(), anyLong(), anyDouble(), anyDouble())).thenReturn(1);
+
+        rollupService.recordCreated(simulation);
+
+        verify(rollupRepository).applyDelta(RollupDimension.USER, "1", 1, 10.0, 100.0);
+        verify(rollupRepository).applyDelta(RollupDimension.TYPE, "1", 1, 10.0, 100.0);
+        verifyNoMoreInteractions(rollupRepository);
+        verifyNoInteractions(bucketCreator);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar os deltas de um lote antes de atualizar os agregados")
+    void testRecordCreated_Batch() {
+        Simulation second = Simulation.builder()
+                .id(2L).title("Outra").liters(5.0).fuelType(FuelTypes.ETANOL).result(50.0).user(simulation.getUser()).build();
+        when(rollupRepository.applyDelta(any(), anyString(), anyLong(), anyDouble(), anyDouble())).thenReturn(1);
+
+        rollupService.recordCreated(List.of(simulation, second));
+
+        verify(rollupRepository).applyDelta(RollupDimension.USER, "1", 2, 15.0, 150.0);
+        verify(rollupRepository).applyDelta(RollupDimension.TYPE, "1", 2, 15.0, 150.0);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("Deve criar o agregado quando ele ainda não existir e reaplicar o delta")
+    void testRecordCreated_MissingBucket() {
+        when(rollupRepository.applyDelta(any(), anyString(), anyLong(), anyDouble(), anyDouble())).thenReturn(1);
+        when(rollupRepository.applyDelta(RollupDimension.TYPE, "1", 1, 10.0, 100.0)).thenReturn(0, 1);
+        doThrow(new DataIntegrityViolationException("duplicate"))
+                .when(bucketCreator).create(RollupDimension.TYPE, "1");
+
+        rollupService.recordCreated(simulation);
+
+        verify(bucketCreator, times(1)).create(RollupDimension.TYPE, "1");
+        verify(rollupRepository, times(2)).applyDelta(RollupDimension.TYPE, "1", 1, 10.0, 100.0);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar dimensões cujo delta líquido é zero na atualização")
+    void testRecordUpdated_SkipsUnchangedBuckets() {
+        RollupContribution before = RollupContribution.of(simulation);
+        simulation.setLiters(12.0);
+        simulation.setResult(120.0);
+        when(rollupRepository.applyDelta(any(), anyString(), anyLong(), anyDouble(), anyDouble())).thenReturn(1);
+
+        rollupService.recordUpdated(before, simulation);
+
+        verify(rollupRepository).applyDelta(RollupDimension.USER, "1", 0, 2.0, 20.0);
+        verify(rollupRepository).applyDelta(RollupDimension.TYPE, "1", 0, 2.0, 20.0);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("Deve subtrair a simulação removida dos agregados")
+    void testRecordDeleted() {
+        when(rollupRepository.applyDelta(any(), anyString(), anyLong(), anyDouble(), anyDouble())).thenReturn(1);
+
+        rollupService.recordDeleted(simulation);
+
+        verify(rollupRepository).applyDelta(RollupDimension.USER, "1", -1, -10.0, -100.0);
+        verify(rollupRepository).applyDelta(RollupDimension.TYPE, "1", -1, -10.0, -100.0);
+    }
+
+    @Test
+    @DisplayName("Deve recalcular todos os agregados a partir das simulações")
+    @SuppressWarnings("unchecked")
+    void testRebuild() {
+        Instant day = Instant.parse("2025-03-01T10:00:00Z");
+        when(simulationRepository.streamRollupContributions()).thenReturn(Stream.of(
+                new RollupContribution(1L, FuelTypes.ETANOL, day, 10.0, 100.0),
+                new RollupContribution(2L, FuelTypes.ETANOL, day, 5.0, 50.0)
+        ));
+
+        int buckets = rollupService.rebuild();
+
+        ArgumentCaptor<List<SimulationRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).deleteAllInBatch();
+        verify(rollupRepository).saveAll(captor.capture());
+        assertThat(buckets).isEqualTo(4);
+        assertThat(captor.getValue())
+                .extracting(SimulationRollup::getDimension, SimulationRollup::getBucketKey, SimulationRollup::getSimulationCount)
+                .containsExactly(
+                        tuple(RollupDimension.USER, "1", 1L),
+                        tuple(RollupDimension.USER, "2", 1L),
+                        tuple(RollupDimension.TYPE, "1", 2L),
+                        tuple(RollupDimension.DAY, "2025-03-01", 2L)
+                );
+    }
+
+    @Test
+    @DisplayName("Deve incluir no recálculo as simulações arquivadas")
+    @SuppressWarnings("unchecked")
+    void testRebuild_WithArchived() {
+        Instant day = Instant.parse("2025-03-01T10:00:00Z");
+        when(simulationRepository.streamRollupContributions()).thenReturn(Stream.of(
+                new RollupContribution(1L, FuelTypes.ETANOL, day, 10.0, 100.0)
+        ));
+        doAnswer(invocation -> {
+            invocation.<Consumer<List<ArchivedSimulation>>>getArgument(0).accept(List.of(
+                    new ArchivedSimulation(2L, "Fria", 4.0, FuelTypes.DIESEL.getId(), 40.0, day, 0L, 1L)
+            ));
+            return null;
+        }).when(coldStore).forEachBlock(any());
+
+        rollupService.rebuild();
+
+        ArgumentCaptor<List<SimulationRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(SimulationRollup::getDimension, SimulationRollup::getBucketKey, SimulationRollup::getSimulationCount)
+                .containsExactly(
+                        tuple(RollupDimension.USER, "1", 2L),
+                        tuple(RollupDimension.TYPE, "1", 1L),
+                        tuple(RollupDimension.TYPE, "3", 1L),
+                        tuple(RollupDimension.DAY, "2025-03-01", 2L)
+                );
+    }
+
+    @Test
+    @DisplayName("Deve aplicar só depois do recálculo um delta que chega enquanto ele lê o snapshot")
+    void testRebuild_BlocksConcurrentDeltas() throws Exception {
+        CountDownLatch snapshotting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(simulationRepository.streamRollupContributions()).thenAnswer(invocation -> {
+            snapshotting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Stream.empty();
+        });
+        when(rollupRepository.applyDelta(any(), anyString(), anyLong(), anyDouble(), anyDouble())).thenReturn(1);
+
+        CompletableFuture<Integer> rebuild = CompletableFuture.supplyAsync(rollupService::rebuild);
+        assertThat(snapshotting.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> delta = CompletableFuture.runAsync(() -> rollupService.recordCreated(simulation));
+        Thread.sleep(100);
+        boolean appliedDuringSnapshot = delta.isDone();
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+        delta.get(5, TimeUnit.SECONDS);
+
+        assertThat(appliedDuringSnapshot).isFalse();
+        InOrder order = inOrder(rollupRepository);
+        order.verify(rollupRepository).saveAll(anyList());
+        order.verify(rollupRepository).applyDelta(RollupDimension.USER, "1", 1, 10.0, 100.0);
+    }
+
+    @Test
+    @DisplayName("Deve rotular, filtrar e ordenar os agregados por tipo pelo nome atual do combustível")
+    void testFindAll_Type() {
+        when(rollupRepository.findActive(RollupDimension.TYPE, null, null)).thenReturn(List.of(
+                SimulationRollup.builder().bucketKey("1").simulationCount(2).totalLiters(15.0).totalResult(150.0).build(),
+                SimulationRollup.builder().bucketKey("2").simulationCount(1).totalLiters(1.0).totalResult(10.0).build(),
+                SimulationRollup.builder().bucketKey("3").simulationCount(1).totalLiters(4.0).totalResult(40.0).build(),
+                SimulationRollup.builder().bucketKey("Legado").simulationCount(9).build()
+        ));
+
+        List<RollupResponseDTO> result = rollupService.findAll(RollupDimension.TYPE, "D", "F");
+
+        assertThat(result).containsExactly(
+                new RollupResponseDTO("Diesel", 1, 4.0, 40.0),
+                new RollupResponseDTO("Etanol", 2, 15.0, 150.0)
+        );
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o agregado não existir")
+    void testFindByKey_NotFound() {
+        when(rollupRepository.findByDimensionAndBucketKey(RollupDimension.TYPE, "3"))
+                .thenReturn(Optional.of(SimulationRollup.builder().bucketKey("3").build()));
+
+        assertThatThrownBy(() -> rollupService.findByKey(RollupDimension.TYPE, "Diesel"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Deve retornar o agregado de uma chave")
+    void testFindByKey() {
+        when(rollupRepository.findByDimensionAndBucketKey(RollupDimension.TYPE, "1"))
+                .thenReturn(Optional.of(SimulationRollup.builder()
+                        .bucketKey("1").simulationCount(2).totalLiters(15.0).totalResult(150.0).build()));
+
+        RollupResponseDTO result = rollupService.findByKey(RollupDimension.TYPE, "Etanol");
+
+        assertThat(result).isEqualTo(new RollupResponseDTO("Etanol", 2, 15.0, 150.0));
+    }
+}
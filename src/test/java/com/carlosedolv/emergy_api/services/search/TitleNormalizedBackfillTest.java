@@ -0,0 +1,76 @@
+package com.carlosedolv.emergy_api.services.search;
+
+import com.carlosedolv.emergy_api.entities.Simulation;
+import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.repositories.UserRepository;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeLoader;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypeRegistry;
+import com.carlosedolv.emergy_api.services.emergy.FuelTypes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({FuelTypeRegistry.class, FuelTypeLoader.class, TitleNormalizedBackfill.class})
+@ActiveProfiles("test")
+public class TitleNormalizedBackfillTest {
+    @Autowired
+    private TitleNormalizedBackfill backfill;
+
+    @Autowired
+    private SimulationRepository simulationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Deve preencher o título normalizado das simulações gravadas antes da coluna existir")
+    void testBackfill() {
+        User owner = userRepository.save(User.builder()
+                .name("Carlos")
+                .email("carlos@email.com")
+                .password("1234")
+                .birthday(LocalDate.of(2004, 8, 21))
+                .build());
+        List<Simulation> simulations = new ArrayList<>();
+        for (int i = 0; i <= TitleNormalizedBackfill.BATCH_SIZE; i++) {
+            simulations.add(Simulation.builder()
+                    .title("Simulação " + i)
+                    .liters(4.43)
+                    .fuelType(FuelTypes.ETANOL)
+                    .result(20.34)
+                    .user(owner)
+                    .build());
+        }
+        simulationRepository.saveAll(simulations);
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE simulations SET title_normalized = NULL")
+                .executeUpdate();
+        entityManager.clear();
+
+        backfill.backfill();
+        entityManager.clear();
+
+        Simulation first = simulationRepository.findById(simulations.get(0).getId()).orElseThrow();
+        assertThat(first.getTitleNormalized()).isEqualTo("simulacao 0");
+        assertThat(first.getVersion()).isEqualTo(simulations.get(0).getVersion());
+        assertThat(simulationRepository.findAll())
+                .hasSize(TitleNormalizedBackfill.BATCH_SIZE + 1)
+                .allSatisfy(s -> assertThat(s.getTitleNormalized()).isEqualTo(Simulation.normalizeTitle(s.getTitle())));
+    }
+}
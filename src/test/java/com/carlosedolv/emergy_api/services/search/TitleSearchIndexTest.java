@@ -0,0 +1,98 @@
+package com.carlosedolv.emergy_api.services.search;
+
+import com.carlosedolv.emergy_api.dtos.request.SimulationRequestDTO;
+import com.carlosedolv.emergy_api.dtos.response.SimulationResponseDTO;
+import com.carlosedolv.emergy_api.entities.User;
+import com.carlosedolv.emergy_api.repositories.SimulationRepository;
+import com.carlosedolv.emergy_api.repositories.UserRepository;
+import com.carlosedolv.emergy_api.services.SimulationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class TitleSearchIndexTest {
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private TitleSearchIndex titleIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("Carlos").email("indice@test.com").password("1234").birthday(LocalDate.of(1995, 5, 15)).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.delete(owner);
+    }
+
+    @Test
+    @DisplayName("Deve indexar a simulação após o commit e removê-la ao deletar")
+    void testIndexFollowsCommits() {
+        SimulationResponseDTO saved = simulationService.save(
+                new SimulationRequestDTO("Colheita do canavial", 10.0, "Etanol", null, owner.getId())
+        );
+
+        assertThat(simulationService.fuzzySearchByTitle("colheta canavial", null))
+                .extracting(SimulationResponseDTO::id).containsExactly(saved.id());
+
+        simulationService.delete(saved.id());
+        assertThat(titleIndex.search("colheita do canavial", 10))
+                .extracting(TrigramIndex.Match::id).doesNotContain(saved.id());
+    }
+
+    @Test
+    @DisplayName("Não deve indexar simulações de uma transação revertida")
+    void testRollbackIsNotIndexed() {
+        int before = titleIndex.size();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            simulationService.save(new SimulationRequestDTO("Colheita revertida", 10.0, "Etanol", null, owner.getId()));
+            status.setRollbackOnly();
+        });
+
+        assertThat(titleIndex.size()).isEqualTo(before);
+        assertThat(titleIndex.search("colheita revertida", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Não deve reindexar na carga uma simulação removida depois de lida")
+    void testLoadSkipsIdsRemovedDuringLoad() {
+        SimulationRepository repository = mock(SimulationRepository.class);
+        TitleSearchIndex index = new TitleSearchIndex(repository, mock(PlatformTransactionManager.class));
+        IndexedTitle removed = new IndexedTitle(1L, "colheita removida");
+        IndexedTitle kept = new IndexedTitle(2L, "colheita mantida");
+        when(repository.streamIndexedTitles()).thenReturn(Stream.of(removed, kept)
+                .peek(title -> {
+                    if (title == removed) {
+                        index.remove(removed.id());
+                    }
+                }));
+
+        index.load();
+
+        assertThat(index.search("colheita", 10)).extracting(TrigramIndex.Match::id).containsExactly(2L);
+    }
+}
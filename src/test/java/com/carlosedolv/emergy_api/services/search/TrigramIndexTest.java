@@ -0,0 +1,87 @@
+package com.carlosedolv.emergy_api.services.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrigramIndexTest {
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1, "biodiesel frota");
+        index.put(2, "diesel frota");
+        index.put(3, "gasolina usina");
+        index.put(4, "etanol safra 2024");
+    }
+
+    @Test
+    @DisplayName("Deve priorizar o título que contém a consulta no início de uma palavra")
+    void testSearch_Substring() {
+        List<TrigramIndex.Match> matches = index.search("diesel", 10);
+
+        assertThat(matches).extracting(TrigramIndex.Match::id).containsExactly(2L, 1L);
+        assertThat(matches.get(0).score()).isEqualTo(1.0);
+        assertThat(matches.get(1).score()).isLessThan(1.0);
+    }
+
+    @Test
+    @DisplayName("Deve tolerar erros de digitação na consulta")
+    void testSearch_Typo() {
+        assertThat(index.search("gasolna", 10)).extracting(TrigramIndex.Match::id).containsExactly(3L);
+        assertThat(index.search("etanl safra", 10)).extracting(TrigramIndex.Match::id).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Deve desempatar pelo título mais curto e depois pelo menor ID, respeitando o limite")
+    void testSearch_TieBreakAndLimit() {
+        index.put(10, "usina teste");
+        index.put(5, "usina teste");
+        index.put(6, "usina teste longo");
+
+        assertThat(index.search("usina teste", 10)).extracting(TrigramIndex.Match::id).startsWith(5L, 10L, 6L);
+        assertThat(index.search("usina teste", 2)).extracting(TrigramIndex.Match::id).containsExactly(5L, 10L);
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio quando nenhum título for parecido")
+    void testSearch_NoMatch() {
+        assertThat(index.search("xyzw", 10)).isEmpty();
+        assertThat(index.search("", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve refletir substituições e remoções, sem sobrescrever em putIfAbsent")
+    void testPutAndRemove() {
+        index.put(3, "diesel safra");
+        index.putIfAbsent(3, "gasolina usina");
+        index.remove(1);
+
+        assertThat(index.search("gasolina", 10)).isEmpty();
+        assertThat(index.search("diesel", 10)).extracting(TrigramIndex.Match::id).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve continuar consistente depois de compactar documentos removidos")
+    void testCompaction() {
+        for (long id = 100; id < 5100; id++) {
+            index.put(id, "safra " + id);
+        }
+        for (long id = 100; id < 4900; id++) {
+            index.remove(id);
+        }
+        index.put(4950, "safra renomeada");
+
+        assertThat(index.size()).isEqualTo(204);
+        assertThat(index.search("safra 5099", 1)).extracting(TrigramIndex.Match::id).containsExactly(5099L);
+        assertThat(index.search("safra 4899", 1)).extracting(TrigramIndex.Match::id).doesNotContain(4899L);
+        assertThat(index.search("renomeada", 10)).extracting(TrigramIndex.Match::id).containsExactly(4950L);
+        assertThat(index.search("diesel", 10)).extracting(TrigramIndex.Match::id).containsExactly(2L, 1L);
+    }
+}
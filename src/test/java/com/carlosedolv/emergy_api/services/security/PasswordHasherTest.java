@@ -0,0 +1,82 @@
+package com.carlosedolv.emergy_api.services.security;
+
+import com.carlosedolv.emergy_api.services.exceptions.ResourceBadRequestException;
+import com.carlosedolv.emergy_api.services.exceptions.ResourceTooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PasswordHasherTest {
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve gerar hashes BCrypt com sal distinto e custo configurado")
+    void testHash() {
+        hasher = new PasswordHasher(5, 1, 4, Duration.ofSeconds(5));
+
+        String first = hasher.hash("segredo");
+        String second = hasher.hash("segredo");
+
+        assertThat(first).startsWith("$2a$05$").isNotEqualTo(second);
+        assertThat(hasher.matches("segredo", first)).isTrue();
+        assertThat(hasher.matches("outra", first)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 429 quando a fila de hashing estiver cheia")
+    void testHash_QueueFull() {
+        hasher = new PasswordHasher(12, 1, 1, Duration.ofSeconds(30));
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> hasher.hash("segredo"), Thread::startVirtualThread));
+        }
+
+        long rejected = calls.stream().filter(call -> {
+            try {
+                call.join();
+                return false;
+            } catch (CompletionException e) {
+                assertThat(e.getCause()).isInstanceOf(ResourceTooManyRequestsException.class);
+                return true;
+            }
+        }).count();
+        assertThat(rejected).isEqualTo(1);
+        assertThat(hasher.rejectedCount()).isEqualTo(1);
+        assertThat(hasher.queueDepth()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 429 quando o hash não terminar dentro do prazo")
+    void testHash_Timeout() {
+        hasher = new PasswordHasher(12, 1, 4, Duration.ofMillis(1));
+
+        assertThatThrownBy(() -> hasher.hash("segredo")).isInstanceOf(ResourceTooManyRequestsException.class);
+        assertThat(hasher.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 400 senhas acima de 72 bytes em UTF-8, mesmo com menos de 72 caracteres")
+    void testHash_TooManyBytes() {
+        hasher = new PasswordHasher(4, 1, 4, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> hasher.hash("ç".repeat(40)))
+                .isInstanceOf(ResourceBadRequestException.class)
+                .hasMessageContaining("72 bytes");
+        assertThat(hasher.matches("ç".repeat(36), hasher.hash("ç".repeat(36)))).isTrue();
+    }
+}